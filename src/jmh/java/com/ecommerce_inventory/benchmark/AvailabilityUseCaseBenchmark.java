@@ -0,0 +1,151 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.product.application.AvailabilitySource;
+import com.ecommerce_inventory.product.application.GetProductAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.ProductCatalogMirror;
+import com.ecommerce_inventory.product.application.ProductAvailability;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductCache;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import com.ecommerce_inventory.product.infrastructure.external.ProductServiceMetrics;
+import com.ecommerce_inventory.product.infrastructure.external.StockWriteBehindQueue;
+import com.ecommerce_inventory.shared.resilience.Bulkhead;
+import com.ecommerce_inventory.shared.resilience.CircuitBreaker;
+import com.ecommerce_inventory.shared.resilience.Hedger;
+import com.ecommerce_inventory.standin.StandInProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of {@link GetProductAvailabilityUseCase#execute} against an
+ * embedded stand-in for the external product service.
+ * Parameters select the HTTP client, whether the product cache is enabled,
+ * the artificial upstream latency and the number of distinct products requested.
+ * Run with {@code -t} to measure under concurrency, and with {@code -p hedging=true}
+ * to measure the overhead of running lookups through the hedger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AvailabilityUseCaseBenchmark {
+    
+    @Param({"pooled", "simple", "jdk"})
+    public String client;
+    
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+    
+    @Param({"0", "1000"})
+    public int upstreamLatencyMicros;
+    
+    @Param({"1000"})
+    public int catalogSize;
+    
+    @Param({"false"})
+    public boolean hedging;
+    
+    private StandInProductService standIn;
+    private CloseableHttpClient pooledHttpClient;
+    private Hedger hedger;
+    private GetProductAvailabilityUseCase useCase;
+    
+    /**
+     * Per-thread cursor over the product ids, so threads do not share a counter
+     */
+    @State(Scope.Thread)
+    public static class ProductCursor {
+        private long next;
+        
+        long nextId(int catalogSize) {
+            next = next % catalogSize + 1;
+            return next;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        standIn = new StandInProductService(Duration.ofNanos(upstreamLatencyMicros * 1000L), catalogSize);
+        
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HotProductTracker hotProductTracker = new HotProductTracker(true, 0.1, 200, 5, 4096,
+                Duration.ofSeconds(30), false);
+        hedger = new Hedger("product-service", 95, Duration.ofMillis(5), 5, 99, 3,
+                Duration.ofMillis(50), Duration.ofSeconds(2), Duration.ofSeconds(10), 100);
+        ExternalProductService externalProductService = new ExternalProductService(
+                new RestTemplate(requestFactory()),
+                standIn.baseUrl(),
+                new ExternalProductCache(cacheEnabled, Duration.ofSeconds(5), 10_000),
+                hotProductTracker,
+                new StockWriteBehindQueue(null, false, Duration.ofMillis(200), 500, 4, 10_000,
+                        Duration.ofMillis(500), Duration.ofMinutes(1), Duration.ofSeconds(1), "jmh",
+                        Duration.ofMinutes(5)),
+                new CircuitBreaker("product-service", 50, 80, Duration.ofSeconds(1), 50, 20,
+                        Duration.ofSeconds(10), 5),
+                new Bulkhead("product-service", 1024, Duration.ZERO),
+                hedger,
+                hedging,
+                new ProductServiceMetrics(meterRegistry),
+                Duration.ofMinutes(10));
+        ProductCatalogMirror disabledMirror = new ProductCatalogMirror(externalProductService, null, null, null, null,
+                false, 500, 0, Duration.ofMinutes(2), false, 0);
+        useCase = new GetProductAvailabilityUseCase(externalProductService, disabledMirror,
+                hotProductTracker, AvailabilitySource.REMOTE, meterRegistry);
+    }
+    
+    private ClientHttpRequestFactory requestFactory() {
+        switch (client) {
+            case "pooled" -> {
+                pooledHttpClient = HttpClients.custom()
+                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnTotal(200)
+                                .setMaxConnPerRoute(200)
+                                .build())
+                        .build();
+                return new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+            }
+            case "simple" -> {
+                return new SimpleClientHttpRequestFactory();
+            }
+            case "jdk" -> {
+                return new JdkClientHttpRequestFactory();
+            }
+            default -> throw new IllegalArgumentException("Unknown client " + client);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (pooledHttpClient != null) {
+            pooledHttpClient.close();
+        }
+        hedger.close();
+        standIn.close();
+    }
+    
+    @Benchmark
+    public Optional<ProductAvailability> getAvailability(ProductCursor cursor) {
+        return useCase.execute(cursor.nextId(catalogSize));
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
+import com.ecommerce_inventory.product.infrastructure.external.UpdateProductDto;
+import com.ecommerce_inventory.standin.StandInProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson (de)serialization of the DTOs exchanged with the external product service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductJsonBenchmark {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader productReader = objectMapper.readerFor(ExternalProductDto.class);
+    private final ObjectWriter updateWriter = objectMapper.writerFor(UpdateProductDto.class);
+    private final byte[] productJson = StandInProductService.productJson(42L).getBytes(StandardCharsets.UTF_8);
+    private final ExternalProductDto product = new ExternalProductDto(42L, "Keyboard", "Mechanical keyboard",
+            59.90, 12, "Electronics", true);
+    private final UpdateProductDto stockUpdate = UpdateProductDto.withStock(14);
+    
+    @Benchmark
+    public ExternalProductDto readExternalProduct() throws IOException {
+        return productReader.readValue(productJson);
+    }
+    
+    @Benchmark
+    public byte[] writeExternalProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+    
+    @Benchmark
+    public byte[] writeStockUpdate() throws JsonProcessingException {
+        return updateWriter.writeValueAsBytes(stockUpdate);
+    }
+}
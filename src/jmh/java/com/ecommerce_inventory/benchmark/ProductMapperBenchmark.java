@@ -0,0 +1,42 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.infrastructure.persistence.ProductEntity;
+import com.ecommerce_inventory.product.infrastructure.persistence.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion between domain products and JPA entities,
+ * and the cost of the business rule validation in the {@link Product} record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductMapperBenchmark {
+    
+    private final ProductMapper mapper = new ProductMapper();
+    private final Product product = new Product(42L, "Keyboard", "Mechanical keyboard", 59.90, 12, "Electronics");
+    private final ProductEntity entity = new ProductEntity(42L, "Keyboard", "Mechanical keyboard", 59.90, 12, "Electronics");
+    
+    @Benchmark
+    public ProductEntity toEntity() {
+        return mapper.toEntity(product);
+    }
+    
+    @Benchmark
+    public Product toDomain() {
+        return mapper.toDomain(entity);
+    }
+    
+    @Benchmark
+    public Product createValidatedProduct() {
+        return new Product(42L, "Keyboard", "Mechanical keyboard", 59.90, 12, "Electronics");
+    }
+}
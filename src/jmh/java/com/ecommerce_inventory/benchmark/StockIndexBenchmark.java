@@ -0,0 +1,59 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.shared.concurrent.ConcurrentLongIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares stock reads from the primitive {@link ConcurrentLongIntMap} used by the
+ * catalog mirror with a boxed {@link ConcurrentHashMap}, under concurrent readers.
+ * Run with {@code -prof gc} (the default for this suite) to compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class StockIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private ConcurrentLongIntMap primitiveIndex;
+    private ConcurrentHashMap<Long, Integer> boxedIndex;
+
+    @Setup
+    public void setUp() {
+        primitiveIndex = new ConcurrentLongIntMap(catalogSize);
+        boxedIndex = new ConcurrentHashMap<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            int stock = (int) (id % 1000);
+            primitiveIndex.put(id, stock);
+            boxedIndex.put(id, stock);
+        }
+    }
+
+    @Benchmark
+    public int primitiveIndexGet() {
+        return primitiveIndex.get(randomId(), -1);
+    }
+
+    @Benchmark
+    public int boxedIndexGet() {
+        return boxedIndex.getOrDefault(randomId(), -1);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1L);
+    }
+}
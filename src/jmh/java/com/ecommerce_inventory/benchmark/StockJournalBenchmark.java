@@ -0,0 +1,88 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.product.infrastructure.journal.StockChangeJournal;
+import com.ecommerce_inventory.product.infrastructure.journal.StockJournalEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the request path cost of appending to the {@link StockChangeJournal}
+ * (including segment rolls and the background fsync) and the throughput of a full
+ * sequential replay. The journal lives in a temporary directory deleted after the trial.
+ * Run with {@code -t} to measure appends under contention for the append lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StockJournalBenchmark {
+
+    @Param({"0", "1000"})
+    private int fsyncBatchSize;
+
+    @Param({"1000000"})
+    private int replayRecords;
+
+    private Path directory;
+    private StockChangeJournal journal;
+    private StockChangeJournal replayJournal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("stock-journal-benchmark");
+        journal = new StockChangeJournal(true, directory.resolve("append"), DataSize.ofMegabytes(64),
+                Duration.ofMillis(100), fsyncBatchSize, Duration.ofDays(1), 100_000);
+        journal.start();
+
+        replayJournal = new StockChangeJournal(true, directory.resolve("replay"), DataSize.ofMegabytes(64),
+                Duration.ofMillis(100), 0, Duration.ofDays(1), 100_000);
+        replayJournal.start();
+        for (int i = 1; i <= replayRecords; i++) {
+            replayJournal.record(i % 100_000 + 1, StockChangeJournal.UNKNOWN_STOCK, i % 1000,
+                    StockJournalEntry.Origin.SET);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.stop();
+        replayJournal.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        journal.record(random.nextLong(1, 100_001), StockChangeJournal.UNKNOWN_STOCK, random.nextInt(1000),
+                StockJournalEntry.Origin.SET);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long replay() {
+        long[] stock = new long[1];
+        replayJournal.replay(1, (sequence, timestampMillis, productId, oldStock, newStock, origin) -> stock[0] += newStock);
+        return stock[0];
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce_inventory.benchmark;
+
+import com.ecommerce_inventory.product.application.AvailabilitySource;
+import com.ecommerce_inventory.product.application.GetProductAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.ProductAvailability;
+import com.ecommerce_inventory.product.application.ProductCatalogMirror;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductCache;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import com.ecommerce_inventory.product.infrastructure.external.ProductServiceMetrics;
+import com.ecommerce_inventory.product.infrastructure.external.StockWriteBehindQueue;
+import com.ecommerce_inventory.shared.resilience.Bulkhead;
+import com.ecommerce_inventory.shared.resilience.CircuitBreaker;
+import com.ecommerce_inventory.shared.resilience.Hedger;
+import com.ecommerce_inventory.standin.StandInProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how many concurrent blocking availability requests the service can absorb
+ * on a platform thread pool and on virtual threads.
+ * Each invocation fires a burst of {@code concurrentRequests} calls to
+ * {@link GetProductAvailabilityUseCase#execute} against a stand-in upstream with a fixed
+ * latency, and measures the time until all of them complete; requests per second is
+ * {@code concurrentRequests} divided by that time.
+ * The platform pool has 200 threads, the Tomcat default. With the default 1 MiB stack,
+ * those threads reserve about as much memory as the heap needed by the largest burst on
+ * virtual threads, whose stacks live on the heap and take a few KiB while blocked; the
+ * {@code gc} profiler reports that heap cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadingModelBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"200", "1000", "2000"})
+    public int concurrentRequests;
+
+    @Param({"20000"})
+    public int upstreamLatencyMicros;
+
+    private StandInProductService standIn;
+    private CloseableHttpClient httpClient;
+    private ExecutorService executor;
+    private List<Callable<Optional<ProductAvailability>>> burst;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        standIn = new StandInProductService(Duration.ofNanos(upstreamLatencyMicros * 1000L), concurrentRequests);
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(concurrentRequests)
+                        .setMaxConnPerRoute(concurrentRequests)
+                        .build())
+                .build();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HotProductTracker hotProductTracker = new HotProductTracker(true, 0.1, 200, 5, 4096,
+                Duration.ofSeconds(30), false);
+        ExternalProductService externalProductService = new ExternalProductService(
+                new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)),
+                standIn.baseUrl(),
+                new ExternalProductCache(false, Duration.ofSeconds(5), 10_000),
+                hotProductTracker,
+                new StockWriteBehindQueue(null, false, Duration.ofMillis(200), 500, 4, 10_000,
+                        Duration.ofMillis(500), Duration.ofMinutes(1), Duration.ofSeconds(1), "jmh",
+                        Duration.ofMinutes(5)),
+                new CircuitBreaker("product-service", 50, 100, Duration.ofSeconds(10), 50, 20,
+                        Duration.ofSeconds(10), 5),
+                new Bulkhead("product-service", concurrentRequests, Duration.ZERO),
+                new Hedger("product-service", 95, Duration.ofMillis(5), 5, 99, 3,
+                        Duration.ofMillis(50), Duration.ofSeconds(2), Duration.ofSeconds(10), 100),
+                false,
+                new ProductServiceMetrics(meterRegistry),
+                Duration.ofMinutes(10));
+        ProductCatalogMirror disabledMirror = new ProductCatalogMirror(externalProductService, null, null, null, null,
+                false, 500, 0, Duration.ofMinutes(2), false, 0);
+        GetProductAvailabilityUseCase useCase = new GetProductAvailabilityUseCase(externalProductService,
+                disabledMirror, hotProductTracker, AvailabilitySource.REMOTE, meterRegistry);
+
+        executor = switch (threading) {
+            case "platform" -> Executors.newFixedThreadPool(PLATFORM_THREADS);
+            case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+            default -> throw new IllegalArgumentException("Unknown threading " + threading);
+        };
+        burst = new ArrayList<>(concurrentRequests);
+        for (long id = 1; id <= concurrentRequests; id++) {
+            long productId = id;
+            burst.add(() -> useCase.execute(productId));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        httpClient.close();
+        standIn.close();
+    }
+
+    @Benchmark
+    public int requestBurst() throws InterruptedException, ExecutionException {
+        int found = 0;
+        for (Future<Optional<ProductAvailability>> result : executor.invokeAll(burst)) {
+            if (result.get().isPresent()) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce_inventory.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the outcome and latency of every request of one operation.
+ * Latencies go into a preallocated array sized for the whole run, so recording
+ * never allocates; percentiles are exact, computed by sorting once at the end.
+ */
+final class LatencyRecorder {
+
+    private final String operation;
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final LongAdder succeeded = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    LatencyRecorder(String operation, int capacity) {
+        this.operation = operation;
+        this.latencies = new long[capacity];
+    }
+
+    void success(long latencyNanos) {
+        succeeded.increment();
+        record(latencyNanos);
+    }
+
+    /**
+     * Records a failed request
+     * @param error the HTTP status or the kind of failure, e.g. {@code 503} or {@code timeout}
+     * @param latencyNanos the time until the failure was observed
+     */
+    void failure(String error, long latencyNanos) {
+        errors.computeIfAbsent(error, key -> new LongAdder()).increment();
+        record(latencyNanos);
+    }
+
+    private void record(long latencyNanos) {
+        int index = recorded.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = latencyNanos;
+        }
+    }
+
+    /**
+     * Summarizes the recorded requests; must be called once no request is in flight
+     * @param elapsedSeconds the length of the measured interval
+     */
+    Summary summarize(double elapsedSeconds) {
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((error, counter) -> errorCounts.put(error, counter.sum()));
+        long errorTotal = errorCounts.values().stream().mapToLong(Long::longValue).sum();
+        long requests = succeeded.sum() + errorTotal;
+        return new Summary(operation, requests, succeeded.sum(), errorTotal, errorCounts,
+                requests / elapsedSeconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999), count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Results of one operation; latencies are in milliseconds.
+     */
+    record Summary(String operation, long requests, long succeeded, long errors, Map<String, Long> errorsByKind,
+                   double throughputPerSecond, double p50, double p95, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce_inventory.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Results of a load test run over the measured interval.
+ */
+record LoadTestResult(
+    double offeredRatePerSecond,
+    double measuredSeconds,
+    long dropped,
+    List<LatencyRecorder.Summary> operations
+) {
+
+    /**
+     * Ratio of failed and dropped requests to all requests offered in the measured interval
+     */
+    double errorRatio() {
+        long requests = dropped;
+        long failures = dropped;
+        for (LatencyRecorder.Summary operation : operations) {
+            requests += operation.requests();
+            failures += operation.errors();
+        }
+        return requests == 0 ? 0.0 : (double) failures / requests;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nOffered %.0f req/s for %.0f s (open model, Zipfian keys)%n", offeredRatePerSecond, measuredSeconds);
+        out.printf("%-14s %10s %12s %9s %9s %9s %9s %9s %8s%n",
+                "operation", "requests", "throughput/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (LatencyRecorder.Summary operation : operations) {
+            out.printf("%-14s %10d %12.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    operation.operation(), operation.requests(), operation.throughputPerSecond(),
+                    operation.p50(), operation.p95(), operation.p99(), operation.p999(), operation.max(),
+                    operation.errors());
+            if (!operation.errorsByKind().isEmpty()) {
+                out.printf("%-14s errors by kind: %s%n", "", operation.errorsByKind());
+            }
+        }
+        out.printf("Dropped by the generator (too many requests in flight): %d%n", dropped);
+        out.printf("Error ratio: %.4f%n", errorRatio());
+    }
+
+    void writeJson(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+}
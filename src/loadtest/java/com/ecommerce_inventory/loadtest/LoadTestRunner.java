@@ -0,0 +1,84 @@
+package com.ecommerce_inventory.loadtest;
+
+import com.ecommerce_inventory.EcommerceInventoryApplication;
+import com.ecommerce_inventory.standin.LatencyDistribution;
+import com.ecommerce_inventory.standin.StandInProductService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the service in-process against an embedded stand-in product service and an
+ * in-memory database, drives it with an open-model load and reports throughput,
+ * latency percentiles and errors per operation.
+ * The modes that rely on PostgreSQL-only SQL ({@code ON CONFLICT}, {@code FOR UPDATE SKIP LOCKED},
+ * {@code unnest}, {@code setval}, advisory locks) are refused on the in-memory H2 database,
+ * where they would fail or measure something else; they need {@code loadtest.datasource.url}.
+ * The run fails with exit code 1 when the error ratio exceeds {@code loadtest.max-error-ratio},
+ * so it can gate CI builds. See {@link LoadTestSettings} for the parameters.
+ */
+public final class LoadTestRunner {
+
+    /**
+     * Properties enabling modes whose SQL only runs on PostgreSQL
+     */
+    private static final List<String> POSTGRES_ONLY_MODES = List.of(
+            "external.product.write-behind.enabled",
+            "external.product.outbox.enabled",
+            "external.product.mirror.enabled");
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        if (!settings.usesPostgres()) {
+            requireNoPostgresOnlyModes(settings.appArguments());
+        }
+        LatencyDistribution upstreamLatency = LatencyDistribution.of(settings.upstreamLatency(),
+                settings.upstreamLatencyMean(), settings.upstreamLatencySigma());
+
+        LoadTestResult result;
+        try (StandInProductService standIn = new StandInProductService(upstreamLatency,
+                settings.upstreamErrorRate(), settings.catalogSize())) {
+            List<String> appArguments = new ArrayList<>();
+            appArguments.add("--spring.profiles.active=loadtest");
+            appArguments.add("--external.product.service.url=" + standIn.baseUrl());
+            if (settings.usesPostgres()) {
+                appArguments.add("--spring.datasource.url=" + settings.datasourceUrl());
+                appArguments.add("--spring.datasource.username=" + settings.datasourceUsername());
+                appArguments.add("--spring.datasource.password=" + settings.datasourcePassword());
+                appArguments.add("--spring.datasource.driver-class-name=org.postgresql.Driver");
+                appArguments.add("--spring.jpa.hibernate.ddl-auto=update");
+            }
+            appArguments.addAll(settings.appArguments());
+
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(EcommerceInventoryApplication.class)
+                    .run(appArguments.toArray(String[]::new))) {
+                int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                result = new OpenModelLoadGenerator(settings, URI.create("http://127.0.0.1:" + port)).run();
+            }
+        }
+
+        result.print(System.out);
+        result.writeJson(settings.output());
+        System.out.println("Results written to " + settings.output().toAbsolutePath());
+        if (result.errorRatio() > settings.maxErrorRatio()) {
+            System.err.printf("Error ratio %.4f exceeds the allowed %.4f%n", result.errorRatio(), settings.maxErrorRatio());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static void requireNoPostgresOnlyModes(List<String> appArguments) {
+        for (String mode : POSTGRES_ONLY_MODES) {
+            if (appArguments.stream().anyMatch(argument -> argument.equalsIgnoreCase("--" + mode + "=true"))) {
+                throw new IllegalArgumentException(mode + " needs PostgreSQL; set loadtest.datasource.url "
+                        + "to run the load test against a PostgreSQL database");
+            }
+        }
+    }
+}
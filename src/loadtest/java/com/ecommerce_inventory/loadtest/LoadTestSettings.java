@@ -0,0 +1,104 @@
+package com.ecommerce_inventory.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties.
+ * Properties named {@code loadtest.app.<name>} are passed to the service under test
+ * as {@code --<name>=<value>}, e.g. {@code -Ploadtest.app.external.product.cache.ttl=1s}.
+ * {@code loadtest.datasource.url}, {@code .username} and {@code .password} point the service
+ * at a PostgreSQL database instead of the in-memory H2 one.
+ */
+record LoadTestSettings(
+    double ratePerSecond,
+    Duration duration,
+    Duration warmup,
+    double writeRatio,
+    double zipfExponent,
+    Duration requestTimeout,
+    int maxInFlight,
+    int catalogSize,
+    String upstreamLatency,
+    Duration upstreamLatencyMean,
+    double upstreamLatencySigma,
+    double upstreamErrorRate,
+    Path output,
+    double maxErrorRatio,
+    String datasourceUrl,
+    String datasourceUsername,
+    String datasourcePassword,
+    List<String> appArguments
+) {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+
+    static LoadTestSettings fromSystemProperties() {
+        Properties properties = System.getProperties();
+        List<String> appArguments = new ArrayList<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                appArguments.add("--" + name.substring(APP_PREFIX.length()) + "=" + properties.getProperty(name));
+            }
+        }
+        LoadTestSettings settings = new LoadTestSettings(
+                number("rate", "200"),
+                duration("duration", "30s"),
+                duration("warmup", "5s"),
+                number("write-ratio", "0.1"),
+                number("zipf-exponent", "0.99"),
+                duration("request-timeout", "5s"),
+                (int) number("max-in-flight", "10000"),
+                (int) number("catalog-size", "10000"),
+                property("upstream.latency", "lognormal"),
+                duration("upstream.latency-mean", "20ms"),
+                number("upstream.latency-sigma", "0.5"),
+                number("upstream.error-rate", "0"),
+                Path.of(property("output", "build/results/loadtest/results.json")),
+                number("max-error-ratio", "1"),
+                property("datasource.url", ""),
+                property("datasource.username", ""),
+                property("datasource.password", ""),
+                List.copyOf(appArguments));
+        if (settings.ratePerSecond <= 0 || settings.maxInFlight <= 0 || settings.catalogSize <= 0) {
+            throw new IllegalArgumentException("Rate, max in-flight requests and catalog size must be positive");
+        }
+        if (settings.writeRatio < 0 || settings.writeRatio > 1) {
+            throw new IllegalArgumentException("Write ratio must be between 0 and 1");
+        }
+        return settings;
+    }
+
+    /**
+     * Tells whether the service runs against a PostgreSQL database rather than the in-memory H2 one
+     */
+    boolean usesPostgres() {
+        return !datasourceUrl.isBlank();
+    }
+
+    /**
+     * Upper bound of requests sent during the whole run, used to size the latency recorders
+     */
+    int expectedRequests() {
+        double seconds = (duration.toNanos() + warmup.toNanos()) / 1e9;
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.ceil(ratePerSecond * seconds * 1.2) + 1024);
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    private static double number(String name, String defaultValue) {
+        return Double.parseDouble(property(name, defaultValue));
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(property(name, defaultValue));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce_inventory.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests arrive as a Poisson process at the configured
+ * rate, whether or not earlier requests have completed, which is how independent
+ * clients behave. Each request runs on its own virtual thread.
+ * Latency is measured from the scheduled arrival time rather than from when the request
+ * was actually sent, so a stalled generator or server shows up in the latencies instead
+ * of silently lowering the offered load (coordinated omission).
+ * If more than {@code maxInFlight} requests are outstanding, new arrivals are dropped
+ * and counted, bounding the memory of the generator when the service cannot keep up.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final String AVAILABILITY = "availability";
+    private static final String STOCK_UPDATE = "stock_update";
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final ZipfianKeyGenerator keys;
+    private final HttpClient client;
+
+    OpenModelLoadGenerator(LoadTestSettings settings, URI baseUri) {
+        this.settings = settings;
+        this.baseUri = baseUri;
+        this.keys = new ZipfianKeyGenerator(settings.catalogSize(), settings.zipfExponent());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Offers load for the warmup plus the measured duration and waits for outstanding requests
+     * @return one summary per operation, covering the measured interval only
+     */
+    LoadTestResult run() {
+        int capacity = settings.expectedRequests();
+        LatencyRecorder availability = new LatencyRecorder(AVAILABILITY, capacity);
+        LatencyRecorder stockUpdates = new LatencyRecorder(STOCK_UPDATE, capacity);
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder dropped = new LongAdder();
+        SplittableRandom arrivals = new SplittableRandom();
+        double meanInterArrivalNanos = 1e9 / settings.ratePerSecond();
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            double next = start;
+            while ((long) next < end) {
+                long scheduledAt = (long) next;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = scheduledAt >= measureFrom;
+                if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        dropped.increment();
+                    }
+                } else {
+                    boolean write = arrivals.nextDouble() < settings.writeRatio();
+                    long productId = keys.next(arrivals);
+                    LatencyRecorder recorder = !measured ? null : write ? stockUpdates : availability;
+                    requests.execute(() -> {
+                        try {
+                            send(write ? stockUpdate(productId) : availability(productId), scheduledAt, recorder);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                next += -meanInterArrivalNanos * Math.log(1.0 - arrivals.nextDouble());
+            }
+        }
+        double elapsedSeconds = (end - measureFrom) / 1e9;
+        return new LoadTestResult(settings.ratePerSecond(), elapsedSeconds, dropped.sum(),
+                List.of(availability.summarize(elapsedSeconds), stockUpdates.summarize(elapsedSeconds)));
+    }
+
+    private HttpRequest availability(long productId) {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/products/" + productId + "/availability"))
+                .timeout(settings.requestTimeout())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest stockUpdate(long productId) {
+        int stock = ThreadLocalRandom.current().nextInt(0, 100);
+        return HttpRequest.newBuilder(baseUri.resolve("/api/products/" + productId + "/stock"))
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"stock\":" + stock + "}"))
+                .build();
+    }
+
+    private void send(HttpRequest request, long scheduledAt, LatencyRecorder recorder) {
+        String failure;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            int status = response.statusCode();
+            if (status < 400) {
+                if (recorder != null) {
+                    recorder.success(System.nanoTime() - scheduledAt);
+                }
+                return;
+            }
+            failure = String.valueOf(status);
+        } catch (HttpTimeoutException e) {
+            failure = "timeout";
+        } catch (IOException e) {
+            failure = "io_error";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "interrupted";
+        }
+        if (recorder != null) {
+            recorder.failure(failure, System.nanoTime() - scheduledAt);
+        }
+    }
+}
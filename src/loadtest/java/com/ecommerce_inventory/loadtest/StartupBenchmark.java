@@ -0,0 +1,261 @@
+package com.ecommerce_inventory.loadtest;
+
+import com.ecommerce_inventory.standin.LatencyDistribution;
+import com.ecommerce_inventory.standin.StandInProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the packaged service takes from process launch to its first
+ * successful availability request, for each startup mode:
+ * <ul>
+ *   <li>{@code baseline}: the environment profile alone ({@code startup.baseline-profiles})</li>
+ *   <li>{@code fast-startup}: the {@code fast-startup} profile ({@code startup.profiles})</li>
+ *   <li>{@code fast-startup-aot}: the same with the AOT-processed bean definitions</li>
+ *   <li>{@code fast-startup-aot-cds}: the same with a CDS archive trained by this benchmark</li>
+ * </ul>
+ * Every run launches a fresh JVM on the extracted jar against an embedded stand-in product
+ * service and an H2 file database, polls until {@code GET /api/products/1/availability}
+ * answers {@code 200} and then stops the process. The schema is created once before the
+ * runs, so modes validating it find it in place. The first {@code startup.warmup-runs} runs
+ * of each mode only warm the OS file cache and are not reported.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path java = Path.of(requiredProperty("startup.java"));
+        Path application = Path.of(requiredProperty("startup.application")).toAbsolutePath();
+        Path workDir = Path.of(System.getProperty("startup.work-dir", "build/startup")).toAbsolutePath();
+        String baselineProfiles = System.getProperty("startup.baseline-profiles", "dev");
+        String fastStartupProfiles = System.getProperty("startup.profiles", "dev,fast-startup");
+        List<String> modes = Arrays.asList(System.getProperty("startup.modes",
+                "baseline,fast-startup,fast-startup-aot,fast-startup-aot-cds").split(","));
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        int warmupRuns = Integer.parseInt(System.getProperty("startup.warmup-runs", "1"));
+        Duration timeout = DurationStyle.detectAndParse(System.getProperty("startup.timeout", "2m"));
+        Path output = Path.of(System.getProperty("startup.output", "build/results/startup/results.json"));
+        if (!Files.isRegularFile(application)) {
+            throw new IllegalStateException("Application jar not found: " + application + " (run ./gradlew extractBootJar)");
+        }
+        Files.createDirectories(workDir.resolve("logs"));
+        Path cdsArchive = workDir.resolve("application.jsa");
+
+        List<ModeResult> results = new ArrayList<>();
+        try (StandInProductService standIn = new StandInProductService(
+                LatencyDistribution.of("fixed", Duration.ZERO, 0), 0, 1000)) {
+            List<String> applicationArguments = List.of(
+                    "--spring.datasource.url=jdbc:h2:file:" + workDir.resolve("db/inventory"),
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--external.product.service.url=" + standIn.baseUrl());
+            Launcher launcher = new Launcher(java, application, workDir, applicationArguments);
+
+            System.out.println("Creating the schema in " + workDir.resolve("db"));
+            launcher.runToRefresh("prepare", List.of(), baselineProfiles,
+                    List.of("--spring.jpa.hibernate.ddl-auto=update"));
+            if (modes.contains("fast-startup-aot-cds")) {
+                System.out.println("Training the CDS archive " + cdsArchive);
+                launcher.runToRefresh("cds-training",
+                        List.of("-XX:ArchiveClassesAtExit=" + cdsArchive, "-Dspring.aot.enabled=true"),
+                        fastStartupProfiles, List.of());
+            }
+
+            for (String mode : modes) {
+                List<String> jvmArguments = switch (mode) {
+                    case "baseline", "fast-startup" -> List.of();
+                    case "fast-startup-aot" -> List.of("-Dspring.aot.enabled=true");
+                    case "fast-startup-aot-cds" -> List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + cdsArchive);
+                    default -> throw new IllegalArgumentException("Unknown startup mode " + mode);
+                };
+                String profiles = mode.equals("baseline") ? baselineProfiles : fastStartupProfiles;
+                List<Double> startupMillis = new ArrayList<>(runs);
+                for (int run = 1; run <= warmupRuns + runs; run++) {
+                    Duration startup = launcher.timeToFirstRequest(mode + "-" + run, jvmArguments, profiles, timeout);
+                    if (run > warmupRuns) {
+                        startupMillis.add(startup.toNanos() / 1_000_000.0);
+                    }
+                }
+                ModeResult result = ModeResult.of(mode, profiles, jvmArguments, startupMillis);
+                System.out.printf("%-22s median %8.0f ms%n", mode, result.medianMillis());
+                results.add(result);
+            }
+        }
+
+        print(results, System.out);
+        writeJson(results, output);
+        System.out.println("Results written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * Startup times of one mode, in milliseconds from process launch to the first successful request.
+     */
+    record ModeResult(
+        String mode,
+        String profiles,
+        List<String> jvmArguments,
+        List<Double> runsMillis,
+        double minMillis,
+        double medianMillis,
+        double meanMillis,
+        double maxMillis
+    ) {
+
+        static ModeResult of(String mode, String profiles, List<String> jvmArguments, List<Double> runsMillis) {
+            double[] sorted = runsMillis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return new ModeResult(mode, profiles, jvmArguments, runsMillis, 0, 0, 0, 0);
+            }
+            int middle = sorted.length / 2;
+            double median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+            return new ModeResult(mode, profiles, jvmArguments, runsMillis, sorted[0], median,
+                    Arrays.stream(sorted).average().orElse(0), sorted[sorted.length - 1]);
+        }
+    }
+
+    private static void print(List<ModeResult> results, PrintStream out) {
+        out.printf("%nTime to first successful request (ms)%n");
+        out.printf("%-22s %6s %9s %9s %9s %9s%n", "mode", "runs", "min", "median", "mean", "max");
+        for (ModeResult result : results) {
+            out.printf("%-22s %6d %9.0f %9.0f %9.0f %9.0f%n", result.mode(), result.runsMillis().size(),
+                    result.minMillis(), result.medianMillis(), result.meanMillis(), result.maxMillis());
+        }
+    }
+
+    private static void writeJson(List<ModeResult> results, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+    }
+
+    private static String requiredProperty(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Launches the packaged service in a child JVM with its output redirected to a log file per run.
+     */
+    private record Launcher(Path java, Path application, Path workDir, List<String> applicationArguments) {
+
+        private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        /**
+         * Starts the service with {@code spring.context.exit=onRefresh} and waits for it to exit
+         */
+        void runToRefresh(String name, List<String> jvmArguments, String profiles, List<String> extraArguments)
+                throws IOException, InterruptedException {
+            List<String> withExit = new ArrayList<>(jvmArguments);
+            withExit.add("-Dspring.context.exit=onRefresh");
+            Process process = start(name, withExit, profiles, freePort(), extraArguments);
+            if (!process.waitFor(5, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                throw new IllegalStateException(name + " run did not finish, see " + log(name));
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException(name + " run failed with exit code " + process.exitValue()
+                        + ", see " + log(name));
+            }
+        }
+
+        /**
+         * Starts the service and returns the time until its first successful availability request
+         */
+        Duration timeToFirstRequest(String name, List<String> jvmArguments, String profiles, Duration timeout)
+                throws IOException, InterruptedException {
+            int port = freePort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/products/1/availability"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            long startedAt = System.nanoTime();
+            long deadline = startedAt + timeout.toNanos();
+            Process process = start(name, jvmArguments, profiles, port, List.of());
+            try {
+                while (System.nanoTime() < deadline) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                                + " before serving a request, see " + log(name));
+                    }
+                    try {
+                        if (HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            return Duration.ofNanos(System.nanoTime() - startedAt);
+                        }
+                    } catch (ConnectException e) {
+                        // Not listening yet
+                    }
+                    Thread.sleep(POLL_INTERVAL);
+                }
+                throw new IllegalStateException(name + " did not serve a request within " + timeout + ", see " + log(name));
+            } finally {
+                stop(process);
+            }
+        }
+
+        private Process start(String name, List<String> jvmArguments, String profiles, int port, List<String> extraArguments)
+                throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(java.toString());
+            command.addAll(jvmArguments);
+            command.add("-jar");
+            command.add(application.toString());
+            command.add("--spring.profiles.active=" + profiles);
+            command.add("--server.port=" + port);
+            command.addAll(applicationArguments);
+            command.addAll(extraArguments);
+            return new ProcessBuilder(command)
+                    .directory(workDir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log(name).toFile())
+                    .start();
+        }
+
+        private Path log(String name) {
+            return workDir.resolve("logs").resolve(name + ".log");
+        }
+
+        private static void stop(Process process) throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+
+        private static int freePort() throws IOException {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                return socket.getLocalPort();
+            }
+        }
+    }
+}
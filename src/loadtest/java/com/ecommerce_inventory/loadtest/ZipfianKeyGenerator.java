@@ -0,0 +1,39 @@
+package com.ecommerce_inventory.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws product IDs in {@code [1, keyCount]} following a Zipf distribution: the
+ * probability of the ID with rank {@code k} is proportional to {@code 1 / k^exponent},
+ * so ID 1 is the hottest. An exponent of 0 gives uniform keys; around 1 matches the
+ * skew usually seen on product catalogs.
+ * The cumulative distribution is precomputed, so each draw is a binary search.
+ */
+final class ZipfianKeyGenerator {
+
+    private final double[] cumulative;
+
+    ZipfianKeyGenerator(int keyCount, double exponent) {
+        if (keyCount <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Key count must be positive and the Zipf exponent not negative");
+        }
+        cumulative = new double[keyCount];
+        double sum = 0;
+        for (int rank = 1; rank <= keyCount; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    long next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1L;
+    }
+}
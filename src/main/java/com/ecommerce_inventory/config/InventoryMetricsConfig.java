@@ -0,0 +1,240 @@
+package com.ecommerce_inventory.config;
+
+import com.ecommerce_inventory.product.application.ProductCatalogMirror;
+import com.ecommerce_inventory.product.infrastructure.cluster.DatabaseProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductCache;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductRefresher;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import com.ecommerce_inventory.product.infrastructure.external.StockOutboxRelay;
+import com.ecommerce_inventory.product.infrastructure.external.StockWriteBehindQueue;
+import com.ecommerce_inventory.product.infrastructure.journal.StockChangeJournal;
+import com.ecommerce_inventory.shared.resilience.Bulkhead;
+import com.ecommerce_inventory.shared.resilience.CircuitBreaker;
+import com.ecommerce_inventory.shared.resilience.Hedger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class publishing the internal counters of the product
+ * cache, write-behind queue, stock outbox relay, circuit breaker, bulkhead, hedger, catalog mirror,
+ * hot product tracker, stock journal and product invalidation channel as meters.
+ * The values are sampled when metrics are scraped, so the hot path
+ * only pays for its own counter updates.
+ */
+@Configuration
+public class InventoryMetricsConfig {
+    
+    @Bean
+    public MeterBinder productCacheMetrics(ExternalProductCache productCache) {
+        return registry -> {
+            Gauge.builder("product.cache.size", productCache, cache -> cache.stats().size())
+                    .description("Number of products held in the cache")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.requests", productCache, cache -> cache.stats().hits())
+                    .description("Product cache lookups")
+                    .tags("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.requests", productCache, cache -> cache.stats().misses())
+                    .description("Product cache lookups")
+                    .tags("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.evictions", productCache, cache -> cache.stats().evictions())
+                    .description("Products evicted from the cache because it was full")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder stockWriteBehindMetrics(StockWriteBehindQueue queue) {
+        return registry -> {
+            Gauge.builder("product.stock.write.behind.pending", queue, StockWriteBehindQueue::pendingCount)
+                    .description("Products with a stock update waiting to be flushed")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.write.behind.updates", queue, q -> q.stats().flushed())
+                    .description("Stock updates handled by the write-behind queue")
+                    .tags("result", "flushed")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.write.behind.updates", queue, q -> q.stats().coalesced())
+                    .description("Stock updates handled by the write-behind queue")
+                    .tags("result", "coalesced")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.write.behind.updates", queue, q -> q.stats().retried())
+                    .description("Stock updates handled by the write-behind queue")
+                    .tags("result", "retried")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.write.behind.updates", queue, q -> q.stats().dropped())
+                    .description("Stock updates handled by the write-behind queue")
+                    .tags("result", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.write.behind.updates", queue, q -> q.stats().rejected())
+                    .description("Stock updates handled by the write-behind queue")
+                    .tags("result", "rejected")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder stockOutboxMetrics(StockOutboxRelay relay) {
+        return registry -> {
+            Gauge.builder("product.outbox.pending", relay, StockOutboxRelay::pendingCount)
+                    .description("Stock changes waiting in the outbox to be delivered")
+                    .register(registry);
+            Gauge.builder("product.outbox.lag", relay,
+                            r -> r.lag().map(lag -> lag.toNanos() / 1e9).orElse(0.0))
+                    .description("Age of the oldest stock change waiting in the outbox, in seconds")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("product.outbox.changes", relay, r -> r.stats().delivered())
+                    .description("Stock changes handled by the outbox relay")
+                    .tags("result", "delivered")
+                    .register(registry);
+            FunctionCounter.builder("product.outbox.changes", relay, r -> r.stats().superseded())
+                    .description("Stock changes handled by the outbox relay")
+                    .tags("result", "superseded")
+                    .register(registry);
+            FunctionCounter.builder("product.outbox.changes", relay, r -> r.stats().retried())
+                    .description("Stock changes handled by the outbox relay")
+                    .tags("result", "retried")
+                    .register(registry);
+            FunctionCounter.builder("product.outbox.changes", relay, r -> r.stats().rejected())
+                    .description("Stock changes handled by the outbox relay")
+                    .tags("result", "rejected")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder productServiceResilienceMetrics(CircuitBreaker productServiceCircuitBreaker,
+                                                       Bulkhead productServiceBulkhead) {
+        return registry -> {
+            Gauge.builder("product.service.circuit.breaker.state", productServiceCircuitBreaker,
+                            breaker -> breaker.state().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .register(registry);
+            FunctionCounter.builder("product.service.circuit.breaker.rejected", productServiceCircuitBreaker,
+                            CircuitBreaker::rejectedCalls)
+                    .description("Calls rejected because the circuit breaker was not closed")
+                    .register(registry);
+            Gauge.builder("product.service.bulkhead.active", productServiceBulkhead, Bulkhead::activeCalls)
+                    .description("Calls to the external product service currently in flight")
+                    .register(registry);
+            FunctionCounter.builder("product.service.bulkhead.rejected", productServiceBulkhead, Bulkhead::rejectedCalls)
+                    .description("Calls rejected because the bulkhead was full")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder productServiceHedgingMetrics(Hedger productServiceHedger) {
+        return registry -> {
+            Gauge.builder("product.service.hedge.delay", productServiceHedger,
+                            hedger -> hedger.hedgeDelay().map(delay -> delay.toNanos() / 1e9).orElse(Double.NaN))
+                    .description("Time after which a slow product lookup is sent again, in seconds")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("product.service.timeout", productServiceHedger, hedger -> hedger.timeout().toNanos() / 1e9)
+                    .description("Adaptive timeout of hedged product lookups, in seconds")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("product.service.hedges", productServiceHedger, hedger -> hedger.stats().hedges())
+                    .description("Hedged product lookups")
+                    .tags("result", "sent")
+                    .register(registry);
+            FunctionCounter.builder("product.service.hedges", productServiceHedger, hedger -> hedger.stats().hedgeWins())
+                    .description("Hedged product lookups")
+                    .tags("result", "won")
+                    .register(registry);
+            FunctionCounter.builder("product.service.hedges", productServiceHedger,
+                            hedger -> hedger.stats().budgetExhausted())
+                    .description("Hedged product lookups")
+                    .tags("result", "budget_exhausted")
+                    .register(registry);
+            FunctionCounter.builder("product.service.timeouts", productServiceHedger, hedger -> hedger.stats().timeouts())
+                    .description("Hedged product lookups that timed out")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder productCatalogMirrorMetrics(ProductCatalogMirror productCatalogMirror) {
+        return registry -> Gauge.builder("product.mirror.staleness", productCatalogMirror,
+                        mirror -> mirror.staleness().map(staleness -> staleness.toNanos() / 1e9).orElse(Double.NaN))
+                .description("Upper bound on the age of mirrored products, in seconds")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+    
+    @Bean
+    public MeterBinder hotProductMetrics(HotProductTracker hotProductTracker, HotProductRefresher hotProductRefresher) {
+        return registry -> {
+            Gauge.builder("product.hot.keys", hotProductTracker, tracker -> tracker.stats().hotProducts())
+                    .description("Number of products in the hot set")
+                    .register(registry);
+            Gauge.builder("product.hot.share", hotProductTracker, tracker -> tracker.stats().hotShare())
+                    .description("Estimated share of the recent requests that went to hot products")
+                    .register(registry);
+            FunctionCounter.builder("product.hot.refreshes", hotProductRefresher, r -> r.stats().refreshed())
+                    .description("Reloads of pinned hot products")
+                    .tags("result", "refreshed")
+                    .register(registry);
+            FunctionCounter.builder("product.hot.refreshes", hotProductRefresher, r -> r.stats().failed())
+                    .description("Reloads of pinned hot products")
+                    .tags("result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("product.hot.unpinned", hotProductRefresher, r -> r.stats().unpinned())
+                    .description("Products removed from the cache after leaving the hot set")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder stockJournalMetrics(StockChangeJournal stockChangeJournal) {
+        return registry -> {
+            FunctionCounter.builder("product.stock.journal.records", stockChangeJournal, journal -> journal.stats().appended())
+                    .description("Stock changes appended to the journal")
+                    .tags("result", "appended")
+                    .register(registry);
+            FunctionCounter.builder("product.stock.journal.records", stockChangeJournal, journal -> journal.stats().failed())
+                    .description("Stock changes appended to the journal")
+                    .tags("result", "failed")
+                    .register(registry);
+            Gauge.builder("product.stock.journal.unflushed", stockChangeJournal, journal -> journal.stats().unflushed())
+                    .description("Journaled stock changes not yet written to the storage device")
+                    .register(registry);
+            Gauge.builder("product.stock.journal.segments", stockChangeJournal, journal -> journal.stats().segments())
+                    .description("Segment files of the stock journal")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder productInvalidationMetrics(
+            ObjectProvider<DatabaseProductInvalidationBroadcaster> productInvalidationBroadcaster) {
+        return registry -> productInvalidationBroadcaster.ifAvailable(broadcaster -> {
+            FunctionCounter.builder("product.cache.invalidations", broadcaster, b -> b.stats().published())
+                    .description("Product changes announced to or received from other nodes")
+                    .tags("result", "published")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.invalidations", broadcaster, b -> b.stats().publishFailures())
+                    .description("Product changes announced to or received from other nodes")
+                    .tags("result", "publish_failed")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.invalidations", broadcaster, b -> b.stats().received())
+                    .description("Product changes announced to or received from other nodes")
+                    .tags("result", "received")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.invalidation.gaps.skipped", broadcaster,
+                            b -> b.stats().gapsSkipped())
+                    .description("Version gaps given up on after the gap timeout")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.invalidation.poll.failures", broadcaster,
+                            b -> b.stats().pollFailures())
+                    .description("Failed reads of the product invalidation table")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce_inventory.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class keeping the application beans eager when lazy initialization is
+ * enabled ({@code spring.main.lazy-initialization}, set by the {@code fast-startup} profile).
+ * Controllers, use cases, the external product client and the background jobs (mirror sync,
+ * write-behind queue, outbox relay) are created during startup together with everything they
+ * depend on, so the first requests don't pay for them and scheduled work starts on time.
+ * Framework beans nothing on that path needs, such as springdoc and the actuator endpoints,
+ * are created on first use. Application beans that should be lazy declare {@code @Lazy}.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final String APPLICATION_PACKAGE = "com.ecommerce_inventory.";
+
+    @Bean
+    public static LazyInitializationExcludeFilter applicationBeansEagerFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && beanType.getName().startsWith(APPLICATION_PACKAGE);
+    }
+}
@@ -5,12 +5,15 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.Contact;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 /**
  * OpenAPI configuration for the E-commerce Inventory API.
  * This configuration provides metadata for the API documentation.
+ * It is only needed to serve the documentation, so it is created on first use.
  */
 @Configuration
+@Lazy
 public class OpenApiConfig {
     
     @Bean
@@ -0,0 +1,29 @@
+package com.ecommerce_inventory.config;
+
+import com.ecommerce_inventory.product.application.ProductCatalogMirror;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Configuration class scheduling the sync of the local catalog mirror.
+ * Runs are spaced by a fixed delay, so a slow sweep never overlaps the next run.
+ * Only active when {@code external.product.mirror.enabled} is true.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "external.product.mirror.enabled", havingValue = "true")
+public class ProductCatalogMirrorConfig {
+    
+    private final ProductCatalogMirror productCatalogMirror;
+    
+    public ProductCatalogMirrorConfig(ProductCatalogMirror productCatalogMirror) {
+        this.productCatalogMirror = productCatalogMirror;
+    }
+    
+    @Scheduled(fixedDelayString = "${external.product.mirror.sync-interval:30s}")
+    public void syncProductCatalogMirror() {
+        productCatalogMirror.sync();
+    }
+}
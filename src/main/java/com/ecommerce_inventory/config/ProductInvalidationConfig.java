@@ -0,0 +1,40 @@
+package com.ecommerce_inventory.config;
+
+import com.ecommerce_inventory.product.infrastructure.cluster.DatabaseProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.persistence.JpaProductInvalidationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the channel announcing product changes to the other nodes.
+ * The database-backed channel is only created when no other {@link ProductInvalidationBroadcaster}
+ * is declared, and only publishes and polls when {@code external.product.cache.invalidation.enabled} is true.
+ */
+@Configuration
+public class ProductInvalidationConfig {
+    
+    @Bean
+    @ConditionalOnMissingBean(ProductInvalidationBroadcaster.class)
+    public DatabaseProductInvalidationBroadcaster productInvalidationBroadcaster(
+            JpaProductInvalidationRepository repository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${external.product.cache.invalidation.enabled:false}") boolean enabled,
+            @Value("${external.product.cache.invalidation.node-id:}") String nodeId,
+            @Value("${external.product.cache.invalidation.poll-interval:100ms}") Duration pollInterval,
+            @Value("${external.product.cache.invalidation.batch-size:1000}") int batchSize,
+            @Value("${external.product.cache.invalidation.gap-timeout:2s}") Duration gapTimeout,
+            @Value("${external.product.cache.invalidation.retention:1h}") Duration retention,
+            MeterRegistry meterRegistry) {
+        return new DatabaseProductInvalidationBroadcaster(repository, jdbcTemplate, transactionTemplate, enabled,
+                nodeId, pollInterval, batchSize, gapTimeout, retention, meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce_inventory.config;
+
+import com.ecommerce_inventory.shared.concurrent.BoundedVirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration class for the executor used to fan out
+ * product lookups to the external product service.
+ * The pool size caps the number of upstream calls
+ * in flight across all concurrent batch requests, and the queue caps the number
+ * of lookups waiting for a thread; lookups over both caps are rejected right away
+ * with a {@link java.util.concurrent.RejectedExecutionException} instead of waiting
+ * past the deadline of their batch.
+ * With {@code spring.threads.virtual.enabled} each lookup runs on its own
+ * virtual thread instead, still capped to the same number of concurrent and waiting calls.
+ */
+@Configuration
+public class ProductLookupExecutorConfig {
+    
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService productLookupExecutor(
+            @Value("${external.product.lookup.threads:32}") int threads,
+            @Value("${external.product.lookup.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "product-lookup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @Bean(name = "productLookupExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualProductLookupExecutor(
+            @Value("${external.product.lookup.threads:32}") int threads,
+            @Value("${external.product.lookup.queue-capacity:256}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("product-lookup-", threads, queueCapacity);
+    }
+}
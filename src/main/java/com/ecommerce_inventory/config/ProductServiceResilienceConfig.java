@@ -0,0 +1,53 @@
+package com.ecommerce_inventory.config;
+
+import com.ecommerce_inventory.shared.resilience.Bulkhead;
+import com.ecommerce_inventory.shared.resilience.CircuitBreaker;
+import com.ecommerce_inventory.shared.resilience.Hedger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the circuit breaker, bulkhead and hedger
+ * protecting calls to the external product service.
+ */
+@Configuration
+public class ProductServiceResilienceConfig {
+    
+    @Bean
+    public CircuitBreaker productServiceCircuitBreaker(
+            @Value("${external.product.resilience.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${external.product.resilience.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${external.product.resilience.circuit-breaker.slow-call-duration:1s}") Duration slowCallDuration,
+            @Value("${external.product.resilience.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${external.product.resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${external.product.resilience.circuit-breaker.wait-in-open:10s}") Duration waitInOpen,
+            @Value("${external.product.resilience.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        return new CircuitBreaker("product-service", failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+                slidingWindowSize, minimumCalls, waitInOpen, halfOpenCalls);
+    }
+    
+    @Bean
+    public Bulkhead productServiceBulkhead(
+            @Value("${external.product.resilience.bulkhead.max-concurrent-calls:64}") int maxConcurrentCalls,
+            @Value("${external.product.resilience.bulkhead.max-wait:0ms}") Duration maxWait) {
+        return new Bulkhead("product-service", maxConcurrentCalls, maxWait);
+    }
+    
+    @Bean
+    public Hedger productServiceHedger(
+            @Value("${external.product.hedging.percentile:95}") double hedgePercentile,
+            @Value("${external.product.hedging.min-delay:5ms}") Duration minHedgeDelay,
+            @Value("${external.product.hedging.budget-percent:5}") double budgetPercent,
+            @Value("${external.product.hedging.timeout.percentile:99}") double timeoutPercentile,
+            @Value("${external.product.hedging.timeout.multiplier:3}") double timeoutMultiplier,
+            @Value("${external.product.hedging.timeout.min:50ms}") Duration minTimeout,
+            @Value("${external.product.hedging.timeout.max:${external.product.http.read-timeout:2s}}") Duration maxTimeout,
+            @Value("${external.product.hedging.window:10s}") Duration window,
+            @Value("${external.product.hedging.min-samples:100}") long minSamples) {
+        return new Hedger("product-service", hedgePercentile, minHedgeDelay, budgetPercent,
+                timeoutPercentile, timeoutMultiplier, minTimeout, maxTimeout, window, minSamples);
+    }
+}
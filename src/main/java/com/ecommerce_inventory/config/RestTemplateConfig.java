@@ -1,19 +1,124 @@
 package com.ecommerce_inventory.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Configuration class for RestTemplate bean.
  * This configuration provides a RestTemplate instance
  * for making HTTP requests to external services.
+ * By default requests go through a pooled keep-alive Apache HttpClient;
+ * setting {@code external.product.http.version=HTTP_2} switches to the JDK HttpClient.
  */
 @Configuration
 public class RestTemplateConfig {
     
+    private static final String HTTP_VERSION_PROPERTY = "external.product.http.version";
+    
+    @Value("${external.product.http.connect-timeout:1s}")
+    private Duration connectTimeout;
+    
+    @Value("${external.product.http.read-timeout:2s}")
+    private Duration readTimeout;
+    
+    @Value("${external.product.http.pool-acquire-timeout:500ms}")
+    private Duration poolAcquireTimeout;
+    
+    @Value("${external.product.http.max-connections:200}")
+    private int maxConnections;
+    
+    @Value("${external.product.http.max-connections-per-route:100}")
+    private int maxConnectionsPerRoute;
+    
+    @Value("${external.product.http.keep-alive:30s}")
+    private Duration keepAlive;
+    
+    @Value("${external.product.http.connection-ttl:5m}")
+    private Duration connectionTimeToLive;
+    
+    @Value("${external.product.http.validate-after-inactivity:2s}")
+    private Duration validateAfterInactivity;
+    
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = HTTP_VERSION_PROPERTY, havingValue = "HTTP_1_1", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager productServiceConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+    }
+    
+    /**
+     * Publishes leased, available and pending connection counts of the pool
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConditionalOnProperty(name = HTTP_VERSION_PROPERTY, havingValue = "HTTP_1_1", matchIfMissing = true)
+    public MeterBinder productServiceConnectionPoolMetrics(PoolingHttpClientConnectionManager productServiceConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(productServiceConnectionManager, "product-service");
+    }
+    
+    /**
+     * Apache HttpClient sharing the connection pool. It is a bean so that closing the context
+     * also stops its background evictor of expired and idle connections.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = HTTP_VERSION_PROPERTY, havingValue = "HTTP_1_1", matchIfMissing = true)
+    public CloseableHttpClient productServiceHttpClient(PoolingHttpClientConnectionManager productServiceConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(productServiceConnectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+    
+    @Bean
+    public RestTemplate restTemplate(ObjectProvider<CloseableHttpClient> productServiceHttpClient) {
+        CloseableHttpClient httpClient = productServiceHttpClient.getIfAvailable();
+        ClientHttpRequestFactory requestFactory = httpClient != null
+                ? new HttpComponentsClientHttpRequestFactory(httpClient)
+                : http2RequestFactory();
+        return new RestTemplate(requestFactory);
+    }
+    
+    private ClientHttpRequestFactory http2RequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.ecommerce_inventory.product.application;
+
+/**
+ * Where product availability reads are answered from.
+ */
+public enum AvailabilitySource {
+    
+    /**
+     * Ask the external product service (through its cache)
+     */
+    REMOTE,
+    
+    /**
+     * Answer from the local catalog mirror while it is within its staleness bound,
+     * falling back to the external product service otherwise
+     */
+    MIRROR
+}
@@ -0,0 +1,26 @@
+package com.ecommerce_inventory.product.application;
+
+import java.time.Duration;
+
+/**
+ * Summary of a bulk stock update run.
+ */
+public record BulkStockUpdateReport(
+    long lines,
+    long updated,
+    long notFound,
+    long invalid,
+    long superseded,
+    long failed,
+    int chunks,
+    Duration duration
+) {
+    
+    /**
+     * Processed lines per second over the whole run
+     */
+    public double linesPerSecond() {
+        long nanos = duration.toNanos();
+        return nanos == 0 ? 0.0 : lines * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce_inventory.product.application;
+
+/**
+ * Result of a single line of a bulk stock update.
+ * The message explains why a line was not applied.
+ */
+public record BulkStockUpdateResult(
+    long line,
+    Long productId,
+    Integer stock,
+    Status status,
+    String message
+) {
+    
+    /**
+     * Outcome of a single line
+     */
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        INVALID,
+        SUPERSEDED,
+        FAILED
+    }
+    
+    public static BulkStockUpdateResult of(StockUpdateLine line, Status status, String message) {
+        return new BulkStockUpdateResult(line.line(), line.productId(), line.stock(), status, message);
+    }
+}
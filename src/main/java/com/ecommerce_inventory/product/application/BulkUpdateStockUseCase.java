@@ -0,0 +1,242 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Use case for applying a bulk file of stock updates, such as a warehouse reconciliation.
+ * Lines are consumed lazily and applied in chunks, so a file of any size runs in bounded memory.
+ * Within a chunk a product listed on several lines only gets the value of its last line, and the
+ * earlier lines are reported as superseded; the remaining products are spread over a bounded
+ * number of workers, which run on the calling thread when the shared lookup executor is saturated.
+ * With the stock outbox enabled each worker writes its share of the chunk to
+ * the local products table in one transaction; otherwise each product is sent to the external
+ * service as a single stock update would. Chunks are applied one after another, so the last line
+ * of a product always wins, and results are reported in line order as each chunk completes.
+ */
+@Service
+public class BulkUpdateStockUseCase {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkUpdateStockUseCase.class);
+    
+    private final UpdateProductStockUseCase updateProductStockUseCase;
+    private final ExecutorService productLookupExecutor;
+    private final int chunkSize;
+    private final int concurrency;
+    private final Timer executeTimer;
+    
+    public BulkUpdateStockUseCase(UpdateProductStockUseCase updateProductStockUseCase,
+                                  @Qualifier("productLookupExecutor") ExecutorService productLookupExecutor,
+                                  @Value("${product.stock.bulk.chunk-size:500}") int chunkSize,
+                                  @Value("${product.stock.bulk.concurrency:8}") int concurrency,
+                                  MeterRegistry meterRegistry) {
+        if (chunkSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Bulk stock update chunk size and concurrency must be positive");
+        }
+        this.updateProductStockUseCase = updateProductStockUseCase;
+        this.productLookupExecutor = productLookupExecutor;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "bulk_update_stock", "execute");
+    }
+    
+    /**
+     * Executes the use case, applying every valid line and reporting the result of each one
+     * @param lines the parsed lines, consumed lazily
+     * @param results receives one result per line, in line order
+     * @return The report of the run
+     */
+    public BulkStockUpdateReport execute(Iterator<StockUpdateLine> lines, Consumer<BulkStockUpdateResult> results) {
+        long start = System.nanoTime();
+        long[] counts = new long[BulkStockUpdateResult.Status.values().length];
+        long processed = 0;
+        int chunks = 0;
+        try {
+            List<StockUpdateLine> chunk = new ArrayList<>(chunkSize);
+            while (lines.hasNext() && !Thread.currentThread().isInterrupted()) {
+                chunk.add(lines.next());
+                if (chunk.size() == chunkSize || !lines.hasNext()) {
+                    AtomicReferenceArray<BulkStockUpdateResult> chunkResults = applyChunk(chunk);
+                    for (int i = 0; i < chunkResults.length(); i++) {
+                        BulkStockUpdateResult result = chunkResults.get(i);
+                        counts[result.status().ordinal()]++;
+                        results.accept(result);
+                    }
+                    processed += chunk.size();
+                    chunks++;
+                    chunk.clear();
+                }
+            }
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        BulkStockUpdateReport report = new BulkStockUpdateReport(processed,
+                counts[BulkStockUpdateResult.Status.UPDATED.ordinal()],
+                counts[BulkStockUpdateResult.Status.NOT_FOUND.ordinal()],
+                counts[BulkStockUpdateResult.Status.INVALID.ordinal()],
+                counts[BulkStockUpdateResult.Status.SUPERSEDED.ordinal()],
+                counts[BulkStockUpdateResult.Status.FAILED.ordinal()],
+                chunks, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Applied bulk stock update of {} lines ({} updated, {} not found, {} invalid, {} superseded, {} failed) "
+                        + "in {} chunks, {} ms, {} lines/s",
+                report.lines(), report.updated(), report.notFound(), report.invalid(), report.superseded(),
+                report.failed(), report.chunks(), report.duration().toMillis(), Math.round(report.linesPerSecond()));
+        return report;
+    }
+    
+    private AtomicReferenceArray<BulkStockUpdateResult> applyChunk(List<StockUpdateLine> chunk) {
+        AtomicReferenceArray<BulkStockUpdateResult> results = new AtomicReferenceArray<>(chunk.size());
+        Map<Long, Integer> lastIndexByProduct = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            StockUpdateLine line = chunk.get(i);
+            if (!line.isValid()) {
+                results.set(i, BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.INVALID, line.error()));
+                continue;
+            }
+            Integer previous = lastIndexByProduct.put(line.productId(), i);
+            if (previous != null) {
+                results.set(previous, BulkStockUpdateResult.of(chunk.get(previous),
+                        BulkStockUpdateResult.Status.SUPERSEDED, "Superseded by line " + line.line()));
+            }
+        }
+        int[] pending = lastIndexByProduct.values().stream().mapToInt(Integer::intValue).toArray();
+        if (pending.length == 0) {
+            return results;
+        }
+        
+        int workers = Math.min(concurrency, pending.length);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        if (updateProductStockUseCase.writesLocally()) {
+            for (int worker = 0; worker < workers; worker++) {
+                int from = (int) ((long) pending.length * worker / workers);
+                int to = (int) ((long) pending.length * (worker + 1) / workers);
+                submitOrRun(futures, () -> applyLocally(chunk, pending, from, to, results));
+            }
+        } else {
+            AtomicInteger nextIndex = new AtomicInteger();
+            for (int worker = 0; worker < workers; worker++) {
+                if (!submit(futures, () -> applyRemotelyUntilDone(chunk, pending, nextIndex, results))) {
+                    break;
+                }
+            }
+            if (futures.isEmpty()) {
+                applyRemotelyUntilDone(chunk, pending, nextIndex, results);
+            }
+        }
+        awaitAll(futures);
+        
+        for (int index : pending) {
+            results.compareAndSet(index, null, BulkStockUpdateResult.of(chunk.get(index),
+                    BulkStockUpdateResult.Status.FAILED, "Interrupted before the update was applied"));
+        }
+        return results;
+    }
+    
+    /**
+     * Worker task: writes a contiguous share of the chunk to the local products table in one transaction
+     */
+    private void applyLocally(List<StockUpdateLine> chunk, int[] pending, int from, int to,
+                              AtomicReferenceArray<BulkStockUpdateResult> results) {
+        Map<Long, Integer> stockByProduct = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            StockUpdateLine line = chunk.get(pending[i]);
+            stockByProduct.put(line.productId(), line.stock());
+        }
+        try {
+            Map<Long, Optional<ExternalProductDto>> updated = updateProductStockUseCase.executeAll(stockByProduct);
+            for (int i = from; i < to; i++) {
+                StockUpdateLine line = chunk.get(pending[i]);
+                results.set(pending[i], updated.get(line.productId()).isPresent()
+                        ? BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.UPDATED, null)
+                        : BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.NOT_FOUND, "Product not found"));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk stock update of {} products failed", to - from, e);
+            for (int i = from; i < to; i++) {
+                results.set(pending[i], BulkStockUpdateResult.of(chunk.get(pending[i]),
+                        BulkStockUpdateResult.Status.FAILED, e.getMessage()));
+            }
+        }
+    }
+    
+    /**
+     * Worker loop: claims the next pending line and sends it to the external service until all lines are claimed
+     */
+    private void applyRemotelyUntilDone(List<StockUpdateLine> chunk, int[] pending, AtomicInteger nextIndex,
+                                        AtomicReferenceArray<BulkStockUpdateResult> results) {
+        int claimed;
+        while ((claimed = nextIndex.getAndIncrement()) < pending.length) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            StockUpdateLine line = chunk.get(pending[claimed]);
+            try {
+                results.set(pending[claimed], updateProductStockUseCase.execute(line.productId(), line.stock()).isPresent()
+                        ? BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.UPDATED, null)
+                        : BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.NOT_FOUND, "Product not found"));
+            } catch (RuntimeException e) {
+                results.set(pending[claimed], BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.FAILED,
+                        e.getMessage()));
+            }
+        }
+    }
+    
+    /**
+     * Runs a worker on the lookup executor, or on the calling thread when the executor is saturated,
+     * which slows the import down to the pace the executor can take
+     */
+    private void submitOrRun(List<Future<?>> futures, Runnable worker) {
+        if (!submit(futures, worker)) {
+            worker.run();
+        }
+    }
+    
+    /**
+     * Runs a worker on the lookup executor
+     * @return false if the executor is saturated and rejected the worker
+     */
+    private boolean submit(List<Future<?>> futures, Runnable worker) {
+        try {
+            futures.add(productLookupExecutor.submit(worker));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Unexpected error applying bulk stock update", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pendingFuture -> pendingFuture.cancel(true));
+                return;
+            }
+        }
+    }
+}
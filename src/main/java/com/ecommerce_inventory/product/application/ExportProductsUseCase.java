@@ -0,0 +1,52 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Use case for exporting the whole product catalog.
+ * Products are streamed from the repository and handed to the consumer one by one,
+ * so the export runs in constant memory regardless of the catalog size.
+ */
+@Service
+public class ExportProductsUseCase {
+    
+    private final ProductRepository productRepository;
+    private final Timer executeTimer;
+    
+    public ExportProductsUseCase(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "export_products", "execute");
+    }
+    
+    /**
+     * Executes the use case, passing every product to the consumer in ascending ID order
+     * @param category the category to filter by, or null for every product
+     * @param consumer the action receiving each exported product
+     * @return the number of exported products
+     */
+    @Transactional(readOnly = true)
+    public long execute(String category, Consumer<Product> consumer) {
+        long start = System.nanoTime();
+        long exported = 0;
+        try (Stream<Product> products = category == null || category.isBlank()
+                ? productRepository.streamAll()
+                : productRepository.streamByCategory(category)) {
+            for (Iterator<Product> iterator = products.iterator(); iterator.hasNext(); exported++) {
+                consumer.accept(iterator.next());
+            }
+            return exported;
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
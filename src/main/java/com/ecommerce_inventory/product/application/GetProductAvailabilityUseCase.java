@@ -1,35 +1,90 @@
 package com.ecommerce_inventory.product.application;
 
 import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductStock;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalServiceUnavailableException;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Use case for retrieving product availability from external microservice.
  * This class encapsulates the business logic for checking product stock
  * by communicating with an external product service.
+ * With the {@link AvailabilitySource#MIRROR} source, stock is read from the local
+ * catalog mirror while it is fresh, and the mirror also serves as stale fallback
+ * when the external service is unavailable. Mirrored stock comes from a primitive
+ * in-memory index, so this path only allocates the returned availability.
  */
 @Service
 public class GetProductAvailabilityUseCase {
     
     private final ExternalProductService externalProductService;
+    private final ProductCatalogMirror productCatalogMirror;
+    private final HotProductTracker hotProductTracker;
+    private final AvailabilitySource source;
+    private final Timer executeTimer;
     
-    public GetProductAvailabilityUseCase(ExternalProductService externalProductService) {
+    public GetProductAvailabilityUseCase(ExternalProductService externalProductService,
+                                         ProductCatalogMirror productCatalogMirror,
+                                         HotProductTracker hotProductTracker,
+                                         @Value("${product.availability.source:REMOTE}") AvailabilitySource source,
+                                         MeterRegistry meterRegistry) {
         this.externalProductService = externalProductService;
+        this.productCatalogMirror = productCatalogMirror;
+        this.hotProductTracker = hotProductTracker;
+        this.source = source;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "get_product_availability", "execute");
     }
     
     /**
      * Executes the use case to get product availability from external service
      * @param productId the product ID to check availability for
-     * @return Optional containing the stock amount if product exists, empty otherwise
+     * @return Optional containing the product availability if product exists, empty otherwise
      * @throws IllegalArgumentException if the ID is null or invalid
      */
-    public Optional<Integer> execute(Long productId) {
+    public Optional<ProductAvailability> execute(Long productId) {
         if (productId == null || productId <= 0) {
             throw new IllegalArgumentException("Product ID must be a positive number");
         }
+        hotProductTracker.record(productId);
         
-        return externalProductService.getProductStock(productId);
+        long start = System.nanoTime();
+        try {
+            if (source == AvailabilitySource.MIRROR && productCatalogMirror.isFresh()) {
+                int mirrored = productCatalogMirror.stockOf(productId);
+                if (mirrored != ProductCatalogMirror.NOT_MIRRORED) {
+                    return Optional.of(new ProductAvailability(productId, mirrored, false));
+                }
+            }
+            return getFromExternalService(productId);
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Optional<ProductAvailability> getFromExternalService(Long productId) {
+        try {
+            return externalProductService.getProductStock(productId)
+                    .map(GetProductAvailabilityUseCase::toAvailability);
+        } catch (ExternalServiceUnavailableException e) {
+            if (source != AvailabilitySource.MIRROR) {
+                throw e;
+            }
+            int mirrored = productCatalogMirror.stockOf(productId);
+            if (mirrored == ProductCatalogMirror.NOT_MIRRORED) {
+                throw e;
+            }
+            return Optional.of(new ProductAvailability(productId, mirrored, true));
+        }
+    }
+    
+    private static ProductAvailability toAvailability(ExternalProductStock stock) {
+        return new ProductAvailability(stock.productId(), stock.stock(), stock.stale());
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductStock;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalServiceUnavailableException;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Use case for retrieving the availability of several products at once.
+ * Lookups are deduplicated and fanned out to the external product service
+ * with a bounded number of concurrent calls per batch. Lookups that do not
+ * complete before the batch deadline are reported as timed out instead of
+ * failing the whole batch. When the shared lookup executor is saturated the batch
+ * runs with the workers it could start, and fails fast if it could start none.
+ */
+@Service
+public class GetProductsAvailabilityUseCase {
+    
+    private final ExternalProductService externalProductService;
+    private final ExecutorService productLookupExecutor;
+    private final HotProductTracker hotProductTracker;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Timer executeTimer;
+    
+    public GetProductsAvailabilityUseCase(ExternalProductService externalProductService,
+                                          @Qualifier("productLookupExecutor") ExecutorService productLookupExecutor,
+                                          HotProductTracker hotProductTracker,
+                                          @Value("${external.product.batch.concurrency:8}") int concurrency,
+                                          @Value("${external.product.batch.timeout:2s}") Duration timeout,
+                                          MeterRegistry meterRegistry) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Batch concurrency must be a positive number");
+        }
+        this.externalProductService = externalProductService;
+        this.productLookupExecutor = productLookupExecutor;
+        this.hotProductTracker = hotProductTracker;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "get_products_availability", "execute");
+    }
+    
+    /**
+     * Executes the use case to get the availability of several products
+     * @param productIds the product IDs to check, duplicates are ignored
+     * @return one lookup result per distinct product ID, in request order
+     * @throws IllegalArgumentException if the list is null or contains an invalid ID
+     * @throws ExternalServiceUnavailableException if the lookup executor has no room for the batch
+     */
+    public List<ProductStockLookup> execute(List<Long> productIds) {
+        if (productIds == null) {
+            throw new IllegalArgumentException("Product IDs cannot be null");
+        }
+        
+        LinkedHashSet<Long> distinctIds = new LinkedHashSet<>();
+        for (Long productId : productIds) {
+            if (productId == null || productId <= 0) {
+                throw new IllegalArgumentException("Product ID must be a positive number");
+            }
+            distinctIds.add(productId);
+        }
+        distinctIds.forEach(hotProductTracker::record);
+        
+        long start = System.nanoTime();
+        try {
+            return lookupAll(distinctIds.toArray(new Long[0]));
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private List<ProductStockLookup> lookupAll(Long[] ids) {
+        AtomicReferenceArray<ProductStockLookup> results = new AtomicReferenceArray<>(ids.length);
+        AtomicInteger nextIndex = new AtomicInteger();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        
+        int workers = Math.min(concurrency, ids.length);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                futures.add(productLookupExecutor.submit(() -> lookupUntilDone(ids, results, nextIndex, deadline)));
+            }
+        } catch (RejectedExecutionException e) {
+            if (futures.isEmpty()) {
+                throw new ExternalServiceUnavailableException("Too many product lookups in progress", e);
+            }
+        }
+        
+        awaitAll(futures, deadline);
+        
+        List<ProductStockLookup> lookups = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ProductStockLookup lookup = results.get(i);
+            lookups.add(lookup != null ? lookup : ProductStockLookup.of(ids[i], ProductStockLookup.Status.TIMEOUT));
+        }
+        return lookups;
+    }
+    
+    /**
+     * Worker loop: claims the next pending ID until all IDs are claimed or the deadline passes
+     */
+    private void lookupUntilDone(Long[] ids, AtomicReferenceArray<ProductStockLookup> results,
+                                 AtomicInteger nextIndex, long deadline) {
+        int index;
+        while ((index = nextIndex.getAndIncrement()) < ids.length) {
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            results.set(index, lookup(ids[index]));
+        }
+    }
+    
+    private ProductStockLookup lookup(Long productId) {
+        try {
+            Optional<ExternalProductStock> stock = externalProductService.getProductStock(productId);
+            return stock
+                    .map(value -> ProductStockLookup.found(productId, value.stock(), value.stale()))
+                    .orElseGet(() -> ProductStockLookup.of(productId, ProductStockLookup.Status.NOT_FOUND));
+        } catch (RuntimeException e) {
+            return ProductStockLookup.of(productId, ProductStockLookup.Status.ERROR);
+        }
+    }
+    
+    private void awaitAll(List<Future<?>> futures, long deadline) {
+        try {
+            for (Future<?> future : futures) {
+                long remaining = deadline - System.nanoTime();
+                future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            // Unfinished lookups are reported as timed out
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
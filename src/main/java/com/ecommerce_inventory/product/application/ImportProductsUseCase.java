@@ -0,0 +1,82 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import com.ecommerce_inventory.product.domain.ProductUpsertResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Use case for importing a product catalog in bulk.
+ * Products are upserted in chunks, each one in its own transaction, so an import of
+ * any size runs in constant memory and a failure only rolls back the current chunk.
+ */
+@Service
+public class ImportProductsUseCase {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportProductsUseCase.class);
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Timer executeTimer;
+    
+    public ImportProductsUseCase(ProductRepository productRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${product.import.chunk-size:1000}") int chunkSize,
+                                 MeterRegistry meterRegistry) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Import chunk size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "import_products", "execute");
+    }
+    
+    /**
+     * Executes the use case, inserting new products and updating existing ones by ID
+     * @param products the products to import, consumed lazily
+     * @return The report of the import run
+     */
+    public ImportReport execute(Iterator<Product> products) {
+        long start = System.nanoTime();
+        long processed = 0;
+        long inserted = 0;
+        long updated = 0;
+        int chunks = 0;
+        try {
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            while (products.hasNext()) {
+                chunk.add(products.next());
+                if (chunk.size() == chunkSize || !products.hasNext()) {
+                    ProductUpsertResult result = transactionTemplate.execute(status -> productRepository.upsertAll(chunk));
+                    processed += chunk.size();
+                    inserted += result.inserted();
+                    updated += result.updated();
+                    chunks++;
+                    chunk.clear();
+                }
+            }
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        ImportReport report = new ImportReport(processed, inserted, updated, chunks,
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Imported {} products ({} inserted, {} updated) in {} chunks, {} ms, {} products/s",
+                report.processed(), report.inserted(), report.updated(), report.chunks(),
+                report.duration().toMillis(), Math.round(report.productsPerSecond()));
+        return report;
+    }
+}
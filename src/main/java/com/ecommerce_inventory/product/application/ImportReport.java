@@ -0,0 +1,23 @@
+package com.ecommerce_inventory.product.application;
+
+import java.time.Duration;
+
+/**
+ * Summary of a bulk product import run.
+ */
+public record ImportReport(
+    long processed,
+    long inserted,
+    long updated,
+    int chunks,
+    Duration duration
+) {
+    
+    /**
+     * Imported products per second over the whole run
+     */
+    public double productsPerSecond() {
+        long nanos = duration.toNanos();
+        return nanos == 0 ? 0.0 : processed * 1_000_000_000.0 / nanos;
+    }
+}
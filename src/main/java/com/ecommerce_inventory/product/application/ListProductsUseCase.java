@@ -0,0 +1,85 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Use case for browsing the product catalog page by page.
+ * Pages are read with keyset pagination on the product ID, so the cost of
+ * a page does not depend on how deep into the catalog it is.
+ * Category filters are case-insensitive.
+ */
+@Service
+public class ListProductsUseCase {
+    
+    private final ProductRepository productRepository;
+    private final int maxPageSize;
+    private final Timer executeTimer;
+    private final Timer countTimer;
+    
+    public ListProductsUseCase(ProductRepository productRepository,
+                               @Value("${product.catalog.max-page-size:1000}") int maxPageSize,
+                               MeterRegistry meterRegistry) {
+        if (maxPageSize <= 0) {
+            throw new IllegalArgumentException("Max page size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.maxPageSize = maxPageSize;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "list_products", "execute");
+        this.countTimer = UseCaseTimers.timer(meterRegistry, "list_products", "count");
+    }
+    
+    /**
+     * Executes the use case to read one page of products
+     * @param category the category to filter by, or null for every product
+     * @param afterId the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of products in the page
+     * @return The page of products and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor or the page size is invalid
+     */
+    @Transactional(readOnly = true)
+    public ProductPage execute(String category, Long afterId, int size) {
+        if (afterId != null && afterId < 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative");
+        }
+        if (size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        
+        long start = System.nanoTime();
+        try {
+            List<Product> products = category == null || category.isBlank()
+                    ? productRepository.findAllAfter(afterId, size)
+                    : productRepository.findByCategoryAfter(category, afterId, size);
+            Long nextAfterId = products.size() == size ? products.get(products.size() - 1).id() : null;
+            return new ProductPage(products, nextAfterId);
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Counts the products that the listing would return, without reading them
+     * @param category the category to filter by, or null for every product
+     * @return the number of products
+     */
+    @Transactional(readOnly = true)
+    public long count(String category) {
+        long start = System.nanoTime();
+        try {
+            return category == null || category.isBlank()
+                    ? productRepository.count()
+                    : productRepository.countByCategory(category);
+        } finally {
+            countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
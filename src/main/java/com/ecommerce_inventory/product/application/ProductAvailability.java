@@ -0,0 +1,13 @@
+package com.ecommerce_inventory.product.application;
+
+/**
+ * Availability of a product as returned by the availability use cases.
+ * A stale availability is the last known good stock, served because
+ * the source of truth could not be reached.
+ */
+public record ProductAvailability(
+    Long productId,
+    Integer stock,
+    boolean stale
+) {
+}
@@ -0,0 +1,42 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationListener;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Applies product changes made on other nodes to the caches of this node.
+ * Each changed product is dropped from the external product cache, so the next read
+ * loads it again, and its stock is reloaded into the catalog mirror's stock index from
+ * the products table, which the other node has already written. When changes may have
+ * been missed, both the cache and the whole stock index are discarded.
+ */
+@Service
+public class ProductCacheInvalidator implements ProductInvalidationListener {
+    
+    private final ExternalProductService externalProductService;
+    private final ProductCatalogMirror productCatalogMirror;
+    
+    public ProductCacheInvalidator(ProductInvalidationBroadcaster productInvalidationBroadcaster,
+                                   ExternalProductService externalProductService,
+                                   ProductCatalogMirror productCatalogMirror) {
+        this.externalProductService = externalProductService;
+        this.productCatalogMirror = productCatalogMirror;
+        productInvalidationBroadcaster.subscribe(this);
+    }
+    
+    @Override
+    public void productsChanged(Set<Long> productIds) {
+        productIds.forEach(externalProductService::evictProduct);
+        productCatalogMirror.reloadStock(productIds);
+    }
+    
+    @Override
+    public void allProductsChanged() {
+        externalProductService.evictAllProducts();
+        productCatalogMirror.reloadAllStock();
+    }
+}
@@ -0,0 +1,343 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import com.ecommerce_inventory.product.domain.ProductUpsertResult;
+import com.ecommerce_inventory.product.domain.StockChangeOutbox;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductPage;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalServiceUnavailableException;
+import com.ecommerce_inventory.shared.concurrent.ConcurrentLongIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local mirror of the external product catalog, stored in the products table.
+ * The catalog is copied by sweeps that walk the external catalog page by page and
+ * bulk upsert each page. A sweep can span several sync runs: each run resumes
+ * from the cursor where the previous one stopped.
+ * Each page covers the ID range from the previous cursor to its own, the last one up to
+ * the end of the catalog, so mirrored products in that range missing from the page were
+ * deleted upstream: they are deleted from the table and the stock index, and announced
+ * to the other nodes. An empty first page is taken as an upstream glitch and deletes nothing.
+ * Every product is at least as fresh as the start of the last completed sweep,
+ * which bounds the staleness of the mirror; once that bound exceeds the configured
+ * maximum the mirror reports itself as not fresh.
+ * Stock written through this service is also written to the mirror right away.
+ * Mirrored stock is also held in an in-memory primitive index, loaded from the table
+ * on the first sync run, so stock reads do not hit the database or allocate.
+ * Products with stock changes still waiting in the stock outbox, checked in the transaction
+ * that stores the page, are skipped by sweeps, so the mirror never overwrites a local change
+ * the external service has not received yet. Products whose stock was written locally or by
+ * another node after a page was read are skipped as well, since the page may predate the
+ * delivery of that change.
+ * Stock changed by other nodes is reloaded into the index when they announce the change
+ * (see {@link ProductCacheInvalidator}).
+ */
+@Service
+public class ProductCatalogMirror {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogMirror.class);
+    
+    /**
+     * Returned by {@link #stockOf} for products that are not mirrored
+     */
+    public static final int NOT_MIRRORED = -1;
+    
+    private static final long NEVER = Long.MIN_VALUE;
+    
+    private final ExternalProductService externalProductService;
+    private final ProductRepository productRepository;
+    private final StockChangeOutbox stockChangeOutbox;
+    private final ProductInvalidationBroadcaster productInvalidationBroadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final Duration maxStaleness;
+    private final ConcurrentLongIntMap stockIndex;
+    
+    private final Map<Long, Long> stockWrittenNanos = new ConcurrentHashMap<>();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private Long sweepCursor;
+    private long sweepStartedNanos = NEVER;
+    private volatile long lastCompletedSweepStartedNanos = NEVER;
+    private volatile boolean stockIndexLoaded;
+    private volatile boolean stockIndexReloadRequested;
+    
+    public ProductCatalogMirror(ExternalProductService externalProductService,
+                                ProductRepository productRepository,
+                                StockChangeOutbox stockChangeOutbox,
+                                ProductInvalidationBroadcaster productInvalidationBroadcaster,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${external.product.mirror.enabled:false}") boolean enabled,
+                                @Value("${external.product.mirror.page-size:500}") int pageSize,
+                                @Value("${external.product.mirror.max-pages-per-run:0}") int maxPagesPerRun,
+                                @Value("${external.product.mirror.max-staleness:2m}") Duration maxStaleness,
+                                @Value("${external.product.mirror.stock-index.enabled:true}") boolean stockIndexEnabled,
+                                @Value("${external.product.mirror.stock-index.expected-size:100000}") int expectedSize) {
+        if (pageSize <= 0 || maxPagesPerRun < 0) {
+            throw new IllegalArgumentException("Mirror page size must be positive and max pages per run not negative");
+        }
+        this.externalProductService = externalProductService;
+        this.productRepository = productRepository;
+        this.stockChangeOutbox = stockChangeOutbox;
+        this.productInvalidationBroadcaster = productInvalidationBroadcaster;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.maxStaleness = maxStaleness;
+        this.stockIndex = enabled && stockIndexEnabled ? new ConcurrentLongIntMap(expectedSize) : null;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Runs one sync step, copying external catalog pages into the products table until
+     * the sweep completes or the per-run page limit is reached.
+     * Does nothing if the mirror is disabled or another sync is still running.
+     * A failure reading the external catalog stops the run; the next run resumes from the same page.
+     */
+    public void sync() {
+        if (!enabled || !syncLock.tryLock()) {
+            return;
+        }
+        try {
+            if (stockIndex != null && (!stockIndexLoaded || stockIndexReloadRequested)) {
+                stockIndexReloadRequested = false;
+                stockIndex.clear();
+                loadStockIndex();
+            }
+            if (sweepStartedNanos == NEVER) {
+                sweepStartedNanos = System.nanoTime();
+                sweepCursor = null;
+            }
+            int pages = 0;
+            while (maxPagesPerRun == 0 || pages < maxPagesPerRun) {
+                long readNanos = System.nanoTime();
+                ExternalProductPage page = externalProductService.getProductsPage(sweepCursor, pageSize);
+                store(page.products(), sweepCursor, page.nextAfterId(), readNanos);
+                pages++;
+                if (page.nextAfterId() == null || page.products().isEmpty()) {
+                    completeSweep();
+                    return;
+                }
+                sweepCursor = page.nextAfterId();
+            }
+        } catch (ExternalServiceUnavailableException e) {
+            log.warn("Catalog mirror sync paused after product {}: {}", sweepCursor, e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns whether the mirror can answer reads within the staleness bound
+     */
+    public boolean isFresh() {
+        long completed = lastCompletedSweepStartedNanos;
+        return enabled && completed != NEVER && System.nanoTime() - completed <= maxStaleness.toNanos();
+    }
+    
+    /**
+     * Returns the upper bound on how old any mirrored product can be
+     * @return the staleness bound, empty if no sweep has completed yet
+     */
+    public Optional<Duration> staleness() {
+        long completed = lastCompletedSweepStartedNanos;
+        return completed == NEVER ? Optional.empty() : Optional.of(Duration.ofNanos(System.nanoTime() - completed));
+    }
+    
+    /**
+     * Reads the mirrored stock of a product without allocating once the stock index is loaded
+     * @param productId the product ID
+     * @return the mirrored stock, or {@link #NOT_MIRRORED} if the product is not mirrored
+     */
+    public int stockOf(long productId) {
+        if (stockIndexLoaded) {
+            return stockIndex.get(productId, NOT_MIRRORED);
+        }
+        return productRepository.findStockById(productId).orElse(NOT_MIRRORED);
+    }
+    
+    /**
+     * Writes a stock value accepted by the external service to the mirror,
+     * so reads served from the mirror observe writes made through this service
+     * @param productId the product ID
+     * @param stock the new stock amount
+     */
+    public void recordStock(Long productId, Integer stock) {
+        if (!enabled || stock == null) {
+            return;
+        }
+        stockWrittenNanos.put(productId, System.nanoTime());
+        Boolean updated = transactionTemplate.execute(status -> productRepository.updateStock(productId, stock));
+        if (stockIndex != null && Boolean.TRUE.equals(updated)) {
+            stockIndex.put(productId, stock);
+        }
+    }
+    
+    /**
+     * Updates the stock index with a stock value already written to the products table
+     * in the local transaction that recorded it in the stock outbox
+     * @param productId the product ID
+     * @param stock the new stock amount
+     */
+    public void indexStock(Long productId, int stock) {
+        if (enabled) {
+            stockWrittenNanos.put(productId, System.nanoTime());
+        }
+        if (stockIndex != null) {
+            stockIndex.put(productId, stock);
+        }
+    }
+    
+    /**
+     * Reloads the indexed stock of products from the products table, after another node
+     * changed them. Reloaded entries are newer than the rows read by a concurrent initial
+     * load of the index, so they are kept by it.
+     * @param productIds the IDs of the changed products
+     */
+    public void reloadStock(Collection<Long> productIds) {
+        if (enabled) {
+            long now = System.nanoTime();
+            productIds.forEach(productId -> stockWrittenNanos.put(productId, now));
+        }
+        if (stockIndex == null) {
+            return;
+        }
+        for (Long productId : productIds) {
+            Optional<Integer> stock = productRepository.findStockById(productId);
+            if (stock.isPresent()) {
+                stockIndex.put(productId, stock.get());
+            } else {
+                stockIndex.remove(productId);
+            }
+        }
+    }
+    
+    /**
+     * Discards the whole stock index after changes from other nodes may have been missed.
+     * Reads fall back to the products table right away, and the next sync run reloads the index.
+     */
+    public void reloadAllStock() {
+        if (stockIndex == null) {
+            return;
+        }
+        stockIndexReloadRequested = true;
+        stockIndexLoaded = false;
+    }
+    
+    /**
+     * Stores a page of the external catalog, skipping products with undelivered local changes,
+     * and deletes the mirrored products of the page's ID range that the page no longer lists
+     * @param afterId the cursor the page was requested after, null for the first page
+     * @param upToId the last ID covered by the page, null if it is the last page
+     * @param readNanos when the page was requested; products written since then are skipped
+     */
+    private void store(List<ExternalProductDto> externalProducts, Long afterId, Long upToId, long readNanos) {
+        boolean coversRange = !externalProducts.isEmpty() || afterId != null;
+        StoredPage stored = transactionTemplate.execute(status -> {
+            List<Long> pageIds = externalProducts.stream().map(ExternalProductDto::id).toList();
+            Set<Long> listed = new HashSet<>(pageIds);
+            List<Long> unlisted = coversRange
+                    ? productRepository.findIdsInRange(afterId, upToId).stream().filter(id -> !listed.contains(id)).toList()
+                    : List.of();
+            List<Long> candidates = new ArrayList<>(pageIds);
+            candidates.addAll(unlisted);
+            Set<Long> pendingChanges = stockChangeOutbox.productsWithPendingChanges(candidates);
+            List<Product> mirrored = new ArrayList<>(externalProducts.size());
+            for (ExternalProductDto externalProduct : externalProducts) {
+                if (pendingChanges.contains(externalProduct.id()) || writtenSince(externalProduct.id(), readNanos)) {
+                    continue;
+                }
+                try {
+                    mirrored.add(new Product(externalProduct.id(), externalProduct.name(), externalProduct.description(),
+                            externalProduct.price(), externalProduct.stock(), externalProduct.category()));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping invalid product {} from external catalog: {}", externalProduct.id(), e.getMessage());
+                }
+            }
+            if (!mirrored.isEmpty()) {
+                ProductUpsertResult result = productRepository.upsertAll(mirrored);
+                log.debug("Mirrored {} products ({} inserted, {} updated)", mirrored.size(), result.inserted(), result.updated());
+            }
+            List<Long> deleted = unlisted.stream()
+                    .filter(id -> !pendingChanges.contains(id) && !writtenSince(id, readNanos))
+                    .toList();
+            if (!deleted.isEmpty()) {
+                productRepository.deleteAllById(deleted);
+                log.debug("Deleted {} mirrored products no longer in the external catalog", deleted.size());
+            }
+            return new StoredPage(mirrored, deleted);
+        });
+        if (stockIndex != null) {
+            for (Product product : stored.mirrored()) {
+                if (!writtenSince(product.id(), readNanos)) {
+                    stockIndex.put(product.id(), product.stock());
+                }
+            }
+            stored.deleted().forEach(stockIndex::remove);
+        }
+        productInvalidationBroadcaster.publish(stored.deleted());
+        // Later pages are requested after this one, so older writes cannot affect them
+        stockWrittenNanos.values().removeIf(writtenNanos -> writtenNanos - readNanos < 0);
+    }
+    
+    /**
+     * Products of a catalog page written to the table, and mirrored products deleted because
+     * the page no longer lists them
+     */
+    private record StoredPage(List<Product> mirrored, List<Long> deleted) {
+    }
+    
+    private boolean writtenSince(Long productId, long sinceNanos) {
+        Long writtenNanos = stockWrittenNanos.get(productId);
+        return writtenNanos != null && writtenNanos - sinceNanos >= 0;
+    }
+    
+    /**
+     * Fills the stock index from the products table. Entries written concurrently by
+     * {@link #recordStock} are newer than the rows being read, so they are kept.
+     */
+    private void loadStockIndex() {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> stockIndex.putIfAbsent(product.id(), product.stock()));
+            }
+        });
+        stockIndexLoaded = true;
+        log.info("Loaded {} products into the mirror stock index ({} KiB)",
+                stockIndex.size(), stockIndex.footprintBytes() / 1024);
+    }
+    
+    private void completeSweep() {
+        lastCompletedSweepStartedNanos = sweepStartedNanos;
+        log.debug("Catalog mirror sweep completed in {} ms",
+                Duration.ofNanos(System.nanoTime() - sweepStartedNanos).toMillis());
+        sweepStartedNanos = NEVER;
+        sweepCursor = null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.Product;
+
+import java.util.List;
+
+/**
+ * One page of products read with keyset pagination.
+ * The next page is requested with {@code nextAfterId} as cursor,
+ * which is null once the last page has been read.
+ */
+public record ProductPage(
+    List<Product> products,
+    Long nextAfterId
+) {
+}
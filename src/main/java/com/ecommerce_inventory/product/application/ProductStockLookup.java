@@ -0,0 +1,33 @@
+package com.ecommerce_inventory.product.application;
+
+/**
+ * Result of looking up the stock of a single product as part of a batch.
+ * The stock is only present when the status is {@link Status#FOUND};
+ * it is stale when it is the last known good value served because
+ * the external service could not be reached.
+ */
+public record ProductStockLookup(
+    Long productId,
+    Status status,
+    Integer stock,
+    boolean stale
+) {
+    
+    /**
+     * Outcome of a single product lookup
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        TIMEOUT,
+        ERROR
+    }
+    
+    public static ProductStockLookup found(Long productId, Integer stock, boolean stale) {
+        return new ProductStockLookup(productId, Status.FOUND, stock, stale);
+    }
+    
+    public static ProductStockLookup of(Long productId, Status status) {
+        return new ProductStockLookup(productId, status, null, false);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce_inventory.product.application;
+
+import com.ecommerce_inventory.product.domain.InsufficientStockException;
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.journal.StockChangeJournal;
+import com.ecommerce_inventory.product.infrastructure.journal.StockJournalEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Use case for reserving stock of products persisted in the local database,
+ * typically the lines of an order at checkout.
+ * Each line is a conditional decrement executed by the database, so concurrent
+ * reservations never oversell and never need to lock or load the products.
+ * An order is reserved completely or not at all.
+ * Once the reservation commits, each reserved product goes through the same steps as
+ * the other local stock writes: its stock is updated in the catalog mirror's stock index,
+ * the change is appended to the {@link StockChangeJournal} and the products are announced
+ * to the other nodes. With the stock outbox enabled the decrements are also recorded in it,
+ * in the reservation transaction, so they reach the external service.
+ */
+@Service
+public class ReserveLocalStockUseCase {
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCatalogMirror productCatalogMirror;
+    private final StockChangeJournal stockChangeJournal;
+    private final ProductInvalidationBroadcaster productInvalidationBroadcaster;
+    private final Timer executeTimer;
+    
+    public ReserveLocalStockUseCase(ProductRepository productRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    ProductCatalogMirror productCatalogMirror,
+                                    StockChangeJournal stockChangeJournal,
+                                    ProductInvalidationBroadcaster productInvalidationBroadcaster,
+                                    MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.productCatalogMirror = productCatalogMirror;
+        this.stockChangeJournal = stockChangeJournal;
+        this.productInvalidationBroadcaster = productInvalidationBroadcaster;
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "reserve_local_stock", "execute");
+    }
+    
+    /**
+     * Executes the use case, decrementing the stock of every product by its quantity
+     * @param quantities the quantity to reserve for each product ID
+     * @throws IllegalArgumentException if there are no lines, or a product ID or quantity is invalid
+     * @throws InsufficientStockException if a product does not exist or does not have enough stock;
+     *         no stock is reserved in that case
+     */
+    public void execute(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one product must be reserved");
+        }
+        quantities.forEach((productId, quantity) -> {
+            if (productId == null || productId <= 0) {
+                throw new IllegalArgumentException("Product ID must be a positive number");
+            }
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be a positive number");
+            }
+        });
+        
+        long start = System.nanoTime();
+        try {
+            List<Product> reserved = transactionTemplate.execute(status -> reserve(quantities));
+            for (Product product : reserved) {
+                productCatalogMirror.indexStock(product.id(), product.stock());
+                stockChangeJournal.record(product.id(), product.stock() + quantities.get(product.id()),
+                        product.stock(), StockJournalEntry.Origin.RESERVE);
+            }
+            productInvalidationBroadcaster.publish(reserved.stream().map(Product::id).toList());
+        } finally {
+            executeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Decrements every line, failing on the first line that cannot be reserved so the
+     * surrounding transaction rolls back
+     * @return the reserved products with their new stock
+     */
+    private List<Product> reserve(Map<Long, Integer> quantities) {
+        if (quantities.size() == 1) {
+            Map.Entry<Long, Integer> line = quantities.entrySet().iterator().next();
+            return productRepository.decrementStockIfAvailable(line.getKey(), line.getValue())
+                    .map(List::of)
+                    .orElseThrow(() -> insufficientStock(line.getKey(), line.getValue()));
+        }
+        List<Product> reserved = productRepository.decrementStocksIfAvailable(quantities);
+        if (reserved.size() < quantities.size()) {
+            Long failed = quantities.keySet().stream()
+                    .filter(productId -> reserved.stream().noneMatch(product -> product.id().equals(productId)))
+                    .sorted()
+                    .findFirst()
+                    .orElseThrow();
+            throw insufficientStock(failed, quantities.get(failed));
+        }
+        return reserved;
+    }
+    
+    /**
+     * Builds the failure for a line, reading the current stock only on this slow path.
+     * Products that do not exist are reported with no available stock.
+     */
+    private InsufficientStockException insufficientStock(Long productId, int quantity) {
+        int available = productRepository.findStockById(productId).orElse(0);
+        return new InsufficientStockException(productId, available, -quantity);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce_inventory.product.application;
+
+/**
+ * One parsed line of a bulk stock update.
+ * A line that could not be parsed or failed validation carries the reason in {@code error}
+ * and is reported as invalid without being applied.
+ */
+public record StockUpdateLine(
+    long line,
+    Long productId,
+    Integer stock,
+    String error
+) {
+    
+    public static StockUpdateLine valid(long line, Long productId, Integer stock) {
+        return new StockUpdateLine(line, productId, stock, null);
+    }
+    
+    public static StockUpdateLine invalid(long line, Long productId, Integer stock, String error) {
+        return new StockUpdateLine(line, productId, stock, error);
+    }
+    
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -1,23 +1,94 @@
 package com.ecommerce_inventory.product.application;
 
+import com.ecommerce_inventory.product.domain.InsufficientStockException;
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.domain.ProductRepository;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
 import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
 import com.ecommerce_inventory.product.infrastructure.external.ExternalProductService;
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import com.ecommerce_inventory.product.infrastructure.external.ProductChangedException;
+import com.ecommerce_inventory.product.infrastructure.external.VersionedProduct;
+import com.ecommerce_inventory.product.infrastructure.journal.StockChangeJournal;
+import com.ecommerce_inventory.product.infrastructure.journal.StockJournalEntry;
+import com.ecommerce_inventory.shared.concurrent.StripedLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Use case for updating product stock in external microservice.
  * This class encapsulates the business logic for updating
  * product stock by communicating with an external product service.
+ * Updates for the same product are serialized on this node through striped locks,
+ * so relative changes (reserve, release, adjust) never lose concurrent updates
+ * while updates for different products proceed in parallel. Relative changes are computed from
+ * the cached product and sent as conditional updates, so no extra read is paid unless the
+ * product changed elsewhere (see {@link #adjust}).
+ * Accepted stock values are also written to the local catalog mirror when it is enabled.
+ * With the stock outbox enabled, stock is changed in the local products table instead,
+ * with a single conditional statement, and the change is recorded in the outbox in the
+ * same transaction; the request only waits for that local commit and the outbox relay
+ * delivers the change to the external service afterwards.
+ * Every accepted change is appended to the {@link StockChangeJournal} when it is enabled,
+ * and announced to the other nodes through the {@link ProductInvalidationBroadcaster}, so their
+ * cached copies of the product are dropped and reads on any node observe the write.
  */
 @Service
 public class UpdateProductStockUseCase {
     
+    private static final int MAX_CONDITIONAL_ATTEMPTS = 3;
+    
     private final ExternalProductService externalProductService;
+    private final ProductCatalogMirror productCatalogMirror;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HotProductTracker hotProductTracker;
+    private final StockChangeJournal stockChangeJournal;
+    private final ProductInvalidationBroadcaster productInvalidationBroadcaster;
+    private final boolean outboxEnabled;
+    private final StripedLocks stockLocks;
+    private final Timer executeTimer;
+    private final Timer executeAllTimer;
+    private final Timer reserveTimer;
+    private final Timer releaseTimer;
+    private final Timer adjustTimer;
     
-    public UpdateProductStockUseCase(ExternalProductService externalProductService) {
+    public UpdateProductStockUseCase(ExternalProductService externalProductService,
+                                     ProductCatalogMirror productCatalogMirror,
+                                     ProductRepository productRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     HotProductTracker hotProductTracker,
+                                     StockChangeJournal stockChangeJournal,
+                                     ProductInvalidationBroadcaster productInvalidationBroadcaster,
+                                     @Value("${external.product.outbox.enabled:false}") boolean outboxEnabled,
+                                     @Value("${product.stock.lock-stripes:1024}") int lockStripes,
+                                     MeterRegistry meterRegistry) {
         this.externalProductService = externalProductService;
+        this.productCatalogMirror = productCatalogMirror;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.hotProductTracker = hotProductTracker;
+        this.stockChangeJournal = stockChangeJournal;
+        this.productInvalidationBroadcaster = productInvalidationBroadcaster;
+        this.outboxEnabled = outboxEnabled;
+        this.stockLocks = new StripedLocks(lockStripes);
+        this.executeTimer = UseCaseTimers.timer(meterRegistry, "update_product_stock", "execute");
+        this.executeAllTimer = UseCaseTimers.timer(meterRegistry, "update_product_stock", "execute_all");
+        this.reserveTimer = UseCaseTimers.timer(meterRegistry, "update_product_stock", "reserve");
+        this.releaseTimer = UseCaseTimers.timer(meterRegistry, "update_product_stock", "release");
+        this.adjustTimer = UseCaseTimers.timer(meterRegistry, "update_product_stock", "adjust");
     }
     
     /**
@@ -28,14 +99,261 @@ public class UpdateProductStockUseCase {
      * @throws IllegalArgumentException if the ID is null or invalid, or if stock is negative
      */
     public Optional<ExternalProductDto> execute(Long productId, Integer newStock) {
-        if (productId == null || productId <= 0) {
-            throw new IllegalArgumentException("Product ID must be a positive number");
-        }
+        validateProductId(productId);
         
         if (newStock == null || newStock < 0) {
             throw new IllegalArgumentException("Stock must be a non-negative number");
         }
+        hotProductTracker.record(productId);
+        
+        if (outboxEnabled) {
+            return timed(executeTimer, () -> recordLocally(
+                    transactionTemplate.execute(status -> productRepository.updateStockAndRecordChange(productId, newStock)),
+                    StockChangeJournal.UNKNOWN_STOCK, StockJournalEntry.Origin.SET));
+        }
+        return timed(executeTimer, () -> withStockLock(productId,
+                () -> writeStock(productId, StockChangeJournal.UNKNOWN_STOCK, newStock, StockJournalEntry.Origin.SET)));
+    }
+    
+    /**
+     * Returns whether stock is written to the local products table and the outbox
+     * rather than to the external service during the call
+     */
+    public boolean writesLocally() {
+        return outboxEnabled;
+    }
+    
+    /**
+     * Sets the stock of several products in the local products table and records each
+     * change in the outbox, all in one transaction. Only available with the stock outbox enabled.
+     * @param stockByProduct the new stock of each product
+     * @return the updated product of each product ID, empty for the products that do not exist
+     * @throws IllegalArgumentException if an ID is invalid or a stock is negative
+     * @throws IllegalStateException if the stock outbox is disabled
+     */
+    public Map<Long, Optional<ExternalProductDto>> executeAll(Map<Long, Integer> stockByProduct) {
+        if (!outboxEnabled) {
+            throw new IllegalStateException("Batched stock updates require the stock outbox");
+        }
+        stockByProduct.forEach((productId, newStock) -> {
+            validateProductId(productId);
+            if (newStock == null || newStock < 0) {
+                throw new IllegalArgumentException("Stock must be a non-negative number");
+            }
+        });
+        
+        return timed(executeAllTimer, () -> {
+            Map<Long, Optional<Product>> updated = transactionTemplate.execute(status -> {
+                Map<Long, Optional<Product>> products = new LinkedHashMap<>();
+                stockByProduct.forEach((productId, newStock) ->
+                        products.put(productId, productRepository.updateStockAndRecordChange(productId, newStock)));
+                return products;
+            });
+            Map<Long, Optional<ExternalProductDto>> results = new LinkedHashMap<>();
+            List<Long> changed = new ArrayList<>(updated.size());
+            updated.forEach((productId, product) -> {
+                product.ifPresent(local -> {
+                    indexAndJournal(local, StockChangeJournal.UNKNOWN_STOCK, StockJournalEntry.Origin.BULK);
+                    changed.add(productId);
+                });
+                results.put(productId, product.map(UpdateProductStockUseCase::toExternalProduct));
+            });
+            productInvalidationBroadcaster.publish(changed);
+            return results;
+        });
+    }
+    
+    /**
+     * Reserves stock of a product, decrementing it by the given quantity
+     * @param productId the product ID
+     * @param quantity the quantity to reserve
+     * @return Optional containing the updated product if successful, empty otherwise
+     * @throws IllegalArgumentException if the ID is invalid or the quantity is not positive
+     * @throws InsufficientStockException if the product does not have enough stock
+     */
+    public Optional<ExternalProductDto> reserve(Long productId, Integer quantity) {
+        validateQuantity(quantity);
+        return timed(reserveTimer, () -> applyDelta(productId, -quantity, StockJournalEntry.Origin.RESERVE));
+    }
+    
+    /**
+     * Releases previously reserved stock of a product, incrementing it by the given quantity
+     * @param productId the product ID
+     * @param quantity the quantity to release
+     * @return Optional containing the updated product if successful, empty otherwise
+     * @throws IllegalArgumentException if the ID is invalid or the quantity is not positive
+     */
+    public Optional<ExternalProductDto> release(Long productId, Integer quantity) {
+        validateQuantity(quantity);
+        return timed(releaseTimer, () -> applyDelta(productId, quantity, StockJournalEntry.Origin.RELEASE));
+    }
+    
+    /**
+     * Adjusts the stock of a product by a relative amount.
+     * The new stock is computed from the cached product under the product's stock lock and sent
+     * with the product's entity tag in {@code If-Match}, so a change made by another node or directly
+     * upstream makes the update fail instead of being lost; the product is then read again from the
+     * external service and the change retried, up to {@value #MAX_CONDITIONAL_ATTEMPTS} attempts.
+     * @param productId the product ID
+     * @param delta the amount to add to the stock, negative to remove stock
+     * @return Optional containing the updated product if successful, empty otherwise
+     * @throws IllegalArgumentException if the ID is invalid or the delta is null
+     * @throws InsufficientStockException if the adjustment would make the stock negative
+     * @throws ProductChangedException if the product kept changing upstream on every attempt
+     */
+    public Optional<ExternalProductDto> adjust(Long productId, Integer delta) {
+        if (delta == null) {
+            throw new IllegalArgumentException("Stock delta cannot be null");
+        }
         
-        return externalProductService.updateProductStock(productId, newStock);
+        return timed(adjustTimer, () -> applyDelta(productId, delta, StockJournalEntry.Origin.ADJUST));
+    }
+    
+    private Optional<ExternalProductDto> applyDelta(Long productId, int delta, StockJournalEntry.Origin origin) {
+        validateProductId(productId);
+        hotProductTracker.record(productId);
+        
+        if (outboxEnabled) {
+            return applyDeltaLocally(productId, delta, origin);
+        }
+        return withStockLock(productId, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return applyDeltaIfUnchanged(productId, delta, origin, attempt > 1);
+                } catch (ProductChangedException e) {
+                    if (attempt == MAX_CONDITIONAL_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * Applies a relative change to the stock read for update, sending the new stock
+     * with the entity tag of the product it was computed from. A change that a cached
+     * stock cannot cover is checked again against the stock loaded from the external service.
+     * @param reload whether to load the product from the external service instead of the cache
+     * @throws ProductChangedException if the product changed since it was read
+     */
+    private Optional<ExternalProductDto> applyDeltaIfUnchanged(Long productId, int delta, StockJournalEntry.Origin origin,
+                                                               boolean reload) {
+        Optional<VersionedProduct> current = externalProductService.getProductForUpdate(productId, reload);
+        if (current.isEmpty() || current.get().product().stock() == null) {
+            return Optional.empty();
+        }
+        
+        int currentStock = current.get().product().stock();
+        long newStock = (long) currentStock + delta;
+        if (newStock < 0) {
+            if (!reload) {
+                return applyDeltaIfUnchanged(productId, delta, origin, true);
+            }
+            throw new InsufficientStockException(productId, currentStock, delta);
+        }
+        if (newStock > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Stock cannot exceed " + Integer.MAX_VALUE);
+        }
+        
+        Optional<ExternalProductDto> updated = externalProductService.updateProductStockIfMatch(
+                productId, (int) newStock, current.get().etag());
+        recordWrite(productId, currentStock, updated, origin);
+        return updated;
+    }
+    
+    private Optional<ExternalProductDto> writeStock(Long productId, int oldStock, int newStock,
+                                                    StockJournalEntry.Origin origin) {
+        Optional<ExternalProductDto> updated = externalProductService.updateProductStock(productId, newStock);
+        recordWrite(productId, oldStock, updated, origin);
+        return updated;
+    }
+    
+    private void recordWrite(Long productId, int oldStock, Optional<ExternalProductDto> updated,
+                             StockJournalEntry.Origin origin) {
+        updated.ifPresent(product -> {
+            productCatalogMirror.recordStock(productId, product.stock());
+            if (product.stock() != null) {
+                stockChangeJournal.record(productId, oldStock, product.stock(), origin);
+            }
+            productInvalidationBroadcaster.publish(List.of(productId));
+        });
+    }
+    
+    /**
+     * Applies a relative change to the local stock and records it in the outbox.
+     * Concurrent changes are serialized by the database row lock, so no node-local lock is needed.
+     */
+    private Optional<ExternalProductDto> applyDeltaLocally(Long productId, int delta, StockJournalEntry.Origin origin) {
+        Optional<Product> updated = transactionTemplate.execute(status -> {
+            Optional<Product> adjusted = productRepository.adjustStockAndRecordChange(productId, delta);
+            if (adjusted.isPresent()) {
+                return adjusted;
+            }
+            Optional<Integer> currentStock = productRepository.findStockById(productId);
+            if (currentStock.isEmpty()) {
+                return Optional.<Product>empty();
+            }
+            if (delta < 0) {
+                throw new InsufficientStockException(productId, currentStock.get(), delta);
+            }
+            throw new IllegalArgumentException("Stock cannot exceed " + Integer.MAX_VALUE);
+        });
+        return recordLocally(updated, updated.map(product -> product.stock() - delta).orElse(StockChangeJournal.UNKNOWN_STOCK),
+                origin);
+    }
+    
+    /**
+     * Indexes the stock of a product updated in the local products table, journals the change
+     * and announces it to the other nodes
+     * @param oldStock the stock before the change, or {@link StockChangeJournal#UNKNOWN_STOCK}
+     */
+    private Optional<ExternalProductDto> recordLocally(Optional<Product> updated, int oldStock,
+                                                       StockJournalEntry.Origin origin) {
+        updated.ifPresent(product -> {
+            indexAndJournal(product, oldStock, origin);
+            productInvalidationBroadcaster.publish(List.of(product.id()));
+        });
+        return updated.map(UpdateProductStockUseCase::toExternalProduct);
+    }
+    
+    private void indexAndJournal(Product product, int oldStock, StockJournalEntry.Origin origin) {
+        productCatalogMirror.indexStock(product.id(), product.stock());
+        stockChangeJournal.record(product.id(), oldStock, product.stock(), origin);
+    }
+    
+    private static ExternalProductDto toExternalProduct(Product product) {
+        return new ExternalProductDto(product.id(), product.name(), product.description(), product.price(),
+                product.stock(), product.category(), product.isAvailable());
+    }
+    
+    private <T> T timed(Timer timer, Supplier<T> operation) {
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private <T> T withStockLock(Long productId, Supplier<T> update) {
+        ReentrantLock lock = stockLocks.lockFor(productId);
+        lock.lock();
+        try {
+            return update.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void validateProductId(Long productId) {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Product ID must be a positive number");
+        }
+    }
+    
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive number");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.ecommerce_inventory.product.application;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Factory for the timers recording use case execution latency.
+ */
+final class UseCaseTimers {
+    
+    private UseCaseTimers() {
+    }
+    
+    /**
+     * Registers the timer for one operation of a use case
+     * @param meterRegistry the registry to register the timer in
+     * @param useCase the use case name
+     * @param operation the operation name
+     * @return the registered timer
+     */
+    static Timer timer(MeterRegistry meterRegistry, String useCase, String operation) {
+        return Timer.builder("product.usecase.execution")
+                .description("Execution time of product use cases")
+                .tags("usecase", useCase, "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
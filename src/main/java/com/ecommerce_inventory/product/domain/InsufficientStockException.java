@@ -0,0 +1,25 @@
+package com.ecommerce_inventory.product.domain;
+
+/**
+ * Thrown when a stock change would leave a product with negative stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+    
+    private final Long productId;
+    private final int availableStock;
+    private final int requestedChange;
+    
+    public InsufficientStockException(Long productId, int availableStock, int requestedChange) {
+        super("Insufficient stock for product " + productId + ": available " + availableStock
+                + ", requested change " + requestedChange);
+        this.productId = productId;
+        this.availableStock = availableStock;
+        this.requestedChange = requestedChange;
+    }
+    
+    public Long getProductId() { return productId; }
+    
+    public int getAvailableStock() { return availableStock; }
+    
+    public int getRequestedChange() { return requestedChange; }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce_inventory.product.domain;
+
+/**
+ * A stock update acknowledged by the write-behind queue and not yet accepted by the external service.
+ * The stock is absolute; the token identifies this value, so a newer value queued for the same
+ * product is never removed by the delivery of an older one.
+ */
+public record PendingStockUpdate(
+    Long productId,
+    int stock,
+    String token
+) {
+}
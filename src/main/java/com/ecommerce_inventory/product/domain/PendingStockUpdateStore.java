@@ -0,0 +1,47 @@
+package com.ecommerce_inventory.product.domain;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable store of the stock updates queued by the write-behind queue, one per product.
+ * An update is saved before it is acknowledged and removed once the external service accepts it,
+ * so acknowledged updates survive a crash. Each update is owned by the node that queued it;
+ * updates left behind by a node that stopped are adopted by another node.
+ */
+public interface PendingStockUpdateStore {
+    
+    /**
+     * Saves the pending update of a product, replacing the one already pending
+     * @param productId the product ID
+     * @param stock the new stock amount
+     * @param token the token identifying this value
+     * @param nodeId the node that queued the update
+     */
+    void save(Long productId, int stock, String token, String nodeId);
+    
+    /**
+     * Removes the pending update of a product, unless a newer value replaced it
+     * @param productId the product ID
+     * @param token the token of the delivered value
+     */
+    void remove(Long productId, String token);
+    
+    /**
+     * Marks a pending update as still owned, after a failed delivery attempt
+     * @param productId the product ID
+     * @param token the token of the value being retried
+     */
+    void touch(Long productId, String token);
+    
+    /**
+     * Takes ownership of the pending updates not touched since a time and, optionally,
+     * of the updates already owned by this node (left by its previous run)
+     * @param nodeId the node taking ownership
+     * @param includeOwned whether to also return the updates owned by this node
+     * @param untouchedSince the time before which updates are considered abandoned
+     * @param limit the maximum number of updates to take
+     * @return the adopted updates
+     */
+    List<PendingStockUpdate> adopt(String nodeId, boolean includeOwned, Instant untouchedSince, int limit);
+}
@@ -1,7 +1,10 @@
 package com.ecommerce_inventory.product.domain;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository port for Product domain entity.
@@ -23,6 +26,13 @@ public interface ProductRepository {
      */
     Optional<Product> findById(Long id);
     
+    /**
+     * Reads only the stock of a product, without loading the rest of its data
+     * @param id the product ID
+     * @return Optional containing the stock if the product exists, empty otherwise
+     */
+    Optional<Integer> findStockById(Long id);
+    
     /**
      * Finds products by category
      * @param category the product category
@@ -30,6 +40,59 @@ public interface ProductRepository {
      */
     List<Product> findByCategory(String category);
     
+    /**
+     * Finds the next page of products ordered by ID using keyset pagination
+     * @param afterId the last product ID of the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return Products with an ID greater than afterId, in ascending ID order
+     */
+    List<Product> findAllAfter(Long afterId, int limit);
+    
+    /**
+     * Finds the next page of products in a category ordered by ID using keyset pagination
+     * @param category the product category
+     * @param afterId the last product ID of the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return Products in the category with an ID greater than afterId, in ascending ID order
+     */
+    List<Product> findByCategoryAfter(String category, Long afterId, int limit);
+    
+    /**
+     * Finds the IDs of the products in an ID range, without loading the products
+     * @param afterId the exclusive lower bound, or null for no lower bound
+     * @param upToId the inclusive upper bound, or null for no upper bound
+     * @return the IDs in the range, in ascending order
+     */
+    List<Long> findIdsInRange(Long afterId, Long upToId);
+    
+    /**
+     * Counts all products
+     * @return the number of products
+     */
+    long count();
+    
+    /**
+     * Counts the products in a category
+     * @param category the product category
+     * @return the number of products in the specified category
+     */
+    long countByCategory(String category);
+    
+    /**
+     * Streams all products ordered by ID without loading them all into memory.
+     * The stream must be consumed inside a transaction and closed after use.
+     * @return Stream of all products
+     */
+    Stream<Product> streamAll();
+    
+    /**
+     * Streams the products of a category ordered by ID without loading them all into memory.
+     * The stream must be consumed inside a transaction and closed after use.
+     * @param category the product category
+     * @return Stream of products in the specified category
+     */
+    Stream<Product> streamByCategory(String category);
+    
     /**
      * Saves a product
      * @param product the product to save
@@ -37,12 +100,82 @@ public interface ProductRepository {
      */
     Product save(Product product);
     
+    /**
+     * Inserts or updates a batch of products in a single unit of work.
+     * Products without ID, or with an ID that is not stored yet, are inserted;
+     * the others are updated. Must be called inside a transaction.
+     * @param products the products to store
+     * @return the number of inserted and updated products
+     */
+    ProductUpsertResult upsertAll(List<Product> products);
+    
+    /**
+     * Sets the stock of a product without loading it. Must be called inside a transaction.
+     * With the stock outbox enabled the change is appended to the {@link StockChangeOutbox}
+     * in the same transaction.
+     * @param id the product ID
+     * @param stock the new stock amount
+     * @return true if the product exists and was updated, false otherwise
+     */
+    boolean updateStock(Long id, int stock);
+    
+    /**
+     * Sets the stock of a product and appends the change to the {@link StockChangeOutbox}
+     * in the same transaction. Must be called inside a transaction.
+     * @param id the product ID
+     * @param stock the new stock amount
+     * @return the product with its new stock, empty if it does not exist
+     */
+    Optional<Product> updateStockAndRecordChange(Long id, int stock);
+    
+    /**
+     * Adds a delta to the stock of a product in a single conditional statement, only if the
+     * resulting stock is not negative, and appends the change to the {@link StockChangeOutbox}
+     * in the same transaction. Must be called inside a transaction.
+     * @param id the product ID
+     * @param delta the amount to add to the stock, negative to remove stock
+     * @return the product with its new stock, empty if it does not exist or does not have enough stock
+     */
+    Optional<Product> adjustStockAndRecordChange(Long id, int delta);
+    
+    /**
+     * Decrements the stock of a product in a single conditional statement, only if
+     * the product has at least the requested quantity, without loading it.
+     * With the stock outbox enabled the change is appended to the {@link StockChangeOutbox}
+     * in the same transaction. Must be called inside a transaction.
+     * @param id the product ID
+     * @param quantity the quantity to remove from the stock
+     * @return the product with its new stock, empty if the product does not exist
+     *         or does not have enough stock
+     */
+    Optional<Product> decrementStockIfAvailable(Long id, int quantity);
+    
+    /**
+     * Decrements the stock of several products, e.g. the lines of an order, applying all
+     * conditional decrements in one statement. Lines that cannot be applied are left out
+     * of the result and the others are applied, so callers needing all-or-nothing semantics
+     * must roll back the surrounding transaction when a product is missing from the result.
+     * With the stock outbox enabled one change per decremented product is appended to the
+     * {@link StockChangeOutbox} in the same transaction.
+     * @param quantities the quantity to remove from the stock of each product ID
+     * @return the decremented products with their new stock, ordered by ID; products that do not
+     *         exist or do not have enough stock are missing
+     */
+    List<Product> decrementStocksIfAvailable(Map<Long, Integer> quantities);
+    
     /**
      * Deletes a product by its ID
      * @param id the product ID to delete
      */
     void deleteById(Long id);
     
+    /**
+     * Deletes several products in a single statement, without loading them.
+     * Must be called inside a transaction.
+     * @param ids the IDs of the products to delete
+     */
+    void deleteAllById(Collection<Long> ids);
+    
     /**
      * Checks if a product exists by ID
      * @param id the product ID
@@ -0,0 +1,10 @@
+package com.ecommerce_inventory.product.domain;
+
+/**
+ * Outcome of storing a batch of products with {@link ProductRepository#upsertAll}.
+ */
+public record ProductUpsertResult(
+    int inserted,
+    int updated
+) {
+}
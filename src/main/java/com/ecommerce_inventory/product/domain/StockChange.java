@@ -0,0 +1,19 @@
+package com.ecommerce_inventory.product.domain;
+
+import java.time.Instant;
+
+/**
+ * A committed stock change waiting in the stock outbox to be delivered to the external service.
+ * The stock is absolute, so a change supersedes every older change of the same product;
+ * the product version orders changes of the same product.
+ */
+public record StockChange(
+    Long id,
+    Long productId,
+    int stock,
+    long productVersion,
+    String idempotencyKey,
+    int attempts,
+    Instant createdAt
+) {
+}
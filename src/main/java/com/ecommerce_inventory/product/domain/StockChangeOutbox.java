@@ -0,0 +1,71 @@
+package com.ecommerce_inventory.product.domain;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Outbox port for stock changes that must reach the external product service.
+ * Changes are appended in the same transaction as the local stock change, so a
+ * committed change is never lost, and a relay delivers them after the commit.
+ */
+public interface StockChangeOutbox {
+    
+    /**
+     * Appends a stock change. Must be called inside the transaction that changed the stock.
+     * @param productId the product ID
+     * @param stock the new stock amount
+     * @param productVersion the version of the product after the change
+     */
+    void append(Long productId, int stock, long productVersion);
+    
+    /**
+     * Claims the changes that are due for delivery, oldest first, and leases them until the
+     * given time. Must be called inside a short transaction, committed before the changes
+     * are delivered; while it is open no other transaction can claim changes. Products with
+     * a change still leased or waiting for a retry are skipped, so changes are delivered in order.
+     * A leased change that is neither removed nor rescheduled, for example after a crash,
+     * becomes due again when the lease ends.
+     * @param now the current time
+     * @param leaseUntil the end of the lease
+     * @param limit the maximum number of changes to claim
+     * @return the due changes ordered by ID, empty if there are none or another claim is held
+     */
+    List<StockChange> claimDue(Instant now, Instant leaseUntil, int limit);
+    
+    /**
+     * Removes the changes of a product up to a version, once delivered or superseded
+     * @param productId the product ID
+     * @param productVersion the highest product version to remove
+     */
+    void removeUpToVersion(Long productId, long productVersion);
+    
+    /**
+     * Schedules another delivery attempt for a change
+     * @param id the change ID
+     * @param attempts the number of failed attempts so far
+     * @param notBefore the earliest time of the next attempt
+     */
+    void retryLater(Long id, int attempts, Instant notBefore);
+    
+    /**
+     * Returns which of the given products have changes waiting to be delivered
+     * @param productIds the product IDs to check
+     * @return the IDs of the products with pending changes
+     */
+    Set<Long> productsWithPendingChanges(Collection<Long> productIds);
+    
+    /**
+     * Counts the changes waiting to be delivered
+     * @return the number of pending changes
+     */
+    long countPending();
+    
+    /**
+     * Returns when the oldest pending change was appended
+     * @return the creation time of the oldest pending change, empty if there are none
+     */
+    Optional<Instant> oldestPendingCreatedAt();
+}
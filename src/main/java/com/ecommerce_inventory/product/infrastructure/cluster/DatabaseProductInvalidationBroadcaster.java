@@ -0,0 +1,306 @@
+package com.ecommerce_inventory.product.infrastructure.cluster;
+
+import com.ecommerce_inventory.product.infrastructure.persistence.JpaProductInvalidationRepository;
+import com.ecommerce_inventory.product.infrastructure.persistence.ProductInvalidationEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ProductInvalidationBroadcaster} backed by the {@code product_invalidation} table of the
+ * shared datasource, so no infrastructure beyond the database is needed to scale out.
+ * Publishing inserts one row per product, tagged with the ID of this node. A background
+ * poller reads the rows above the last version it saw ({@code WHERE version > ?}, an index
+ * range scan on the primary key) and passes the products changed by other nodes to the listeners.
+ * <p>
+ * Versions are assigned at insert time but become visible at commit time, so a row can appear
+ * after rows with higher versions. The poller therefore only advances its cursor over contiguous
+ * versions: rows above a gap are delivered right away and remembered, and the gap is waited for
+ * until it fills or the gap timeout expires (a rolled-back insert leaves a gap that never fills).
+ * A change thus reaches every node within the poll interval, plus the gap timeout in the rare case
+ * that a batch of rows is stuck behind a gap.
+ * <p>
+ * Rows older than the retention are deleted by every node. A node that could not read the table
+ * for longer than the retention may have missed changes, and tells the listeners to drop everything.
+ */
+public class DatabaseProductInvalidationBroadcaster implements ProductInvalidationBroadcaster, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseProductInvalidationBroadcaster.class);
+
+    private static final String INSERT_SQL =
+            "insert into product_invalidation (product_id, node_id, created_at) values (?, ?, ?)";
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long NO_GAP = Long.MIN_VALUE;
+    private static final long UNKNOWN_VERSION = -1L;
+
+    private final JpaProductInvalidationRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+    private final Timer lagTimer;
+    private final List<ProductInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder gapsSkipped = new LongAdder();
+    private final LongAdder pollFailures = new LongAdder();
+
+    // Poller state, only touched by the scheduler thread
+    private final NavigableSet<Long> seenAhead = new TreeSet<>();
+    private long cursor = UNKNOWN_VERSION;
+    private long gapSinceNanos = NO_GAP;
+    private long lastPollNanos;
+    private long lastPurgeNanos;
+    private volatile long lastVersion = UNKNOWN_VERSION;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public DatabaseProductInvalidationBroadcaster(JpaProductInvalidationRepository repository,
+                                                  JdbcTemplate jdbcTemplate,
+                                                  TransactionTemplate transactionTemplate,
+                                                  boolean enabled,
+                                                  String nodeId,
+                                                  Duration pollInterval,
+                                                  int batchSize,
+                                                  Duration gapTimeout,
+                                                  Duration retention,
+                                                  MeterRegistry meterRegistry) {
+        if (batchSize <= 0 || !pollInterval.isPositive() || gapTimeout.isNegative() || !retention.isPositive()) {
+            throw new IllegalArgumentException(
+                    "Invalidation batch size, poll interval and retention must be positive and gap timeout not negative");
+        }
+        if (nodeId != null && nodeId.length() > 36) {
+            throw new IllegalArgumentException("Invalidation node ID cannot be longer than 36 characters");
+        }
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.retention = retention;
+        this.lagTimer = Timer.builder("product.cache.invalidation.lag")
+                .description("Time from the publication of a product change to its delivery to another node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the ID this node tags its changes with
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, productIds, productIds.size(), (statement, productId) -> {
+                statement.setLong(1, productId);
+                statement.setString(2, nodeId);
+                statement.setTimestamp(3, now);
+            });
+            published.add(productIds.size());
+        } catch (DataAccessException e) {
+            publishFailures.add(productIds.size());
+            log.warn("Could not publish the invalidation of {} products: {}", productIds.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(ProductInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns a snapshot of the broadcaster counters
+     */
+    public InvalidationStats stats() {
+        return new InvalidationStats(published.sum(), publishFailures.sum(), received.sum(), gapsSkipped.sum(),
+                pollFailures.sum(), lastVersion);
+    }
+
+    /**
+     * Snapshot of product invalidation counters.
+     * @param lastVersion the highest version read contiguously, -1 before the first successful poll
+     */
+    public record InvalidationStats(long published, long publishFailures, long received, long gapsSkipped,
+                                    long pollFailures, long lastVersion) {
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        lastPollNanos = System.nanoTime();
+        lastPurgeNanos = lastPollNanos;
+        long intervalNanos = pollInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0L, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Product invalidation channel started for node {}", nodeId);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after the persistence layer is ready and stops after the embedded web server
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void pollSafely() {
+        try {
+            long now = System.nanoTime();
+            if (cursor == UNKNOWN_VERSION) {
+                // Nothing is cached yet on a starting node, so earlier changes are irrelevant
+                cursor = repository.findMaxVersion().orElse(0L);
+            } else if (now - lastPollNanos > retention.toNanos()) {
+                log.warn("Product invalidations not read for longer than the retention; dropping all cached products");
+                seenAhead.clear();
+                gapSinceNanos = NO_GAP;
+                cursor = repository.findMaxVersion().orElse(0L);
+                listeners.forEach(ProductInvalidationListener::allProductsChanged);
+            } else {
+                int read;
+                do {
+                    read = poll(now);
+                } while (running && read == batchSize && seenAhead.isEmpty());
+            }
+            lastVersion = cursor;
+            lastPollNanos = now;
+            if (now - lastPurgeNanos >= PURGE_INTERVAL_NANOS) {
+                lastPurgeNanos = now;
+                purge();
+            }
+        } catch (RuntimeException e) {
+            pollFailures.increment();
+            log.warn("Could not read product invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads one batch of invalidations above the cursor and delivers the ones not seen before
+     * @return the number of rows read
+     */
+    private int poll(long now) {
+        List<ProductInvalidationEntity> rows =
+                repository.findByVersionGreaterThanOrderByVersionAsc(cursor, Limit.of(batchSize));
+        Set<Long> changed = new HashSet<>();
+        Instant receivedAt = Instant.now();
+        for (ProductInvalidationEntity row : rows) {
+            if (!seenAhead.add(row.getVersion()) || nodeId.equals(row.getNodeId())) {
+                continue;
+            }
+            changed.add(row.getProductId());
+            lagTimer.record(Duration.between(row.getCreatedAt(), receivedAt));
+        }
+        advanceCursor(now);
+        if (!changed.isEmpty()) {
+            received.add(changed.size());
+            for (ProductInvalidationListener listener : listeners) {
+                try {
+                    listener.productsChanged(changed);
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error applying the invalidation of {} products", changed.size(), e);
+                }
+            }
+        }
+        return rows.size();
+    }
+
+    /**
+     * Moves the cursor over the contiguous versions seen, and over a gap that outlived the gap timeout
+     */
+    private void advanceCursor(long now) {
+        while (!seenAhead.isEmpty()) {
+            long first = seenAhead.first();
+            if (first == cursor + 1) {
+                cursor = seenAhead.pollFirst();
+                gapSinceNanos = NO_GAP;
+            } else if (gapSinceNanos == NO_GAP) {
+                gapSinceNanos = now;
+                return;
+            } else if (now - gapSinceNanos >= gapTimeoutNanos) {
+                gapsSkipped.increment();
+                cursor = first - 1;
+                gapSinceNanos = NO_GAP;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteCreatedBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Deleted {} product invalidations older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce_inventory.product.infrastructure.cluster;
+
+import java.util.Collection;
+
+/**
+ * Channel announcing product changes to the other nodes of the cluster, so each node
+ * drops only the affected products from its local caches.
+ * The default implementation is {@link DatabaseProductInvalidationBroadcaster}; declaring
+ * another bean of this type (for example one backed by a message broker) replaces it.
+ */
+public interface ProductInvalidationBroadcaster {
+
+    /**
+     * Announces that products changed on this node. Called after the change is committed;
+     * a failure to publish is logged and counted rather than thrown, since the change
+     * itself already succeeded and cached copies on other nodes still expire with their TTL.
+     * @param productIds the IDs of the changed products
+     */
+    void publish(Collection<Long> productIds);
+
+    /**
+     * Registers a listener for the changes announced by the other nodes.
+     * Changes published by this node are not delivered back to it.
+     * @param listener the listener to register
+     */
+    void subscribe(ProductInvalidationListener listener);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce_inventory.product.infrastructure.cluster;
+
+import java.util.Set;
+
+/**
+ * Receives the product changes announced by other nodes through a {@link ProductInvalidationBroadcaster}.
+ * Calls come from the broadcaster's own thread, one at a time.
+ */
+public interface ProductInvalidationListener {
+
+    /**
+     * Receives the products changed on other nodes
+     * @param productIds the IDs of the changed products
+     */
+    void productsChanged(Set<Long> productIds);
+
+    /**
+     * Called when changes may have been missed, for example after the node could not
+     * read the channel for longer than its retention; every cached product must be dropped
+     */
+    void allProductsChanged();
+}
@@ -0,0 +1,360 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process read-through cache for products returned by the external microservice.
+ * Entries expire after a configurable TTL and the cache is bounded by a maximum
+ * number of entries, evicting the least recently used products first. Pinned products
+ * (see {@link #pinWhile}) are skipped by eviction; they only leave the cache once unpinned.
+ * A segment whose entries are all pinned may exceed its share of the maximum size.
+ * The key space is split into independently locked segments so that
+ * lookups for different products do not contend on a single lock.
+ * Expired entries are kept until evicted or replaced so they can still be
+ * served as stale data while the external service is unavailable, and so that
+ * their entity tag can be used to revalidate them with a conditional request.
+ */
+@Component
+public class ExternalProductCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile LongPredicate pinned = productId -> false;
+
+    public ExternalProductCache(@Value("${external.product.cache.enabled:true}") boolean enabled,
+                                @Value("${external.product.cache.ttl:5s}") Duration ttl,
+                                @Value("${external.product.cache.max-size:10000}") int maxSize) {
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("Cache TTL cannot be negative");
+        }
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache max size cannot be negative");
+        }
+        this.enabled = enabled && maxSize > 0 && !ttl.isZero();
+        this.ttlNanos = ttl.toNanos();
+        this.segments = new Segment[SEGMENT_COUNT];
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Sets which products are pinned, i.e. never evicted to make room for other products.
+     * The condition is checked on eviction, under the segment lock, so it must be cheap.
+     * @param pinned the condition a product ID must meet to be pinned
+     */
+    public void pinWhile(LongPredicate pinned) {
+        this.pinned = pinned;
+    }
+
+    /**
+     * Returns the cached product if present and not expired
+     * @param productId the product ID
+     * @return the cached product, or null if absent or expired
+     */
+    public ExternalProductDto get(Long productId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = segmentFor(productId).get(productId);
+        ExternalProductDto product = entry != null && !entry.isExpired(System.nanoTime()) ? entry.product() : null;
+        if (product != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return product;
+    }
+
+    /**
+     * Returns the cached product if present and not expired, together with its entity tag,
+     * both read from the same entry
+     * @param productId the product ID
+     * @return the cached product and its entity tag, or null if absent or expired
+     */
+    public VersionedProduct getVersioned(Long productId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = segmentFor(productId).get(productId);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new VersionedProduct(entry.product(), entry.etag());
+    }
+
+    /**
+     * Returns the cached product even if expired, as long as it is younger than the given age.
+     * Used as a fallback when the external service cannot be reached.
+     * @param productId the product ID
+     * @param maxAge the maximum age of the cached product
+     * @return the cached product, or null if absent or older than the given age
+     */
+    public ExternalProductDto getStale(Long productId, Duration maxAge) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = segmentFor(productId).get(productId);
+        return entry != null && System.nanoTime() - entry.loadedAtNanos() < maxAge.toNanos() ? entry.product() : null;
+    }
+
+    /**
+     * Returns the entity tag the external service sent with the cached product, even if expired
+     * @param productId the product ID
+     * @return the entity tag, or null if the product is not cached or was sent without one
+     */
+    public String etag(Long productId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = segmentFor(productId).get(productId);
+        return entry != null ? entry.etag() : null;
+    }
+
+    /**
+     * Captures the write stamp of the segment holding the product.
+     * A value loaded after taking the stamp is only cached if no write
+     * for the same segment happened in between (see {@link #putIfUnchanged}).
+     * @param productId the product ID
+     * @return the current write stamp
+     */
+    public long stamp(Long productId) {
+        return enabled ? segmentFor(productId).stamp() : 0L;
+    }
+
+    /**
+     * Caches a product loaded by a read, unless it was invalidated while loading
+     * @param productId the product ID
+     * @param product the loaded product
+     * @param etag the entity tag sent with the product, or null if none
+     * @param stamp the stamp taken before the load started
+     */
+    public void putIfUnchanged(Long productId, ExternalProductDto product, String etag, long stamp) {
+        if (enabled && product != null) {
+            segmentFor(productId).putIfUnchanged(productId, product, etag, stamp, System.nanoTime());
+        }
+    }
+
+    /**
+     * Renews the cached product after the external service confirmed it is unchanged
+     * ({@code 304 Not Modified}), unless it was replaced or invalidated while revalidating
+     * @param productId the product ID
+     * @param etag the entity tag that was sent in {@code If-None-Match}
+     * @param stamp the stamp taken before the revalidation started
+     * @return the renewed product, or null if the cached copy changed and must be loaded again
+     */
+    public ExternalProductDto revalidate(Long productId, String etag, long stamp) {
+        return enabled ? segmentFor(productId).revalidate(productId, etag, stamp, System.nanoTime()) : null;
+    }
+
+    /**
+     * Refreshes the cached product after a successful write from this node
+     * @param productId the product ID
+     * @param product the product as returned by the write
+     * @param etag the entity tag sent with the product, or null if none
+     */
+    public void refresh(Long productId, ExternalProductDto product, String etag) {
+        if (!enabled) {
+            return;
+        }
+        if (product == null) {
+            invalidate(productId);
+        } else {
+            segmentFor(productId).refresh(productId, product, etag, System.nanoTime());
+        }
+    }
+
+    /**
+     * Removes a product from the cache
+     * @param productId the product ID
+     */
+    public void invalidate(Long productId) {
+        if (enabled) {
+            segmentFor(productId).invalidate(productId);
+        }
+    }
+
+    /**
+     * Removes every product from the cache
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters
+     * @return the current cache statistics
+     */
+    public CacheStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private Segment segmentFor(Long productId) {
+        int hash = productId.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Snapshot of cache counters.
+     */
+    public record CacheStats(long hits, long misses, long evictions, long size) {
+
+        /**
+         * Ratio of lookups served from the cache
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private record Entry(ExternalProductDto product, String etag, long loadedAtNanos, long expiresAtNanos) {
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Access-ordered LRU map guarded by its own lock.
+     */
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries;
+        private long stamp;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    LongPredicate isPinned = pinned;
+                    Iterator<Long> keys = keySet().iterator();
+                    while (keys.hasNext()) {
+                        if (!isPinned.test(keys.next())) {
+                            keys.remove();
+                            evictions.increment();
+                            return false;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private Entry get(Long productId) {
+            lock.lock();
+            try {
+                return entries.get(productId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long stamp() {
+            lock.lock();
+            try {
+                return stamp;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void putIfUnchanged(Long productId, ExternalProductDto product, String etag, long expectedStamp, long now) {
+            lock.lock();
+            try {
+                if (stamp == expectedStamp) {
+                    entries.put(productId, new Entry(product, etag, now, now + ttlNanos));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private ExternalProductDto revalidate(Long productId, String etag, long expectedStamp, long now) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(productId);
+                if (stamp != expectedStamp || entry == null || !etag.equals(entry.etag())) {
+                    return null;
+                }
+                entries.put(productId, new Entry(entry.product(), etag, now, now + ttlNanos));
+                return entry.product();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refresh(Long productId, ExternalProductDto product, String etag, long now) {
+            lock.lock();
+            try {
+                stamp++;
+                entries.put(productId, new Entry(product, etag, now, now + ttlNanos));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void invalidate(Long productId) {
+            lock.lock();
+            try {
+                stamp++;
+                entries.remove(productId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                stamp++;
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -14,4 +14,13 @@ public record ExternalProductDto(
     String category,
     boolean available
 ) {
+    
+    /**
+     * Returns a copy of this product with a different stock amount
+     * @param newStock the stock amount of the copy
+     * @return ExternalProductDto with the stock and availability replaced
+     */
+    public ExternalProductDto withStock(Integer newStock) {
+        return new ExternalProductDto(id, name, description, price, newStock, category, newStock != null && newStock > 0);
+    }
 }
\ No newline at end of file
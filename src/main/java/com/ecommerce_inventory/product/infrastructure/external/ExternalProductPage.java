@@ -0,0 +1,14 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the external product catalog.
+ * The next page is requested with {@code nextAfterId} as cursor;
+ * it is null on the last page.
+ */
+public record ExternalProductPage(
+    List<ExternalProductDto> products,
+    Long nextAfterId
+) {
+}
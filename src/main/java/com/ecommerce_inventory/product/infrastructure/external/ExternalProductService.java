@@ -1,80 +1,375 @@
 package com.ecommerce_inventory.product.infrastructure.external;
 
+import com.ecommerce_inventory.shared.concurrent.SingleFlight;
+import com.ecommerce_inventory.shared.resilience.Bulkhead;
+import com.ecommerce_inventory.shared.resilience.CircuitBreaker;
+import com.ecommerce_inventory.shared.resilience.Hedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Service for communicating with external product microservice.
  * This service handles HTTP requests to retrieve product information
  * from another microservice.
+ * When write-behind is enabled, stock updates are queued and coalesced locally
+ * and reads reflect the queued values until they are flushed.
+ * Every upstream call goes through a circuit breaker and a bulkhead, so a slow
+ * or failing upstream is detected quickly and cannot exhaust request threads.
+ * Expired cached products are revalidated with {@code If-None-Match}, so a product
+ * that did not change costs a header-only {@code 304 Not Modified} exchange.
+ * Read-modify-write stock updates send the entity tag of the product they read in {@code If-Match},
+ * so they are rejected rather than overwrite a change made elsewhere.
+ * With hot key pinning enabled hot products are never evicted from the cache (see {@link HotProductTracker}).
+ * With hedging enabled, product lookups slower than the recent p95 are sent a second time
+ * and the first answer wins, within a timeout that follows the observed latency (see {@link Hedger}).
  */
 @Service
 public class ExternalProductService {
     
+    private static final Logger log = LoggerFactory.getLogger(ExternalProductService.class);
+    
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final ExternalProductCache productCache;
+    private final StockWriteBehindQueue stockWriteBehindQueue;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Hedger hedger;
+    private final boolean hedgingEnabled;
+    private final ProductServiceMetrics metrics;
+    private final Duration maxStaleAge;
+    private final SingleFlight<Long, Optional<ExternalProductDto>> productLookups = new SingleFlight<>();
     
     public ExternalProductService(RestTemplate restTemplate, 
-                                @Value("${external.product.service.url:http://localhost:8088}") String baseUrl) {
+                                @Value("${external.product.service.url:http://localhost:8088}") String baseUrl,
+                                ExternalProductCache productCache,
+                                HotProductTracker hotProductTracker,
+                                StockWriteBehindQueue stockWriteBehindQueue,
+                                CircuitBreaker productServiceCircuitBreaker,
+                                Bulkhead productServiceBulkhead,
+                                Hedger productServiceHedger,
+                                @Value("${external.product.hedging.enabled:false}") boolean hedgingEnabled,
+                                ProductServiceMetrics metrics,
+                                @Value("${external.product.resilience.max-stale-age:10m}") Duration maxStaleAge) {
         this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
+        this.productCache = productCache;
+        this.stockWriteBehindQueue = stockWriteBehindQueue;
+        this.circuitBreaker = productServiceCircuitBreaker;
+        this.bulkhead = productServiceBulkhead;
+        this.hedger = productServiceHedger;
+        this.hedgingEnabled = hedgingEnabled;
+        this.metrics = metrics;
+        this.maxStaleAge = maxStaleAge;
+        stockWriteBehindQueue.setFlushHandler(this::flushStockUpdate);
+        productCache.pinWhile(hotProductTracker::isPinned);
     }
     
     /**
-     * Retrieves product information from external microservice
+     * Retrieves product information, serving it from the local cache when possible
+     * and falling back to the external microservice on a miss.
+     * Concurrent misses for the same product share a single upstream call.
      * @param productId the product ID to search for
      * @return Optional containing the external product if found, empty otherwise
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
      */
     public Optional<ExternalProductDto> getProductById(Long productId) {
+        return lookupProductById(productId).map(product -> withPendingStock(productId, product));
+    }
+    
+    private Optional<ExternalProductDto> lookupProductById(Long productId) {
+        ExternalProductDto cached = productCache.get(productId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        return productLookups.execute(productId, () -> loadProductById(productId));
+    }
+    
+    /**
+     * Reloads a product into the cache from the external microservice, revalidating the
+     * cached copy when it has an entity tag. Used to keep pinned hot products fresh;
+     * concurrent lookups of the same product share the call.
+     * @param productId the product ID to reload
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    public void refreshProduct(Long productId) {
+        if (productLookups.execute(productId, () -> loadProductById(productId)).isEmpty()) {
+            productCache.invalidate(productId);
+        }
+    }
+    
+    /**
+     * Retrieves a product for a read-modify-write update, together with the entity tag to send
+     * back with the update (see {@link #updateProductStockIfMatch}). A cached copy that is not
+     * expired and carries a tag is returned without calling the external service: if another node
+     * changed the product meanwhile, the conditional update is rejected instead of the change being lost.
+     * Otherwise, or when {@code reload} is set after such a rejection, the product is loaded from
+     * the external service, bypassing any lookup already in flight; the cached copy is revalidated
+     * with its entity tag, so a product that did not change costs a {@code 304 Not Modified}.
+     * With write-behind enabled the product is returned with its queued stock and without a tag.
+     * @param productId the product ID to search for
+     * @param reload whether to load the product even if a fresh copy is cached
+     * @return Optional containing the product and its entity tag if found, empty otherwise
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    public Optional<VersionedProduct> getProductForUpdate(Long productId, boolean reload) {
+        if (stockWriteBehindQueue.isEnabled()) {
+            return getProductById(productId).map(product -> new VersionedProduct(product, null));
+        }
+        if (!reload) {
+            VersionedProduct cached = productCache.getVersioned(productId);
+            if (cached != null && cached.etag() != null) {
+                return Optional.of(cached);
+            }
+        }
+        return loadVersionedProductById(productId);
+    }
+    
+    /**
+     * Drops the cached copy of a product changed by another node, so the next read loads it
+     * again; a lookup already in flight does not cache its now outdated result
+     * @param productId the product ID
+     */
+    public void evictProduct(Long productId) {
+        productLookups.forget(productId);
+        productCache.invalidate(productId);
+    }
+    
+    /**
+     * Drops every cached product, when changes made by other nodes may have been missed
+     */
+    public void evictAllProducts() {
+        productCache.invalidateAll();
+    }
+    
+    /**
+     * Loads a product from the external microservice, revalidating the cached copy
+     * when the external service sent an entity tag with it
+     * @param productId the product ID to search for
+     * @return Optional containing the external product if found, empty otherwise
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    private Optional<ExternalProductDto> loadProductById(Long productId) {
+        return loadVersionedProductById(productId).map(VersionedProduct::product);
+    }
+    
+    /**
+     * Loads a product from the external microservice as {@link #loadProductById} does
+     * @return Optional containing the external product and its entity tag if found, empty otherwise
+     */
+    private Optional<VersionedProduct> loadVersionedProductById(Long productId) {
+        long stamp = productCache.stamp(productId);
+        String etag = productCache.etag(productId);
+        ResponseEntity<ExternalProductDto> response = fetchProductById(productId, etag);
+        if (response != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            ExternalProductDto revalidated = productCache.revalidate(productId, etag, stamp);
+            if (revalidated != null) {
+                return Optional.of(new VersionedProduct(revalidated, etag));
+            }
+            stamp = productCache.stamp(productId);
+            response = fetchProductById(productId, null);
+        }
+        
+        ExternalProductDto product = response != null ? response.getBody() : null;
+        if (product == null) {
+            metrics.emptyResult(ProductServiceMetrics.Method.GET);
+            return Optional.empty();
+        }
+        String loadedEtag = response.getHeaders().getETag();
+        productCache.putIfUnchanged(productId, product, loadedEtag, stamp);
+        return Optional.of(new VersionedProduct(product, loadedEtag));
+    }
+    
+    private ExternalProductDto withPendingStock(Long productId, ExternalProductDto product) {
+        if (!stockWriteBehindQueue.isEnabled()) {
+            return product;
+        }
+        Integer pendingStock = stockWriteBehindQueue.pendingStock(productId);
+        return pendingStock != null ? product.withStock(pendingStock) : product;
+    }
+    
+    /**
+     * Retrieves product information from external microservice
+     * @param productId the product ID to search for
+     * @param etag the entity tag of the cached product to send in {@code If-None-Match}, or null
+     * @return the response, with no body if the product is unchanged, or null if the product does not exist
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    private ResponseEntity<ExternalProductDto> fetchProductById(Long productId, String etag) {
         try {
             String url = baseUrl + "/api/products/" + productId;
-            ExternalProductDto product = restTemplate.getForObject(url, ExternalProductDto.class);
-            return Optional.ofNullable(product);
+            HttpHeaders headers = new HttpHeaders();
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
+            Supplier<ResponseEntity<ExternalProductDto>> call = () -> callUpstream(ProductServiceMetrics.Method.GET,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, requestEntity, ExternalProductDto.class));
+            return hedgingEnabled ? hedger.call(call) : call.get();
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
         } catch (RestClientException e) {
-            // Log the error in a real application
-            System.err.println("Error calling external product service: " + e.getMessage());
-            return Optional.empty();
+            log.warn("Error calling external product service for product {}: {}", productId, e.getMessage());
+            throw new ExternalServiceUnavailableException("Error calling external product service", e);
+        } catch (TimeoutException e) {
+            log.warn("Timed out calling external product service for product {}: {}", productId, e.getMessage());
+            throw new ExternalServiceUnavailableException("Timed out calling external product service", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceUnavailableException("Interrupted while calling external product service", e);
         }
     }
     
     /**
-     * Gets the available stock for a specific product
+     * Gets the available stock for a specific product.
+     * When the external service cannot be reached, the last known good stock
+     * is returned marked as stale, provided it is not older than the configured maximum age.
      * @param productId the product ID
-     * @return Optional containing the stock amount if product exists, empty otherwise
+     * @return Optional containing the stock if product exists, empty otherwise
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     *         and no recent enough stock is known
+     */
+    public Optional<ExternalProductStock> getProductStock(Long productId) {
+        try {
+            return getProductById(productId)
+                    .map(product -> new ExternalProductStock(productId, product.stock(), false));
+        } catch (ExternalServiceUnavailableException e) {
+            ExternalProductDto lastKnown = productCache.getStale(productId, maxStaleAge);
+            if (lastKnown == null) {
+                throw e;
+            }
+            return Optional.of(new ExternalProductStock(productId, withPendingStock(productId, lastKnown).stock(), true));
+        }
+    }
+    
+    /**
+     * Retrieves one page of the external catalog ordered by product ID, using keyset pagination
+     * ({@code GET /api/products?afterId=&size=}). Stock values still waiting in the
+     * write-behind queue replace the ones returned by the external service.
+     * @param afterId the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of products in the page
+     * @return the page of products, empty if the catalog has no more products
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    public ExternalProductPage getProductsPage(Long afterId, int size) {
+        String url = baseUrl + "/api/products?size=" + size + (afterId != null ? "&afterId=" + afterId : "");
+        try {
+            ExternalProductPage page = callUpstream(ProductServiceMetrics.Method.GET,
+                    () -> restTemplate.getForObject(url, ExternalProductPage.class));
+            if (page == null || page.products() == null) {
+                metrics.emptyResult(ProductServiceMetrics.Method.GET);
+                return new ExternalProductPage(List.of(), null);
+            }
+            return new ExternalProductPage(page.products().stream()
+                    .map(product -> withPendingStock(product.id(), product))
+                    .toList(), page.nextAfterId());
+        } catch (RestClientException e) {
+            log.warn("Error reading catalog page after {} from external product service: {}", afterId, e.getMessage());
+            throw new ExternalServiceUnavailableException("Error calling external product service", e);
+        }
+    }
+    
+    /**
+     * Runs a call to the external service through the circuit breaker and the bulkhead.
+     * Rejected calls fail immediately without touching the network.
+     * Client errors (4xx) do not count as upstream failures, nor do calls aborted
+     * by interrupting their thread, such as the losing attempt of a hedged lookup.
+     * @param method the HTTP method, used to tag the call metrics
+     * @param call the HTTP call
+     * @return the result of the call
+     * @throws ExternalServiceUnavailableException if the call is rejected
      */
-    public Optional<Integer> getProductStock(Long productId) {
-        return getProductById(productId)
-                .map(ExternalProductDto::stock);
+    private <T> T callUpstream(ProductServiceMetrics.Method method, Supplier<T> call) {
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            metrics.rejected(method);
+            throw new ExternalServiceUnavailableException("Circuit breaker for external product service is open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.releasePermission(permit);
+            metrics.rejected(method);
+            throw new ExternalServiceUnavailableException("Too many concurrent calls to external product service");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(permit, elapsed);
+            metrics.record(method, result instanceof ResponseEntity<?> response
+                    && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                    ? ProductServiceMetrics.Outcome.NOT_MODIFIED
+                    : ProductServiceMetrics.Outcome.SUCCESS, elapsed);
+            return result;
+        } catch (HttpClientErrorException e) {
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(permit, elapsed);
+            metrics.record(method, e instanceof HttpClientErrorException.NotFound
+                    ? ProductServiceMetrics.Outcome.NOT_FOUND
+                    : ProductServiceMetrics.Outcome.CLIENT_ERROR, elapsed);
+            throw e;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            if (Thread.currentThread().isInterrupted()) {
+                circuitBreaker.releasePermission(permit);
+                metrics.record(method, ProductServiceMetrics.Outcome.CANCELLED, elapsed);
+            } else {
+                circuitBreaker.onError(permit, elapsed);
+                metrics.record(method, ProductServiceMetrics.Outcome.ERROR, elapsed);
+            }
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
     }
     
     /**
-     * Updates a product in the external microservice
+     * Updates a product in the external microservice.
+     * The cached copy of the product is refreshed with the response on success
+     * and dropped on failure, so reads never observe a value older than the write.
      * @param productId the product ID to update
      * @param updateProductDto the product data to update
-     * @return Optional containing the updated product if successful, empty otherwise
+     * @return Optional containing the updated product if successful, empty if the product does not exist
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
      */
     public Optional<ExternalProductDto> updateProduct(Long productId, UpdateProductDto updateProductDto) {
+        return updateProduct(productId, updateProductDto, HttpHeaders.EMPTY);
+    }
+    
+    private Optional<ExternalProductDto> updateProduct(Long productId, UpdateProductDto updateProductDto, HttpHeaders headers) {
         try {
-            String url = baseUrl + "/api/products/" + productId;
-            HttpEntity<UpdateProductDto> requestEntity = new HttpEntity<>(updateProductDto);
-            ResponseEntity<ExternalProductDto> response = restTemplate.exchange(
-                url, 
-                HttpMethod.PUT, 
-                requestEntity, 
-                ExternalProductDto.class
-            );
-            return Optional.ofNullable(response.getBody());
+            return Optional.ofNullable(sendUpdate(productId, updateProductDto, headers));
         } catch (RestClientException e) {
-            // Log the error in a real application
-            System.err.println("Error updating product in external service: " + e.getMessage());
-            return Optional.empty();
+            productLookups.forget(productId);
+            productCache.invalidate(productId);
+            if (e instanceof HttpClientErrorException.NotFound) {
+                metrics.emptyResult(ProductServiceMetrics.Method.PUT);
+                return Optional.empty();
+            }
+            if (e instanceof HttpClientErrorException clientError
+                    && clientError.getStatusCode().isSameCodeAs(HttpStatus.PRECONDITION_FAILED)) {
+                throw new ProductChangedException(productId, e);
+            }
+            log.warn("Error updating product {} in external service: {}", productId, e.getMessage());
+            throw new ExternalServiceUnavailableException("Error updating product in external service", e);
         }
     }
     
@@ -82,10 +377,144 @@ public class ExternalProductService {
      * Updates only the stock of a specific product
      * @param productId the product ID
      * @param newStock the new stock amount
-     * @return Optional containing the updated product if successful, empty otherwise
+     * @return Optional containing the updated product if successful, empty if the product does not exist
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
      */
     public Optional<ExternalProductDto> updateProductStock(Long productId, Integer newStock) {
+        if (stockWriteBehindQueue.isEnabled()) {
+            return queueStockUpdate(productId, newStock);
+        }
         UpdateProductDto updateDto = UpdateProductDto.withStock(newStock);
         return updateProduct(productId, updateDto);
     }
+    
+    /**
+     * Updates only the stock of a product, provided it still has the entity tag it was read with,
+     * which is sent in {@code If-Match}. Without a tag, or with write-behind enabled, the stock is
+     * updated unconditionally as {@link #updateProductStock} does.
+     * @param productId the product ID
+     * @param newStock the new stock amount
+     * @param etag the entity tag returned by {@link #getProductForUpdate}, or null
+     * @return Optional containing the updated product if successful, empty if the product does not exist
+     * @throws ProductChangedException if the product changed since it was read; its cached copy is dropped
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached
+     */
+    public Optional<ExternalProductDto> updateProductStockIfMatch(Long productId, Integer newStock, String etag) {
+        if (etag == null || stockWriteBehindQueue.isEnabled()) {
+            return updateProductStock(productId, newStock);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(etag);
+        return updateProduct(productId, UpdateProductDto.withStock(newStock), headers);
+    }
+    
+    /**
+     * Queues a stock update for asynchronous delivery.
+     * The product must be known to the external service; the returned product
+     * reflects the queued stock, which is flushed later by the write-behind queue.
+     * The cached product is updated with the queued stock right away, without an entity
+     * tag, so reads on this node see it even without the pending stock overlay.
+     * @param productId the product ID
+     * @param newStock the new stock amount
+     * @return Optional containing the product with the queued stock, empty if the product does not exist
+     * @throws StockUpdateRejectedException if the write-behind queue is full
+     */
+    private Optional<ExternalProductDto> queueStockUpdate(Long productId, Integer newStock) {
+        Optional<ExternalProductDto> current = lookupProductById(productId);
+        current.ifPresent(product -> stockWriteBehindQueue.submit(productId, newStock));
+        Optional<ExternalProductDto> queued = current.map(product -> product.withStock(newStock));
+        queued.ifPresent(product -> {
+            productLookups.forget(productId);
+            productCache.refresh(productId, product, null);
+        });
+        return queued;
+    }
+    
+    /**
+     * Delivers a stock change taken from the stock outbox, bypassing the write-behind queue.
+     * The idempotency key is sent in the {@code Idempotency-Key} header, so the external
+     * service can recognise a change delivered again after a lost response.
+     * @param productId the product ID
+     * @param stock the stock amount to send
+     * @param idempotencyKey the key identifying the change
+     * @return true if the change was accepted, false if the external service rejected it
+     *         with a client error (including an unknown product), so retrying cannot succeed
+     * @throws ExternalServiceUnavailableException if the external service cannot be reached,
+     *         or answered {@code 408 Request Timeout} or {@code 429 Too Many Requests}
+     */
+    public boolean deliverStockChange(Long productId, int stock, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        try {
+            sendUpdate(productId, UpdateProductDto.withStock(stock), headers);
+            return true;
+        } catch (HttpClientErrorException e) {
+            if (isRetryable(e)) {
+                throw new ExternalServiceUnavailableException("External service asked to retry the stock change later", e);
+            }
+            productLookups.forget(productId);
+            productCache.invalidate(productId);
+            log.warn("Stock change {} for product {} rejected by external service: {}",
+                    idempotencyKey, productId, e.getMessage());
+            return false;
+        } catch (RestClientException e) {
+            productLookups.forget(productId);
+            productCache.invalidate(productId);
+            throw new ExternalServiceUnavailableException("Error delivering stock change to external service", e);
+        }
+    }
+    
+    /**
+     * Sends a queued stock update to the external microservice.
+     * Client errors are not retried, except {@code 408 Request Timeout} and {@code 429 Too Many Requests};
+     * any other failure is rethrown so the queue retries it.
+     * @param productId the product ID
+     * @param stock the stock amount to send
+     * @return true if the update was accepted, false if the external service rejected it
+     */
+    private boolean flushStockUpdate(Long productId, int stock) {
+        try {
+            sendUpdate(productId, UpdateProductDto.withStock(stock), HttpHeaders.EMPTY);
+            return true;
+        } catch (HttpClientErrorException e) {
+            if (isRetryable(e)) {
+                throw e;
+            }
+            productCache.invalidate(productId);
+            log.warn("Discarding queued stock update for product {} rejected by external service: {}",
+                    productId, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Tells whether a client error only asks the caller to come back later,
+     * so the request may succeed when sent again
+     */
+    private static boolean isRetryable(HttpClientErrorException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+                || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    /**
+     * Sends an update to the external microservice and refreshes the cached product
+     * @param productId the product ID to update
+     * @param updateProductDto the product data to update
+     * @param headers additional request headers
+     * @return the updated product returned by the external service
+     * @throws RestClientException if the call fails
+     */
+    private ExternalProductDto sendUpdate(Long productId, UpdateProductDto updateProductDto, HttpHeaders headers) {
+        String url = baseUrl + "/api/products/" + productId;
+        HttpEntity<UpdateProductDto> requestEntity = new HttpEntity<>(updateProductDto, headers);
+        ResponseEntity<ExternalProductDto> response = callUpstream(ProductServiceMetrics.Method.PUT, () -> restTemplate.exchange(
+            url, 
+            HttpMethod.PUT, 
+            requestEntity, 
+            ExternalProductDto.class
+        ));
+        productLookups.forget(productId);
+        productCache.refresh(productId, response.getBody(), response.getHeaders().getETag());
+        return response.getBody();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+/**
+ * Stock of a product as known by this service.
+ * A stale value is the last known good stock, served because
+ * the external service could not be reached.
+ */
+public record ExternalProductStock(
+    Long productId,
+    Integer stock,
+    boolean stale
+) {
+}
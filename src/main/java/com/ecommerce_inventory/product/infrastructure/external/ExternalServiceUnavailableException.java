@@ -0,0 +1,16 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+/**
+ * Thrown when the external product service cannot be reached, is failing,
+ * or calls to it are being rejected by the circuit breaker or bulkhead.
+ */
+public class ExternalServiceUnavailableException extends RuntimeException {
+    
+    public ExternalServiceUnavailableException(String message) {
+        super(message);
+    }
+    
+    public ExternalServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the hot products pinned in the product cache fresh when hot key pinning is enabled.
+ * Every {@code refresh-interval}, which should be shorter than the cache TTL, each product of the
+ * current hot set is reloaded from the external service, revalidating with its entity tag when it
+ * has one, so requests for hot products always hit the cache and see stock at most one interval old.
+ * Products that left the hot set since the previous run are counted as unpinned; they stay cached
+ * like any other product, expiring with the TTL and subject to eviction.
+ */
+@Component
+public class HotProductRefresher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(HotProductRefresher.class);
+
+    private final HotProductTracker hotProductTracker;
+    private final ExternalProductService externalProductService;
+    private final ExternalProductCache productCache;
+    private final Duration refreshInterval;
+
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unpinned = new LongAdder();
+    private Set<Long> pinned = Set.of();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public HotProductRefresher(HotProductTracker hotProductTracker,
+                               ExternalProductService externalProductService,
+                               ExternalProductCache productCache,
+                               @Value("${external.product.hot-keys.pinning.refresh-interval:1s}") Duration refreshInterval) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Hot product refresh interval must be positive");
+        }
+        this.hotProductTracker = hotProductTracker;
+        this.externalProductService = externalProductService;
+        this.productCache = productCache;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Returns a snapshot of the refresher counters
+     */
+    public RefreshStats stats() {
+        return new RefreshStats(refreshed.sum(), failed.sum(), unpinned.sum());
+    }
+
+    /**
+     * Snapshot of hot product refresh counters.
+     */
+    public record RefreshStats(long refreshed, long failed, long unpinned) {
+    }
+
+    @Override
+    public void start() {
+        if (!hotProductTracker.isPinningEnabled() || !productCache.isEnabled() || running) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-product-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        long intervalNanos = refreshInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error refreshing hot products", e);
+        }
+    }
+
+    private void refresh() {
+        Set<Long> hot = new HashSet<>();
+        for (HotProductTracker.HotProduct product : hotProductTracker.hotProducts()) {
+            hot.add(product.productId());
+        }
+        for (Long productId : pinned) {
+            if (!hot.contains(productId)) {
+                unpinned.increment();
+            }
+        }
+        pinned = hot;
+
+        for (Long productId : hot) {
+            if (!running) {
+                return;
+            }
+            try {
+                externalProductService.refreshProduct(productId);
+                refreshed.increment();
+            } catch (ExternalServiceUnavailableException e) {
+                failed.increment();
+                log.debug("Hot product {} not refreshed: {}", productId, e.getMessage());
+            }
+        }
+    }
+}
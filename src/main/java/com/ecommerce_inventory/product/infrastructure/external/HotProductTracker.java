@@ -0,0 +1,148 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import com.ecommerce_inventory.shared.concurrent.HeavyHitters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects the most requested products from a sample of availability and stock requests.
+ * A fraction of requests ({@code sample-rate}) is counted in a {@link HeavyHitters} sketch,
+ * which keeps the {@code top-k} products with the highest estimated request counts; counts are
+ * halved every {@code decay-interval}, so the hot set follows the current traffic and products
+ * that cool down leave it.
+ * With pinning enabled, hot products are pinned in the {@link ExternalProductCache}: they are
+ * never evicted to make room for other products, and the {@link HotProductRefresher} keeps them
+ * fresh. Cold products are still cached with the normal TTL and LRU eviction, so they keep their
+ * stale copy and entity tag for fallback and revalidation.
+ */
+@Component
+public class HotProductTracker {
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long decayIntervalNanos;
+    private final boolean pinningEnabled;
+    private final HeavyHitters heavyHitters;
+    private final AtomicLong nextDecayAt;
+    private final LongAdder sampled = new LongAdder();
+
+    public HotProductTracker(@Value("${external.product.hot-keys.enabled:true}") boolean enabled,
+                             @Value("${external.product.hot-keys.sample-rate:0.1}") double sampleRate,
+                             @Value("${external.product.hot-keys.top-k:200}") int topK,
+                             @Value("${external.product.hot-keys.min-samples:5}") long minSamples,
+                             @Value("${external.product.hot-keys.sketch-width:4096}") int sketchWidth,
+                             @Value("${external.product.hot-keys.decay-interval:30s}") Duration decayInterval,
+                             @Value("${external.product.hot-keys.pinning.enabled:false}") boolean pinningEnabled) {
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Hot key sample rate must be greater than 0 and at most 1");
+        }
+        if (decayInterval.isNegative() || decayInterval.isZero()) {
+            throw new IllegalArgumentException("Hot key decay interval must be positive");
+        }
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.decayIntervalNanos = decayInterval.toNanos();
+        this.pinningEnabled = enabled && pinningEnabled;
+        this.heavyHitters = new HeavyHitters(sketchWidth, topK, minSamples);
+        this.nextDecayAt = new AtomicLong(System.nanoTime() + decayIntervalNanos);
+    }
+
+    /**
+     * Counts a request for a product, if it falls in the sample
+     * @param productId the requested product ID
+     */
+    public void record(Long productId) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        decayIfDue(System.nanoTime());
+        sampled.increment();
+        heavyHitters.add(productId);
+    }
+
+    /**
+     * Returns whether a product is currently in the hot set
+     * @param productId the product ID
+     */
+    public boolean isHot(Long productId) {
+        return enabled && heavyHitters.isTop(productId);
+    }
+
+    /**
+     * Returns whether a product must be kept in the product cache rather than evicted:
+     * never without pinning, while the product is hot with pinning
+     * @param productId the product ID
+     */
+    public boolean isPinned(long productId) {
+        return pinningEnabled && heavyHitters.isTop(productId);
+    }
+
+    /**
+     * Returns the hot set, most requested first
+     * @return the hot products with their estimated request rates
+     */
+    public List<HotProduct> hotProducts() {
+        double windowSeconds = windowNanos() / 1e9;
+        return heavyHitters.top().stream()
+                .map(entry -> new HotProduct(entry.key(), entry.estimate() / sampleRate / windowSeconds))
+                .toList();
+    }
+
+    /**
+     * Returns a snapshot of the tracker state
+     */
+    public HotKeyStats stats() {
+        long total = heavyHitters.total();
+        long inHotSet = 0;
+        for (HeavyHitters.Entry entry : heavyHitters.top()) {
+            inHotSet += entry.estimate();
+        }
+        return new HotKeyStats(heavyHitters.topSize(), sampled.sum(),
+                total == 0 ? 0.0 : Math.min(1.0, (double) inHotSet / total));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isPinningEnabled() {
+        return pinningEnabled;
+    }
+
+    /**
+     * A hot product with its estimated request rate, in requests per second
+     */
+    public record HotProduct(long productId, double estimatedRequestsPerSecond) {
+    }
+
+    /**
+     * Snapshot of hot key tracking: the size of the hot set, the requests sampled so far
+     * and the estimated share of the recent sampled requests that went to hot products.
+     */
+    public record HotKeyStats(int hotProducts, long sampledRequests, double hotShare) {
+    }
+
+    private void decayIfDue(long now) {
+        long due = nextDecayAt.get();
+        if (now - due >= 0 && nextDecayAt.compareAndSet(due, now + decayIntervalNanos)) {
+            heavyHitters.decay();
+        }
+    }
+
+    /**
+     * Length of the time window the counts cover: halving every interval makes the counts
+     * weigh past traffic with a geometric series summing to about two decay intervals
+     */
+    private long windowNanos() {
+        return 2 * decayIntervalNanos;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+/**
+ * Thrown when a conditional update is rejected with {@code 412 Precondition Failed}
+ * because the product changed in the external service since it was read.
+ */
+public class ProductChangedException extends RuntimeException {
+    
+    public ProductChangedException(Long productId, Throwable cause) {
+        super("Product " + productId + " changed in external service since it was read", cause);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for calls to the external product service.
+ * Every timer and counter is registered up front, so recording a call
+ * is an array lookup plus a primitive update with no allocation.
+ * Error counters exist only for the failure outcomes, so successful calls
+ * publish no zero-valued error series.
+ */
+@Component
+public class ProductServiceMetrics {
+    
+    /**
+     * HTTP method of the upstream call
+     */
+    public enum Method {
+        GET,
+        PUT
+    }
+    
+    /**
+     * Outcome of an upstream call that reached the network
+     */
+    public enum Outcome {
+        SUCCESS,
+        NOT_MODIFIED,
+        NOT_FOUND,
+        CLIENT_ERROR,
+        ERROR,
+        CANCELLED;
+        
+        boolean isFailure() {
+            return this == CLIENT_ERROR || this == ERROR;
+        }
+    }
+    
+    private final Timer[][] requestTimers;
+    private final Counter[][] errorCounters;
+    private final Counter[] rejectedCounters;
+    private final Counter[] emptyResultCounters;
+    
+    public ProductServiceMetrics(MeterRegistry meterRegistry) {
+        Method[] methods = Method.values();
+        Outcome[] outcomes = Outcome.values();
+        this.requestTimers = new Timer[methods.length][outcomes.length];
+        this.errorCounters = new Counter[methods.length][outcomes.length];
+        this.rejectedCounters = new Counter[methods.length];
+        this.emptyResultCounters = new Counter[methods.length];
+        
+        for (Method method : methods) {
+            String methodTag = method.name();
+            for (Outcome outcome : outcomes) {
+                String outcomeTag = outcome.name().toLowerCase();
+                requestTimers[method.ordinal()][outcome.ordinal()] = Timer.builder("product.service.requests")
+                        .description("Latency of calls to the external product service")
+                        .tags("method", methodTag, "outcome", outcomeTag)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+                if (outcome.isFailure()) {
+                    errorCounters[method.ordinal()][outcome.ordinal()] = Counter.builder("product.service.errors")
+                            .description("Failed calls to the external product service")
+                            .tags("method", methodTag, "outcome", outcomeTag)
+                            .register(meterRegistry);
+                }
+            }
+            rejectedCounters[method.ordinal()] = Counter.builder("product.service.errors")
+                    .description("Failed calls to the external product service")
+                    .tags("method", methodTag, "outcome", "rejected")
+                    .register(meterRegistry);
+            emptyResultCounters[method.ordinal()] = Counter.builder("product.service.empty.results")
+                    .description("Calls to the external product service that returned no product")
+                    .tags("method", methodTag)
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Records an upstream call that reached the network
+     * @param method the HTTP method
+     * @param outcome the outcome of the call
+     * @param durationNanos how long the call took
+     */
+    public void record(Method method, Outcome outcome, long durationNanos) {
+        requestTimers[method.ordinal()][outcome.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+        if (outcome.isFailure()) {
+            errorCounters[method.ordinal()][outcome.ordinal()].increment();
+        }
+    }
+    
+    /**
+     * Records an upstream call rejected by the circuit breaker or the bulkhead
+     * @param method the HTTP method
+     */
+    public void rejected(Method method) {
+        rejectedCounters[method.ordinal()].increment();
+    }
+    
+    /**
+     * Records an upstream call that returned no product
+     * @param method the HTTP method
+     */
+    public void emptyResult(Method method) {
+        emptyResultCounters[method.ordinal()].increment();
+    }
+}
@@ -0,0 +1,302 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import com.ecommerce_inventory.product.domain.StockChange;
+import com.ecommerce_inventory.product.domain.StockChangeOutbox;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relay delivering the stock outbox to the external product service.
+ * A background scheduler claims due changes in batches, oldest first, in a short
+ * transaction that leases them for the duration of the delivery and commits before
+ * any call is made, so no database connection or lock is held across HTTP calls.
+ * Changes are absolute, so only the newest change of each product in a batch is sent
+ * and the older ones are dropped as superseded; changes of different products are sent
+ * concurrently. Each change carries its own idempotency key.
+ * Failed deliveries are retried with capped exponential backoff and are never dropped,
+ * except when the external service rejects them with a client error.
+ * Outcomes are settled in a second short transaction that deletes delivered rows and
+ * reschedules failed ones; a crash before it commits only causes the batch to be
+ * delivered again with the same idempotency keys once the lease ends.
+ * Once a batch is settled, its delivered products are announced to the other nodes, which
+ * drop their cached copies loaded from the external service before the delivery.
+ */
+@Component
+public class StockOutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockOutboxRelay.class);
+
+    private enum Outcome {
+        DELIVERED,
+        REJECTED,
+        FAILED
+    }
+
+    private final StockChangeOutbox stockChangeOutbox;
+    private final ExternalProductService externalProductService;
+    private final ProductInvalidationBroadcaster productInvalidationBroadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int deliveryConcurrency;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Timer deliveryLagTimer;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long pending;
+    private volatile Instant oldestPendingCreatedAt;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService deliveryExecutor;
+
+    public StockOutboxRelay(StockChangeOutbox stockChangeOutbox,
+                            ExternalProductService externalProductService,
+                            ProductInvalidationBroadcaster productInvalidationBroadcaster,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${external.product.outbox.enabled:false}") boolean enabled,
+                            @Value("${external.product.outbox.poll-interval:200ms}") Duration pollInterval,
+                            @Value("${external.product.outbox.batch-size:100}") int batchSize,
+                            @Value("${external.product.outbox.delivery-concurrency:4}") int deliveryConcurrency,
+                            @Value("${external.product.outbox.retry-backoff:500ms}") Duration retryBackoff,
+                            @Value("${external.product.outbox.max-backoff:1m}") Duration maxBackoff,
+                            @Value("${external.product.outbox.lease:30s}") Duration lease,
+                            MeterRegistry meterRegistry) {
+        if (batchSize <= 0 || deliveryConcurrency <= 0 || !lease.isPositive()) {
+            throw new IllegalArgumentException("Outbox batch size, delivery concurrency and lease must be positive");
+        }
+        this.stockChangeOutbox = stockChangeOutbox;
+        this.externalProductService = externalProductService;
+        this.productInvalidationBroadcaster = productInvalidationBroadcaster;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.deliveryConcurrency = deliveryConcurrency;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.deliveryLagTimer = Timer.builder("product.outbox.delivery.lag")
+                .description("Time from the local commit of a stock change to its delivery to the external service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of changes waiting to be delivered, as of the last relay run
+     */
+    public long pendingCount() {
+        return pending;
+    }
+
+    /**
+     * Returns how long the oldest pending change has been waiting, as of the last relay run
+     * @return the age of the oldest pending change, empty if nothing is pending
+     */
+    public Optional<Duration> lag() {
+        Instant oldest = oldestPendingCreatedAt;
+        return oldest == null ? Optional.empty() : Optional.of(Duration.between(oldest, Instant.now()));
+    }
+
+    /**
+     * Returns a snapshot of the relay counters
+     */
+    public RelayStats stats() {
+        return new RelayStats(pending, delivered.sum(), superseded.sum(), retried.sum(), rejected.sum());
+    }
+
+    /**
+     * Snapshot of outbox relay counters.
+     */
+    public record RelayStats(long pending, long delivered, long superseded, long retried, long rejected) {
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "stock-outbox-relay"));
+        deliveryExecutor = Executors.newFixedThreadPool(deliveryConcurrency,
+                runnable -> daemon(runnable, "stock-outbox-delivery-" + threadCounter.incrementAndGet()));
+        running = true;
+        long intervalNanos = pollInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::relaySafely, 0L, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops claiming new batches and waits for the batch in flight.
+     * Undelivered changes stay in the outbox for the next start.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deliveryExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after the persistence layer is ready and stops after the embedded web server
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void relaySafely() {
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (running && claimed == batchSize);
+            refreshBacklog();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error relaying stock outbox", e);
+        }
+    }
+
+    /**
+     * Claims one batch of due changes, delivers the newest change of each product and settles the outcomes
+     * @return the number of claimed changes
+     */
+    private int relayBatch() {
+        Instant claimedAt = Instant.now();
+        List<StockChange> claimed = transactionTemplate.execute(status ->
+                stockChangeOutbox.claimDue(claimedAt, claimedAt.plus(lease), batchSize));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, StockChange> newest = new LinkedHashMap<>();
+        for (StockChange change : claimed) {
+            newest.merge(change.productId(), change,
+                    (current, candidate) -> candidate.productVersion() > current.productVersion() ? candidate : current);
+        }
+        superseded.add(claimed.size() - newest.size());
+
+        List<CompletableFuture<Outcome>> deliveries = new ArrayList<>(newest.size());
+        for (StockChange change : newest.values()) {
+            deliveries.add(CompletableFuture.supplyAsync(() -> deliver(change), deliveryExecutor));
+        }
+        List<Outcome> outcomes = new ArrayList<>(deliveries.size());
+        for (CompletableFuture<Outcome> delivery : deliveries) {
+            outcomes.add(delivery.join());
+        }
+
+        List<Long> deliveredProducts = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status ->
+                settle(List.copyOf(newest.values()), outcomes, deliveredProducts));
+        productInvalidationBroadcaster.publish(deliveredProducts);
+        return claimed.size();
+    }
+
+    /**
+     * Removes the delivered and rejected changes, with the older changes they supersede,
+     * and reschedules the failed ones
+     * @param deliveredProducts collects the IDs of the products whose change was delivered
+     */
+    private void settle(List<StockChange> changes, List<Outcome> outcomes, List<Long> deliveredProducts) {
+        Instant now = Instant.now();
+        for (int index = 0; index < changes.size(); index++) {
+            StockChange change = changes.get(index);
+            switch (outcomes.get(index)) {
+                case DELIVERED -> {
+                    stockChangeOutbox.removeUpToVersion(change.productId(), change.productVersion());
+                    deliveryLagTimer.record(Duration.between(change.createdAt(), Instant.now()));
+                    delivered.increment();
+                    deliveredProducts.add(change.productId());
+                }
+                case REJECTED -> {
+                    stockChangeOutbox.removeUpToVersion(change.productId(), change.productVersion());
+                    rejected.increment();
+                }
+                case FAILED -> {
+                    int attempts = change.attempts() + 1;
+                    stockChangeOutbox.removeUpToVersion(change.productId(), change.productVersion() - 1);
+                    stockChangeOutbox.retryLater(change.id(), attempts, now.plus(backoff(attempts)));
+                    retried.increment();
+                }
+            }
+        }
+    }
+
+    private Outcome deliver(StockChange change) {
+        try {
+            return externalProductService.deliverStockChange(change.productId(), change.stock(), change.idempotencyKey())
+                    ? Outcome.DELIVERED
+                    : Outcome.REJECTED;
+        } catch (ExternalServiceUnavailableException e) {
+            log.debug("Stock change {} for product {} not delivered: {}",
+                    change.idempotencyKey(), change.productId(), e.getMessage());
+            return Outcome.FAILED;
+        } catch (RuntimeException e) {
+            log.error("Unexpected error delivering stock change {} for product {}",
+                    change.idempotencyKey(), change.productId(), e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long backoffNanos = retryBackoff.toNanos() << Math.min(attempts - 1, 16);
+        return Duration.ofNanos(Math.min(backoffNanos, maxBackoff.toNanos()));
+    }
+
+    private void refreshBacklog() {
+        pending = stockChangeOutbox.countPending();
+        oldestPendingCreatedAt = pending == 0 ? null : stockChangeOutbox.oldestPendingCreatedAt().orElse(null);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+/**
+ * Thrown when a stock update cannot be accepted for asynchronous delivery,
+ * typically because the write-behind queue is full.
+ */
+public class StockUpdateRejectedException extends RuntimeException {
+    
+    public StockUpdateRejectedException(String message) {
+        super(message);
+    }
+}
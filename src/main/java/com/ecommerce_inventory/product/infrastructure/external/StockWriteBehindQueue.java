@@ -0,0 +1,392 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import com.ecommerce_inventory.product.domain.PendingStockUpdate;
+import com.ecommerce_inventory.product.domain.PendingStockUpdateStore;
+import com.ecommerce_inventory.shared.concurrent.StripedLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for stock updates sent to the external product service.
+ * Updates are acknowledged once durably queued: each one is saved in the
+ * {@link PendingStockUpdateStore} before the call returns, coalesced per product
+ * (the last value wins), and flushed in batches by a background scheduler.
+ * An update stays pending, and visible to reads through {@link #pendingStock}, until the
+ * external service accepts or rejects it; failed flushes are retried with exponential
+ * backoff, capped but never given up, unless a newer value was queued in the meantime.
+ * The number of products with a pending update is bounded; once full, new
+ * products are rejected so callers can back off instead of growing the queue.
+ * Pending updates are flushed on shutdown, after the web server stops accepting requests.
+ * Updates still pending after a crash or shutdown are reloaded by this node when it starts
+ * again, and adopted by any other node once left untouched for longer than the orphan age.
+ */
+@Component
+public class StockWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehindQueue.class);
+
+    /**
+     * Action that sends a single coalesced update to the external service.
+     * Throwing an exception marks the update for retry.
+     */
+    @FunctionalInterface
+    public interface FlushHandler {
+        /**
+         * @return true if the update was accepted, false if the external service rejected it
+         *         with a client error, so retrying cannot succeed
+         */
+        boolean flush(Long productId, int stock);
+    }
+
+    private record PendingUpdate(int stock, String token, int attempts, long notBeforeNanos) {
+    }
+
+    private final PendingStockUpdateStore store;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final int flushConcurrency;
+    private final int maxPending;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration shutdownTimeout;
+    private final String nodeId;
+    private final Duration orphanAge;
+    private final StripedLocks submitLocks = new StripedLocks(256);
+
+    private final ConcurrentHashMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile FlushHandler flushHandler;
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService flushExecutor;
+
+    public StockWriteBehindQueue(PendingStockUpdateStore store,
+                                 @Value("${external.product.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${external.product.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                 @Value("${external.product.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${external.product.write-behind.flush-concurrency:4}") int flushConcurrency,
+                                 @Value("${external.product.write-behind.max-pending:10000}") int maxPending,
+                                 @Value("${external.product.write-behind.retry-backoff:500ms}") Duration retryBackoff,
+                                 @Value("${external.product.write-behind.max-backoff:1m}") Duration maxBackoff,
+                                 @Value("${external.product.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                 @Value("${external.product.write-behind.node-id:}") String nodeId,
+                                 @Value("${external.product.write-behind.orphan-age:5m}") Duration orphanAge) {
+        if (batchSize <= 0 || flushConcurrency <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("Write-behind batch size, concurrency and capacity must be positive");
+        }
+        if (orphanAge.compareTo(maxBackoff.plus(flushInterval)) <= 0) {
+            throw new IllegalArgumentException("Write-behind orphan age must exceed the max backoff plus the flush interval");
+        }
+        this.store = store;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.flushConcurrency = flushConcurrency;
+        this.maxPending = maxPending;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.shutdownTimeout = shutdownTimeout;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.orphanAge = orphanAge;
+    }
+
+    /**
+     * Registers the action used to send updates to the external service
+     * @param flushHandler the flush action
+     */
+    public void setFlushHandler(FlushHandler flushHandler) {
+        this.flushHandler = flushHandler;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a new absolute stock value for a product, replacing any value still pending.
+     * Returns once the value is saved in the pending update store.
+     * @param productId the product ID
+     * @param stock the new stock amount
+     * @throws StockUpdateRejectedException if the queue is full or not running, or the update
+     *         could not be saved
+     */
+    public void submit(Long productId, int stock) {
+        if (!running) {
+            rejected.increment();
+            throw new StockUpdateRejectedException("Stock write-behind queue is not accepting updates");
+        }
+        ReentrantLock lock = submitLocks.lockFor(productId);
+        lock.lock();
+        try {
+            boolean replacing = pending.containsKey(productId);
+            if (!replacing && pendingCount.get() >= maxPending) {
+                rejected.increment();
+                throw new StockUpdateRejectedException("Stock write-behind queue is full");
+            }
+            PendingUpdate update = new PendingUpdate(stock, UUID.randomUUID().toString(), 0, 0L);
+            try {
+                store.save(productId, stock, update.token(), nodeId);
+            } catch (RuntimeException e) {
+                rejected.increment();
+                log.warn("Could not queue stock update for product {}: {}", productId, e.getMessage());
+                throw new StockUpdateRejectedException("Stock write-behind queue could not save the update");
+            }
+            if (pending.put(productId, update) == null) {
+                pendingCount.incrementAndGet();
+            } else {
+                coalesced.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the stock value still waiting to be flushed for a product
+     * @param productId the product ID
+     * @return the pending stock, or null if nothing is pending
+     */
+    public Integer pendingStock(Long productId) {
+        PendingUpdate update = pending.get(productId);
+        return update != null ? update.stock() : null;
+    }
+
+    /**
+     * Returns the number of products with an update waiting to be flushed
+     */
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Returns a snapshot of the queue counters
+     */
+    public QueueStats stats() {
+        return new QueueStats(pendingCount.get(), flushed.sum(), coalesced.sum(), retried.sum(),
+                dropped.sum(), rejected.sum());
+    }
+
+    /**
+     * Snapshot of write-behind counters.
+     */
+    public record QueueStats(int pending, long flushed, long coalesced, long retried, long dropped, long rejected) {
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "stock-write-behind"));
+        flushExecutor = Executors.newFixedThreadPool(flushConcurrency,
+                runnable -> daemon(runnable, "stock-write-behind-flush-" + threadCounter.incrementAndGet()));
+        running = true;
+        adoptSafely(true);
+        long intervalNanos = flushInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::flushSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        long orphanAgeNanos = orphanAge.toNanos();
+        scheduler.scheduleWithFixedDelay(() -> adoptSafely(false), orphanAgeNanos / 2, orphanAgeNanos / 2,
+                TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+            // Stops at the first batch that settles nothing: the upstream is down or the breaker
+            // is open, so further attempts would fail as fast and only spin until the deadline
+            long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+            while (flushHandler != null && pendingCount.get() > 0 && System.nanoTime() - deadline < 0) {
+                if (flushBatch(true) == 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushExecutor.shutdownNow();
+            if (pendingCount.get() > 0) {
+                log.warn("Shutting down with {} stock updates not flushed to the external service; "
+                        + "they stay queued for the next start", pendingCount.get());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the embedded web server,
+     * so requests accepted during graceful shutdown are still flushed
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushSafely() {
+        try {
+            flushBatch(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error flushing stock updates", e);
+        }
+    }
+
+    /**
+     * Loads the pending updates this node queued before a restart, or abandoned by other nodes
+     * @param includeOwned whether to load the updates owned by this node
+     */
+    private void adoptSafely(boolean includeOwned) {
+        try {
+            Instant untouchedSince = Instant.now().minus(orphanAge);
+            List<PendingStockUpdate> adopted = store.adopt(nodeId, includeOwned, untouchedSince,
+                    maxPending - pendingCount.get());
+            int loaded = 0;
+            for (PendingStockUpdate update : adopted) {
+                PendingUpdate recovered = new PendingUpdate(update.stock(), update.token(), 0, 0L);
+                if (pending.putIfAbsent(update.productId(), recovered) == null) {
+                    pendingCount.incrementAndGet();
+                    loaded++;
+                }
+            }
+            if (loaded > 0) {
+                log.info("Recovered {} queued stock updates", loaded);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not recover queued stock updates: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends up to one batch of due updates concurrently. Updates stay pending while they are sent.
+     * @param ignoreBackoff whether to flush updates still waiting for their retry delay
+     * @return the number of updates delivered or rejected, and so no longer pending
+     */
+    private int flushBatch(boolean ignoreBackoff) throws InterruptedException {
+        FlushHandler handler = flushHandler;
+        if (handler == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Map.Entry<Long, PendingUpdate> entry : pending.entrySet()) {
+            if (futures.size() >= batchSize) {
+                break;
+            }
+            PendingUpdate update = entry.getValue();
+            if (!ignoreBackoff && now - update.notBeforeNanos() < 0) {
+                continue;
+            }
+            futures.add(flushExecutor.submit(() -> flushOne(handler, entry.getKey(), update)));
+        }
+        int settled = 0;
+        for (Future<Boolean> future : futures) {
+            try {
+                if (future.get()) {
+                    settled++;
+                }
+            } catch (ExecutionException e) {
+                log.error("Unexpected error flushing stock update", e.getCause());
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Sends one update and settles it: a delivered or rejected update is removed from the store
+     * and then from the queue, unless a newer value replaced it meanwhile; a failed one is
+     * rescheduled with backoff.
+     * @return true if the update was delivered or rejected, false if it failed and stays pending
+     */
+    private boolean flushOne(FlushHandler handler, Long productId, PendingUpdate update) {
+        boolean accepted;
+        try {
+            accepted = handler.flush(productId, update.stock());
+        } catch (RuntimeException e) {
+            int attempts = update.attempts() + 1;
+            long backoffNanos = Math.min(retryBackoff.toNanos() << Math.min(attempts - 1, 16), maxBackoff.toNanos());
+            PendingUpdate retry = new PendingUpdate(update.stock(), update.token(), attempts,
+                    System.nanoTime() + backoffNanos);
+            if (pending.replace(productId, update, retry)) {
+                retried.increment();
+                try {
+                    store.touch(productId, update.token());
+                } catch (RuntimeException touchFailure) {
+                    log.debug("Could not touch queued stock update for product {}: {}", productId,
+                            touchFailure.getMessage());
+                }
+            }
+            return false;
+        }
+        if (accepted) {
+            flushed.increment();
+        } else {
+            dropped.increment();
+        }
+        try {
+            store.remove(productId, update.token());
+        } catch (RuntimeException e) {
+            log.warn("Could not remove delivered stock update for product {} from the store: {}",
+                    productId, e.getMessage());
+        }
+        if (pending.remove(productId, update)) {
+            pendingCount.decrementAndGet();
+        }
+        return true;
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
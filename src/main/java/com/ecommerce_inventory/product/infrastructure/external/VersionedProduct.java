@@ -0,0 +1,13 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+/**
+ * Product read for a read-modify-write update, with the entity tag of the
+ * representation it was read from. The tag is sent back in {@code If-Match}
+ * so the external service rejects the update if the product changed meanwhile.
+ * The tag is null when the external service did not send one.
+ */
+public record VersionedProduct(
+    ExternalProductDto product,
+    String etag
+) {
+}
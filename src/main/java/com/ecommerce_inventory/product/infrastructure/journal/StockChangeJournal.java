@@ -0,0 +1,372 @@
+package com.ecommerce_inventory.product.infrastructure.journal;
+
+import com.ecommerce_inventory.shared.concurrent.ConcurrentLongIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of every stock change accepted by this node.
+ * Changes are written as fixed-size binary records to memory-mapped segment files
+ * ({@code segment-size} each, rolled when full), so appending is a few stores into the page
+ * cache under a short lock and never waits for the disk. A background flusher writes the new
+ * records to the storage device every {@code fsync.interval}, or as soon as {@code fsync.batch-size}
+ * records are waiting, which bounds what a machine crash can lose; a process crash loses nothing.
+ * Segments whose newest record is older than {@code retention} are deleted.
+ * On startup the segments are replayed sequentially to rebuild the last journaled stock of each
+ * product, which also provides the old stock of changes whose caller does not know it.
+ * Changes can be replayed from any sequence and scanned by time range; record timestamps
+ * never decrease, so time ranges are found by binary search.
+ */
+@Component
+public class StockChangeJournal implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockChangeJournal.class);
+
+    /**
+     * Old stock recorded when the stock before a change is not known
+     */
+    public static final int UNKNOWN_STOCK = -1;
+
+    private static final String SEGMENT_PREFIX = "stock-journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long RETENTION_CHECK_INTERVAL_MILLIS = 60_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+    private final Duration fsyncInterval;
+    private final int fsyncBatchSize;
+    private final Duration retention;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<StockJournalSegment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentLongIntMap lastStock;
+    private volatile StockJournalSegment active;
+    private long nextSequence = 1;
+    private long lastTimestamp;
+
+    private final AtomicInteger unflushed = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private long nextRetentionCheckAt;
+
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+
+    public StockChangeJournal(@Value("${product.stock.journal.enabled:false}") boolean enabled,
+                              @Value("${product.stock.journal.directory:data/stock-journal}") Path directory,
+                              @Value("${product.stock.journal.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${product.stock.journal.fsync.interval:100ms}") Duration fsyncInterval,
+                              @Value("${product.stock.journal.fsync.batch-size:1000}") int fsyncBatchSize,
+                              @Value("${product.stock.journal.retention:7d}") Duration retention,
+                              @Value("${product.stock.journal.expected-products:100000}") int expectedProducts) {
+        if (segmentSize.toBytes() < StockJournalSegment.HEADER_SIZE + StockJournalSegment.RECORD_SIZE
+                || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Stock journal segment size must be between 104 bytes and 2 GB");
+        }
+        if (fsyncInterval.isNegative() || fsyncInterval.isZero() || retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Stock journal fsync interval and retention must be positive");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize.toBytes();
+        this.fsyncInterval = fsyncInterval;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.retention = retention;
+        this.lastStock = new ConcurrentLongIntMap(enabled ? expectedProducts : 0);
+    }
+
+    /**
+     * Appends a stock change
+     * @param productId the product ID
+     * @param oldStock the stock before the change, or {@link #UNKNOWN_STOCK} to take the
+     *                 stock of the last change journaled for the product
+     * @param newStock the stock after the change
+     * @param origin the operation that made the change
+     */
+    public void record(long productId, int oldStock, int newStock, StockJournalEntry.Origin origin) {
+        if (!running) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            int previousStock = oldStock != UNKNOWN_STOCK ? oldStock : lastStock.get(productId, UNKNOWN_STOCK);
+            long timestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+            if (!active.append(nextSequence, timestamp, productId, previousStock, newStock, origin.ordinal())) {
+                roll();
+                active.append(nextSequence, timestamp, productId, previousStock, newStock, origin.ordinal());
+            }
+            nextSequence++;
+            lastTimestamp = timestamp;
+            lastStock.put(productId, newStock);
+        } catch (IOException | UncheckedIOException e) {
+            failed.increment();
+            log.error("Cannot journal stock change of product {}", productId, e);
+            return;
+        } finally {
+            appendLock.unlock();
+        }
+        appended.increment();
+        if (fsyncBatchSize > 0 && unflushed.incrementAndGet() >= fsyncBatchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+    
+    /**
+     * Returns the last journaled stock of a product
+     * @param productId the product ID
+     * @return the stock, or {@link #UNKNOWN_STOCK} if no change of the product is journaled
+     */
+    public int lastStock(long productId) {
+        return lastStock.get(productId, UNKNOWN_STOCK);
+    }
+
+    /**
+     * Replays the journal in order, from a sequence to the last appended record
+     * @param fromSequence the sequence of the first record to replay, 1 for the whole journal
+     * @param visitor receives every record
+     * @return the number of records replayed
+     */
+    public long replay(long fromSequence, StockJournalVisitor visitor) {
+        long replayed = 0;
+        for (StockJournalSegment segment : segments) {
+            int size = segment.size();
+            long fromIndex = Math.max(0, fromSequence - segment.firstSequence());
+            if (fromIndex < size) {
+                segment.visit((int) fromIndex, size, visitor);
+                replayed += size - fromIndex;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Returns the changes journaled in a time range, oldest first
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @param productId only return changes of this product, or null for every product
+     * @param limit the maximum number of changes to return
+     * @return the changes
+     */
+    public List<StockJournalEntry> changes(Instant from, Instant to, Long productId, int limit) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<StockJournalEntry> changes = new ArrayList<>(Math.min(limit, 1024));
+        StockJournalVisitor collector = (sequence, timestampMillis, changedProductId, oldStock, newStock, origin) -> {
+            if (changes.size() < limit && (productId == null || productId == changedProductId)) {
+                changes.add(new StockJournalEntry(sequence, Instant.ofEpochMilli(timestampMillis), changedProductId,
+                        oldStock == UNKNOWN_STOCK ? null : oldStock, newStock, origin));
+            }
+        };
+        for (StockJournalSegment segment : segments) {
+            int size = segment.size();
+            if (size == 0 || segment.timestampAt(size - 1) < fromMillis) {
+                continue;
+            }
+            if (segment.timestampAt(0) >= toMillis || changes.size() >= limit) {
+                break;
+            }
+            int fromIndex = segment.indexOf(fromMillis, size);
+            int toIndex = segment.indexOf(toMillis, size);
+            if (productId == null) {
+                toIndex = Math.min(toIndex, fromIndex + limit - changes.size());
+            }
+            segment.visit(fromIndex, toIndex, collector);
+        }
+        return changes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a snapshot of the journal counters
+     */
+    public JournalStats stats() {
+        StockJournalSegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        return new JournalStats(segments.size(),
+                last != null ? last.firstSequence() + last.size() - 1 : 0,
+                appended.sum(), failed.sum(), unflushed.get(), flushes.sum(), lastStock.size());
+    }
+
+    /**
+     * Snapshot of journal counters: segment files, sequence of the newest record, records appended
+     * and lost to write errors since startup, records not flushed yet, flushes and products tracked.
+     */
+    public record JournalStats(int segments, long lastSequence, long appended, long failed, int unflushed,
+                               long flushes, int products) {
+    }
+
+    /**
+     * Starts before the web server, so no request is served before the journal is replayed
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock journal in " + directory.toAbsolutePath(), e);
+        }
+        long replayed = replay(1, (sequence, timestampMillis, productId, oldStock, newStock, origin) ->
+                lastStock.put(productId, newStock));
+        log.info("Replayed {} stock changes of {} products from {} journal segments in {} ms",
+                replayed, lastStock.size(), segments.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = fsyncInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flushSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            running = false;
+        } finally {
+            appendLock.unlock();
+        }
+        flusher.shutdownNow();
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Opens the existing segments, oldest first; the newest one stays writable for appends
+     */
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            StockJournalSegment segment = StockJournalSegment.open(files.get(i), i == files.size() - 1);
+            StockJournalSegment previous = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (previous != null && previous.firstSequence() + previous.size() != segment.firstSequence()) {
+                log.warn("Stock journal segment {} does not follow {}: records {} to {} are missing",
+                        segment.path().getFileName(), previous.path().getFileName(),
+                        previous.firstSequence() + previous.size(), segment.firstSequence() - 1);
+            }
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            roll();
+            return;
+        }
+        active = segments.get(segments.size() - 1);
+        nextSequence = active.firstSequence() + active.size();
+        lastTimestamp = active.size() > 0 ? active.timestampAt(active.size() - 1) : 0;
+    }
+
+    /**
+     * Starts a new segment; the flusher writes the rest of the previous one to disk
+     */
+    private void roll() throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%020d", nextSequence) + SEGMENT_SUFFIX);
+        StockJournalSegment segment = StockJournalSegment.create(path, nextSequence, segmentSize);
+        segments.add(segment);
+        active = segment;
+        if (flusher != null && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+            deleteExpiredSegments();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error flushing stock journal", e);
+        }
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        unflushed.set(0);
+        int flushed = 0;
+        for (StockJournalSegment segment : segments) {
+            flushed += segment.force();
+        }
+        if (flushed > 0) {
+            flushes.increment();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments whose newest record is older than the retention, at most once a minute
+     */
+    private void deleteExpiredSegments() {
+        long now = System.currentTimeMillis();
+        if (now < nextRetentionCheckAt) {
+            return;
+        }
+        nextRetentionCheckAt = now + RETENTION_CHECK_INTERVAL_MILLIS;
+        long expiredBefore = now - retention.toMillis();
+        for (StockJournalSegment segment : segments) {
+            if (segment == active
+                    || (segment.size() > 0 && segment.timestampAt(segment.size() - 1) >= expiredBefore)) {
+                return;
+            }
+            segments.remove(segment);
+            try {
+                Files.deleteIfExists(segment.path());
+                log.info("Deleted expired stock journal segment {}", segment.path().getFileName());
+            } catch (IOException e) {
+                log.warn("Cannot delete expired stock journal segment {}: {}", segment.path(), e.getMessage());
+            }
+        }
+    }
+}
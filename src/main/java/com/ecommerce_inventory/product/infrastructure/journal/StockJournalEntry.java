@@ -0,0 +1,34 @@
+package com.ecommerce_inventory.product.infrastructure.journal;
+
+import java.time.Instant;
+
+/**
+ * A stock change read back from the stock journal.
+ * @param sequence position of the change in the journal, starting at 1
+ * @param timestamp when the change was journaled
+ * @param productId the product ID
+ * @param oldStock the stock before the change, null if it was not known
+ * @param newStock the stock after the change
+ * @param origin the operation that made the change
+ */
+public record StockJournalEntry(long sequence, Instant timestamp, long productId, Integer oldStock, int newStock,
+                                Origin origin) {
+
+    /**
+     * Operation that made a stock change. The ordinal is stored in the journal,
+     * so new origins must be added at the end.
+     */
+    public enum Origin {
+        SET,
+        BULK,
+        RESERVE,
+        RELEASE,
+        ADJUST;
+
+        private static final Origin[] VALUES = values();
+
+        static Origin ofCode(int code) {
+            return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+        }
+    }
+}
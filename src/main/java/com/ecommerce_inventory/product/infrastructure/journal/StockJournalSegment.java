@@ -0,0 +1,228 @@
+package com.ecommerce_inventory.product.infrastructure.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One memory-mapped segment file of the stock journal.
+ * The file starts with a {@value #HEADER_SIZE}-byte header (magic number, format version,
+ * record size and the sequence of its first record) followed by fixed-size records of
+ * {@value #RECORD_SIZE} bytes: sequence, timestamp, product ID, old stock, new stock, origin
+ * and a checksum of the other fields, all little-endian. A record is valid when its sequence
+ * follows the previous one and its checksum matches, so a record torn by a crash ends the
+ * segment on recovery instead of being read back.
+ * Records are appended by one thread at a time (the journal append lock); any thread may
+ * read the records below {@link #size()} while appends continue.
+ */
+final class StockJournalSegment {
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 40;
+
+    private static final int MAGIC = 0x534A524E;
+    private static final int VERSION = 1;
+
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int PRODUCT_ID_OFFSET = 16;
+    private static final int OLD_STOCK_OFFSET = 24;
+    private static final int NEW_STOCK_OFFSET = 28;
+    private static final int ORIGIN_OFFSET = 32;
+    private static final int CHECKSUM_OFFSET = 36;
+
+    private final Path path;
+    private final long firstSequence;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile int size;
+    private int flushedSize;
+
+    private StockJournalSegment(Path path, long firstSequence, MappedByteBuffer buffer, int size) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.size = size;
+        this.flushedSize = size;
+    }
+
+    /**
+     * Creates a new empty segment file, mapped for appending
+     * @param path the file to create, which must not exist
+     * @param firstSequence the sequence of the first record of the segment
+     * @param segmentSize the size of the file in bytes
+     */
+    static StockJournalSegment create(Path path, long firstSequence, long segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between "
+                    + (HEADER_SIZE + RECORD_SIZE) + " bytes and 2 GB");
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putLong(16, firstSequence);
+        buffer.force(0, HEADER_SIZE);
+        return new StockJournalSegment(path, firstSequence, buffer, 0);
+    }
+
+    /**
+     * Opens an existing segment file and finds its last valid record
+     * @param path the segment file
+     * @param writable whether records will be appended to the segment
+     * @throws IOException if the file cannot be read or is not a journal segment
+     */
+    static StockJournalSegment open(Path path, boolean writable) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a stock journal segment: " + path);
+            }
+            buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not a stock journal segment: " + path);
+        }
+        long firstSequence = buffer.getLong(16);
+        int capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        int size = 0;
+        while (size < capacity && isValid(buffer, size, firstSequence + size)) {
+            size++;
+        }
+        return new StockJournalSegment(path, firstSequence, buffer, size);
+    }
+
+    /**
+     * Appends a record; callers must hold the journal append lock
+     * @return false if the segment is full and nothing was written
+     */
+    boolean append(long sequence, long timestampMillis, long productId, int oldStock, int newStock, int origin) {
+        int index = size;
+        if (index >= capacity) {
+            return false;
+        }
+        int position = HEADER_SIZE + index * RECORD_SIZE;
+        buffer.putLong(position + SEQUENCE_OFFSET, sequence);
+        buffer.putLong(position + TIMESTAMP_OFFSET, timestampMillis);
+        buffer.putLong(position + PRODUCT_ID_OFFSET, productId);
+        buffer.putInt(position + OLD_STOCK_OFFSET, oldStock);
+        buffer.putInt(position + NEW_STOCK_OFFSET, newStock);
+        buffer.putInt(position + ORIGIN_OFFSET, origin);
+        buffer.putInt(position + CHECKSUM_OFFSET,
+                checksum(sequence, timestampMillis, productId, oldStock, newStock, origin));
+        size = index + 1;
+        return true;
+    }
+
+    /**
+     * Writes the records appended since the last flush to the storage device
+     * @return the number of records flushed
+     */
+    int force() {
+        flushLock.lock();
+        try {
+            int end = size;
+            int flushed = end - flushedSize;
+            if (flushed > 0) {
+                buffer.force(HEADER_SIZE + flushedSize * RECORD_SIZE, flushed * RECORD_SIZE);
+                flushedSize = end;
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Passes the records from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) to a visitor
+     */
+    void visit(int fromIndex, int toIndex, StockJournalVisitor visitor) {
+        for (int index = fromIndex; index < toIndex; index++) {
+            int position = HEADER_SIZE + index * RECORD_SIZE;
+            visitor.visit(buffer.getLong(position + SEQUENCE_OFFSET),
+                    buffer.getLong(position + TIMESTAMP_OFFSET),
+                    buffer.getLong(position + PRODUCT_ID_OFFSET),
+                    buffer.getInt(position + OLD_STOCK_OFFSET),
+                    buffer.getInt(position + NEW_STOCK_OFFSET),
+                    StockJournalEntry.Origin.ofCode(buffer.getInt(position + ORIGIN_OFFSET)));
+        }
+    }
+
+    /**
+     * Returns the index of the first record journaled at or after a timestamp, by binary search;
+     * record timestamps never decrease
+     * @return the index, or {@link #size()} if every record is older
+     */
+    int indexOf(long timestampMillis, int size) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestampAt(middle) < timestampMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long timestampAt(int index) {
+        return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE + TIMESTAMP_OFFSET);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int index, long expectedSequence) {
+        int position = HEADER_SIZE + index * RECORD_SIZE;
+        long sequence = buffer.getLong(position + SEQUENCE_OFFSET);
+        return sequence == expectedSequence && buffer.getInt(position + CHECKSUM_OFFSET) == checksum(sequence,
+                buffer.getLong(position + TIMESTAMP_OFFSET),
+                buffer.getLong(position + PRODUCT_ID_OFFSET),
+                buffer.getInt(position + OLD_STOCK_OFFSET),
+                buffer.getInt(position + NEW_STOCK_OFFSET),
+                buffer.getInt(position + ORIGIN_OFFSET));
+    }
+
+    private static int checksum(long sequence, long timestampMillis, long productId, int oldStock, int newStock,
+                                int origin) {
+        long hash = mix(sequence ^ 0x9E3779B97F4A7C15L);
+        hash = mix(hash ^ timestampMillis);
+        hash = mix(hash ^ productId);
+        hash = mix(hash ^ (((long) oldStock << 32) | (newStock & 0xFFFFFFFFL)));
+        hash = mix(hash ^ origin);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce_inventory.product.infrastructure.journal;
+
+/**
+ * Receives the records of the stock journal during a replay, as primitives,
+ * so replaying millions of records allocates nothing per record.
+ */
+@FunctionalInterface
+public interface StockJournalVisitor {
+
+    /**
+     * Receives one record
+     * @param sequence position of the change in the journal
+     * @param timestampMillis when the change was journaled, in epoch milliseconds
+     * @param productId the product ID
+     * @param oldStock the stock before the change, or {@link StockChangeJournal#UNKNOWN_STOCK}
+     * @param newStock the stock after the change
+     * @param origin the operation that made the change
+     */
+    void visit(long sequence, long timestampMillis, long productId, int oldStock, int newStock,
+               StockJournalEntry.Origin origin);
+}
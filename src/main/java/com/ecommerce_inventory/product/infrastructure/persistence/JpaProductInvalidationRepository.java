@@ -0,0 +1,43 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Repository interface for ProductInvalidationEntity.
+ */
+@Repository
+public interface JpaProductInvalidationRepository extends JpaRepository<ProductInvalidationEntity, Long> {
+    
+    /**
+     * Finds the invalidations published after a version, oldest first
+     * @param version the last version already read
+     * @param limit the maximum number of invalidations to return
+     * @return the invalidations ordered by version
+     */
+    List<ProductInvalidationEntity> findByVersionGreaterThanOrderByVersionAsc(long version, Limit limit);
+    
+    /**
+     * Returns the version of the newest invalidation
+     * @return the highest version, empty if there are no invalidations
+     */
+    @Query("select max(i.version) from ProductInvalidationEntity i")
+    Optional<Long> findMaxVersion();
+    
+    /**
+     * Deletes the invalidations published before a time
+     * @param createdBefore the publication time before which invalidations are deleted
+     * @return the number of deleted invalidations
+     */
+    @Modifying
+    @Query("delete from ProductInvalidationEntity i where i.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -1,9 +1,13 @@
 package com.ecommerce_inventory.product.infrastructure.persistence;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JPA Repository interface for ProductEntity.
@@ -13,6 +17,23 @@ import java.util.List;
 @Repository
 public interface JpaProductRepository extends JpaRepository<ProductEntity, Long> {
     
+    /**
+     * Reads only the stock column of a product
+     * @param id the product ID
+     * @return Optional containing the stock if the product exists, empty otherwise
+     */
+    @Query("select p.stock from ProductEntity p where p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+    
+    /**
+     * Reads the IDs of the products in an ID range
+     * @param afterId the exclusive lower bound
+     * @param upToId the inclusive upper bound
+     * @return the IDs in the range, in ascending order
+     */
+    @Query("select p.id from ProductEntity p where p.id > :afterId and p.id <= :upToId order by p.id")
+    List<Long> findIdsInRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+    
     /**
      * Finds products by category
      * @param category the category to search for
@@ -21,9 +42,33 @@ public interface JpaProductRepository extends JpaRepository<ProductEntity, Long>
     List<ProductEntity> findByCategory(String category);
     
     /**
-     * Finds products by category ignoring case
-     * @param category the category to search for
+     * Finds products by normalized category key, using the category key index
+     * @param categoryKey the normalized category (see {@link ProductEntity#categoryKey(String)})
      * @return List of products in the specified category
      */
-    List<ProductEntity> findByCategoryIgnoreCase(String category);
+    List<ProductEntity> findByCategoryKey(String categoryKey);
+    
+    /**
+     * Counts the products with the given normalized category key
+     * @param categoryKey the normalized category
+     * @return the number of products in the category
+     */
+    long countByCategoryKey(String categoryKey);
+    
+    /**
+     * Finds the products following the given ID, ordered by ID
+     * @param id the ID to seek after
+     * @param limit the maximum number of products to return
+     * @return List of products with an ID greater than the given one
+     */
+    List<ProductEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    /**
+     * Finds the products of a category following the given ID, ordered by ID
+     * @param categoryKey the normalized category
+     * @param id the ID to seek after
+     * @param limit the maximum number of products to return
+     * @return List of products in the category with an ID greater than the given one
+     */
+    List<ProductEntity> findByCategoryKeyAndIdGreaterThanOrderByIdAsc(String categoryKey, Long id, Limit limit);
 }
\ No newline at end of file
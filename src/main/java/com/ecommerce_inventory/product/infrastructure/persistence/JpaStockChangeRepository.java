@@ -0,0 +1,78 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Repository interface for StockChangeEntity.
+ */
+@Repository
+public interface JpaStockChangeRepository extends JpaRepository<StockChangeEntity, Long> {
+    
+    /**
+     * Finds the changes due for delivery, oldest first, of the products with no change
+     * being delivered or waiting for a retry
+     * @param now the current time
+     * @param limit the maximum number of changes to return
+     * @return the due changes ordered by ID
+     */
+    @Query("select c from StockChangeEntity c where c.nextAttemptAt <= :now and not exists ("
+            + "select w.id from StockChangeEntity w where w.productId = c.productId and w.nextAttemptAt > :now) "
+            + "order by c.id")
+    List<StockChangeEntity> findDueOfIdleProducts(@Param("now") Instant now, Limit limit);
+    
+    /**
+     * Leases changes to a relay until the given time, so they are not claimed again while delivered
+     * @param ids the change IDs
+     * @param leaseUntil the end of the lease
+     * @return the number of updated changes
+     */
+    @Modifying
+    @Query("update StockChangeEntity c set c.nextAttemptAt = :leaseUntil where c.id in :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") Instant leaseUntil);
+    
+    /**
+     * Deletes the changes of a product up to a version
+     * @param productId the product ID
+     * @param productVersion the highest product version to delete
+     * @return the number of deleted changes
+     */
+    @Modifying
+    @Query("delete from StockChangeEntity c where c.productId = :productId and c.productVersion <= :productVersion")
+    int deleteUpToVersion(@Param("productId") Long productId, @Param("productVersion") long productVersion);
+    
+    /**
+     * Schedules another delivery attempt for a change
+     * @param id the change ID
+     * @param attempts the number of failed attempts so far
+     * @param notBefore the earliest time of the next attempt
+     * @return the number of updated changes
+     */
+    @Modifying
+    @Query("update StockChangeEntity c set c.attempts = :attempts, c.nextAttemptAt = :notBefore where c.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("attempts") int attempts, @Param("notBefore") Instant notBefore);
+    
+    /**
+     * Returns which of the given products have pending changes
+     * @param productIds the product IDs to check
+     * @return the distinct IDs of the products with pending changes
+     */
+    @Query("select distinct c.productId from StockChangeEntity c where c.productId in :productIds")
+    List<Long> findProductIdsWithChanges(@Param("productIds") Collection<Long> productIds);
+    
+    /**
+     * Returns when the oldest pending change was appended
+     * @return the oldest creation time, empty if there are no changes
+     */
+    @Query("select min(c.createdAt) from StockChangeEntity c")
+    Optional<Instant> findOldestCreatedAt();
+}
@@ -0,0 +1,46 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * JPA Entity for the write-behind queue.
+ * Each row is the latest stock update of a product acknowledged to a client and not yet
+ * accepted by the external product service; rows are deleted once delivered.
+ */
+@Entity
+@Table(name = "stock_write_behind", indexes = {
+    @Index(name = "idx_stock_write_behind_updated_at", columnList = "updated_at")
+})
+public class PendingStockUpdateEntity {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(nullable = false, length = 36)
+    private String token;
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Constructors
+    public PendingStockUpdateEntity() {}
+
+    // Getters
+    public Long getProductId() { return productId; }
+
+    public Integer getStock() { return stock; }
+
+    public String getToken() { return token; }
+
+    public String getNodeId() { return nodeId; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+}
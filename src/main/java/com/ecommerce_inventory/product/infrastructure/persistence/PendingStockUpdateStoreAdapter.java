@@ -0,0 +1,69 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import com.ecommerce_inventory.product.domain.PendingStockUpdate;
+import com.ecommerce_inventory.product.domain.PendingStockUpdateStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Adapter implementation of PendingStockUpdateStore backed by the {@code stock_write_behind} table.
+ * Each statement runs in its own transaction: saving is a PostgreSQL upsert on the product ID,
+ * and adoption claims abandoned rows with {@code FOR UPDATE SKIP LOCKED}, so two nodes never
+ * adopt the same row.
+ */
+@Repository
+public class PendingStockUpdateStoreAdapter implements PendingStockUpdateStore {
+    
+    private static final String SAVE_SQL = """
+            insert into stock_write_behind (product_id, stock, token, node_id, updated_at) values (?, ?, ?, ?, ?)
+            on conflict (product_id) do update set stock = excluded.stock, token = excluded.token,
+                node_id = excluded.node_id, updated_at = excluded.updated_at""";
+    
+    private static final String REMOVE_SQL = "delete from stock_write_behind where product_id = ? and token = ?";
+    
+    private static final String TOUCH_SQL =
+            "update stock_write_behind set updated_at = ? where product_id = ? and token = ?";
+    
+    private static final String ADOPT_SQL = """
+            update stock_write_behind w set node_id = ?, updated_at = ?
+            where w.product_id in (
+                select product_id from stock_write_behind
+                where (? and node_id = ?) or updated_at < ?
+                limit ? for update skip locked)
+            returning w.product_id, w.stock, w.token""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public PendingStockUpdateStoreAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void save(Long productId, int stock, String token, String nodeId) {
+        jdbcTemplate.update(SAVE_SQL, productId, stock, token, nodeId, Timestamp.from(Instant.now()));
+    }
+    
+    @Override
+    public void remove(Long productId, String token) {
+        jdbcTemplate.update(REMOVE_SQL, productId, token);
+    }
+    
+    @Override
+    public void touch(Long productId, String token) {
+        jdbcTemplate.update(TOUCH_SQL, Timestamp.from(Instant.now()), productId, token);
+    }
+    
+    @Override
+    public List<PendingStockUpdate> adopt(String nodeId, boolean includeOwned, Instant untouchedSince, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ADOPT_SQL,
+                (rs, rowNum) -> new PendingStockUpdate(rs.getLong(1), rs.getInt(2), rs.getString(3)),
+                nodeId, Timestamp.from(Instant.now()), includeOwned, nodeId, Timestamp.from(untouchedSince), limit);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates entity IDs from a database sequence allocated in blocks,
+ * keeping any ID already assigned to the entity.
+ * See {@link PooledSequenceGenerator}.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+    
+    /**
+     * Name of the database sequence
+     */
+    String name();
+    
+    /**
+     * Number of IDs reserved with each sequence call; must match the sequence increment
+     */
+    int allocationSize() default 50;
+}
@@ -0,0 +1,45 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence-based ID generator using Hibernate's pooled optimizer.
+ * Unlike identity columns, IDs are known before the INSERT is executed, so
+ * Hibernate can group inserts into JDBC batches, and a single sequence call
+ * reserves a whole block of IDs.
+ * Entities that already carry an ID (for example products imported with the
+ * ID used by the external catalog) are inserted with that ID.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    
+    private final PooledSequence config;
+    
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.config = config;
+    }
+    
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.name());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+    
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : generate(session, owner);
+    }
+}
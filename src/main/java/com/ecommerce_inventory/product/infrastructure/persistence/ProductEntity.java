@@ -5,16 +5,25 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Locale;
+
 /**
  * JPA Entity for Product persistence.
  * This class represents the database table structure
  * and is part of the infrastructure layer.
+ * The category is also stored normalized in the indexed {@code category_key}
+ * column, kept in sync with the category, so that case-insensitive category
+ * lookups can use the index instead of comparing {@code upper(category)}.
+ * The version column provides optimistic locking for entity updates; bulk stock
+ * statements increment it as well.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_category_key_id", columnList = "category_key, id")
+})
 public class ProductEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,6 +41,12 @@ public class ProductEntity {
     @Column(nullable = false)
     private String category;
 
+    @Column(name = "category_key")
+    private String categoryKey;
+
+    @Version
+    private Long version;
+
     // Constructors
     public ProductEntity() {}
 
@@ -42,6 +57,16 @@ public class ProductEntity {
         this.price = price;
         this.stock = stock;
         this.category = category;
+        this.categoryKey = categoryKey(category);
+    }
+
+    /**
+     * Normalizes a category for indexed lookups
+     * @param category the category as entered
+     * @return the trimmed, lower-cased category, or null if the category is null
+     */
+    public static String categoryKey(String category) {
+        return category != null ? category.trim().toLowerCase(Locale.ROOT) : null;
     }
 
     // Getters and setters
@@ -61,5 +86,12 @@ public class ProductEntity {
     public void setStock(Integer stock) { this.stock = stock; }
 
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryKey = categoryKey(category);
+    }
+
+    public String getCategoryKey() { return categoryKey; }
+
+    public Long getVersion() { return version; }
 }
\ No newline at end of file
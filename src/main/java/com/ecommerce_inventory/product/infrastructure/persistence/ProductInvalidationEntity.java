@@ -0,0 +1,45 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * JPA Entity for the cross-node product invalidation log.
+ * Each row announces that a product changed on one node, so the other nodes drop
+ * their cached copies; nodes read the rows with a version above the last one they saw.
+ * The version is an identity column without a sequence cache, so versions are assigned
+ * in insert order across nodes and a gap only lasts until the inserting transaction
+ * ends (or forever, if it rolls back).
+ * Rows are deleted once older than the configured retention.
+ */
+@Entity
+@Table(name = "product_invalidation", indexes = {
+    @Index(name = "idx_product_invalidation_created_at", columnList = "created_at")
+})
+public class ProductInvalidationEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long version;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Constructors
+    public ProductInvalidationEntity() {}
+
+    // Getters
+    public Long getVersion() { return version; }
+
+    public Long getProductId() { return productId; }
+
+    public String getNodeId() { return nodeId; }
+
+    public Instant getCreatedAt() { return createdAt; }
+}
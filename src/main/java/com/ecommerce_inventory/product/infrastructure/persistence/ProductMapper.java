@@ -31,6 +31,19 @@ public class ProductMapper {
         );
     }
     
+    /**
+     * Copies the state of a domain Product onto an existing ProductEntity, keeping its ID
+     * @param product the domain product
+     * @param entity the entity to update
+     */
+    public void copyToEntity(Product product, ProductEntity entity) {
+        entity.setName(product.name());
+        entity.setDescription(product.description());
+        entity.setPrice(product.price());
+        entity.setStock(product.stock());
+        entity.setCategory(product.category());
+    }
+    
     /**
      * Converts a ProductEntity to a domain Product
      * @param entity the ProductEntity
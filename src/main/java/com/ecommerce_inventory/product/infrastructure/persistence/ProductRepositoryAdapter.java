@@ -2,65 +2,531 @@ package com.ecommerce_inventory.product.infrastructure.persistence;
 
 import com.ecommerce_inventory.product.domain.Product;
 import com.ecommerce_inventory.product.domain.ProductRepository;
+import com.ecommerce_inventory.product.domain.ProductUpsertResult;
+import com.ecommerce_inventory.product.domain.StockChangeOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adapter implementation of ProductRepository.
  * This class implements the domain repository interface
  * and adapts it to work with JPA repositories.
+ * Every operation is timed under the {@code product.repository.operations} metric.
+ * Streaming operations use read-only queries with a JDBC fetch size and detach each
+ * entity once mapped, so the persistence context does not grow with the result set.
+ * Bulk upserts rely on sequence-generated IDs and the configured JDBC batch size, so
+ * inserts and updates are sent in batches; the persistence context is flushed and
+ * cleared after each call. Products inserted with an assigned ID move the ID sequence
+ * past that ID, so IDs generated later never collide with it.
+ * Stock decrements are conditional UPDATE statements that never load the entity;
+ * multi-product decrements are a single statement that locks the rows in product ID
+ * order first, so concurrent orders lock rows in the same order and cannot deadlock each other.
+ * Stock changes use {@code UPDATE ... RETURNING}, so the product is updated and read back,
+ * with the version the outbox entry is ordered by, in a single statement. With the stock
+ * outbox enabled every stock change made here, including decrements, is appended to it
+ * in the same transaction; otherwise no relay would ever drain the entries.
  */
 @Repository
 public class ProductRepositoryAdapter implements ProductRepository {
     
+    private static final String ADVANCE_ID_SEQUENCE_SQL =
+            "select setval('products_seq', greatest(?, nextval('products_seq')))";
+    
+    private static final String RETURNING_PRODUCT = " returning id, name, description, price, stock, category, version";
+    
+    private static final String DECREMENT_STOCK_RETURNING_SQL =
+            "update products set stock = stock - ?, version = version + 1 where id = ? and stock >= ?"
+                    + RETURNING_PRODUCT;
+    
+    private static final String DECREMENT_STOCKS_RETURNING_SQL =
+            "with requested as materialized ("
+                    + "select id, quantity from unnest(?::bigint[], ?::int[]) as line(id, quantity)), "
+                    + "locked as materialized ("
+                    + "select p.id from products p join requested r on r.id = p.id order by p.id for update of p) "
+                    + "update products p set stock = p.stock - r.quantity, version = p.version + 1 "
+                    + "from requested r join locked l on l.id = r.id "
+                    + "where p.id = r.id and p.stock >= r.quantity "
+                    + "returning p.id, p.name, p.description, p.price, p.stock, p.category, p.version";
+    
+    private static final String UPDATE_STOCK_RETURNING_SQL =
+            "update products set stock = ?, version = version + 1 where id = ?" + RETURNING_PRODUCT;
+    
+    private static final String ADJUST_STOCK_RETURNING_SQL =
+            "update products set stock = stock + ?, version = version + 1 where id = ? and stock between ? and ?"
+                    + RETURNING_PRODUCT;
+    
+    private static final RowMapper<VersionedProduct> VERSIONED_PRODUCT_MAPPER = (resultSet, rowNumber) ->
+            new VersionedProduct(new Product(
+                    resultSet.getLong("id"),
+                    resultSet.getString("name"),
+                    resultSet.getString("description"),
+                    resultSet.getDouble("price"),
+                    resultSet.getInt("stock"),
+                    resultSet.getString("category")), resultSet.getLong("version"));
+    
+    private record VersionedProduct(Product product, long version) {
+    }
+    
     private final JpaProductRepository jpaProductRepository;
     private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockChangeOutbox stockChangeOutbox;
+    private final boolean outboxEnabled;
+    private final int fetchSize;
+    private final Timer findAllTimer;
+    private final Timer findByIdTimer;
+    private final Timer findStockByIdTimer;
+    private final Timer findByCategoryTimer;
+    private final Timer findAllAfterTimer;
+    private final Timer findByCategoryAfterTimer;
+    private final Timer findIdsInRangeTimer;
+    private final Timer countTimer;
+    private final Timer countByCategoryTimer;
+    private final Timer streamAllTimer;
+    private final Timer streamByCategoryTimer;
+    private final Timer saveTimer;
+    private final Timer upsertAllTimer;
+    private final Timer updateStockTimer;
+    private final Timer updateStockAndRecordChangeTimer;
+    private final Timer adjustStockAndRecordChangeTimer;
+    private final Timer decrementStockTimer;
+    private final Timer decrementStocksTimer;
+    private final Timer deleteByIdTimer;
+    private final Timer deleteAllByIdTimer;
+    private final Timer existsByIdTimer;
     
     public ProductRepositoryAdapter(JpaProductRepository jpaProductRepository, 
-                                  ProductMapper productMapper) {
+                                  ProductMapper productMapper,
+                                  EntityManager entityManager,
+                                  JdbcTemplate jdbcTemplate,
+                                  StockChangeOutbox stockChangeOutbox,
+                                  @Value("${external.product.outbox.enabled:false}") boolean outboxEnabled,
+                                  @Value("${product.persistence.fetch-size:500}") int fetchSize,
+                                  MeterRegistry meterRegistry) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
         this.jpaProductRepository = jpaProductRepository;
         this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockChangeOutbox = stockChangeOutbox;
+        this.outboxEnabled = outboxEnabled;
+        this.fetchSize = fetchSize;
+        this.findAllTimer = operationTimer(meterRegistry, "findAll");
+        this.findByIdTimer = operationTimer(meterRegistry, "findById");
+        this.findStockByIdTimer = operationTimer(meterRegistry, "findStockById");
+        this.findByCategoryTimer = operationTimer(meterRegistry, "findByCategory");
+        this.findAllAfterTimer = operationTimer(meterRegistry, "findAllAfter");
+        this.findByCategoryAfterTimer = operationTimer(meterRegistry, "findByCategoryAfter");
+        this.findIdsInRangeTimer = operationTimer(meterRegistry, "findIdsInRange");
+        this.countTimer = operationTimer(meterRegistry, "count");
+        this.countByCategoryTimer = operationTimer(meterRegistry, "countByCategory");
+        this.streamAllTimer = operationTimer(meterRegistry, "streamAll");
+        this.streamByCategoryTimer = operationTimer(meterRegistry, "streamByCategory");
+        this.saveTimer = operationTimer(meterRegistry, "save");
+        this.upsertAllTimer = operationTimer(meterRegistry, "upsertAll");
+        this.updateStockTimer = operationTimer(meterRegistry, "updateStock");
+        this.updateStockAndRecordChangeTimer = operationTimer(meterRegistry, "updateStockAndRecordChange");
+        this.adjustStockAndRecordChangeTimer = operationTimer(meterRegistry, "adjustStockAndRecordChange");
+        this.decrementStockTimer = operationTimer(meterRegistry, "decrementStockIfAvailable");
+        this.decrementStocksTimer = operationTimer(meterRegistry, "decrementStocksIfAvailable");
+        this.deleteByIdTimer = operationTimer(meterRegistry, "deleteById");
+        this.deleteAllByIdTimer = operationTimer(meterRegistry, "deleteAllById");
+        this.existsByIdTimer = operationTimer(meterRegistry, "existsById");
     }
     
     @Override
     public List<Product> findAll() {
-        return jpaProductRepository.findAll()
-                .stream()
-                .map(productMapper::toDomain)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findAll()
+                    .stream()
+                    .map(productMapper::toDomain)
+                    .collect(Collectors.toList());
+        } finally {
+            findAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     @Override
     public Optional<Product> findById(Long id) {
-        return jpaProductRepository.findById(id)
-                .map(productMapper::toDomain);
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findById(id)
+                    .map(productMapper::toDomain);
+        } finally {
+            findByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public Optional<Integer> findStockById(Long id) {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findStockById(id);
+        } finally {
+            findStockByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     @Override
     public List<Product> findByCategory(String category) {
-        return jpaProductRepository.findByCategoryIgnoreCase(category)
-                .stream()
-                .map(productMapper::toDomain)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findByCategoryKey(ProductEntity.categoryKey(category))
+                    .stream()
+                    .map(productMapper::toDomain)
+                    .collect(Collectors.toList());
+        } finally {
+            findByCategoryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public List<Product> findAllAfter(Long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findByIdGreaterThanOrderByIdAsc(seekFrom(afterId), Limit.of(limit))
+                    .stream()
+                    .map(productMapper::toDomain)
+                    .collect(Collectors.toList());
+        } finally {
+            findAllAfterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public List<Product> findByCategoryAfter(String category, Long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findByCategoryKeyAndIdGreaterThanOrderByIdAsc(
+                            ProductEntity.categoryKey(category), seekFrom(afterId), Limit.of(limit))
+                    .stream()
+                    .map(productMapper::toDomain)
+                    .collect(Collectors.toList());
+        } finally {
+            findByCategoryAfterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
+    @Override
+    public List<Long> findIdsInRange(Long afterId, Long upToId) {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.findIdsInRange(seekFrom(afterId), upToId != null ? upToId : Long.MAX_VALUE);
+        } finally {
+            findIdsInRangeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public long count() {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.count();
+        } finally {
+            countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public long countByCategory(String category) {
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.countByCategoryKey(ProductEntity.categoryKey(category));
+        } finally {
+            countByCategoryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * The operation timer covers the whole lifetime of the stream, until it is closed.
+     */
+    @Override
+    public Stream<Product> streamAll() {
+        return stream(entityManager.createQuery(
+                "select p from ProductEntity p order by p.id", ProductEntity.class), streamAllTimer);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * The operation timer covers the whole lifetime of the stream, until it is closed.
+     */
+    @Override
+    public Stream<Product> streamByCategory(String category) {
+        return stream(entityManager.createQuery(
+                        "select p from ProductEntity p where p.categoryKey = :categoryKey order by p.id",
+                        ProductEntity.class)
+                .setParameter("categoryKey", ProductEntity.categoryKey(category)), streamByCategoryTimer);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * Existing products are loaded and updated in place, so the update is checked
+     * against the stored version instead of overwriting concurrent changes blindly.
+     */
     @Override
     public Product save(Product product) {
-        ProductEntity entity = productMapper.toEntity(product);
-        ProductEntity savedEntity = jpaProductRepository.save(entity);
-        return productMapper.toDomain(savedEntity);
+        long start = System.nanoTime();
+        try {
+            ProductEntity entity = Optional.ofNullable(product.id())
+                    .flatMap(jpaProductRepository::findById)
+                    .map(stored -> {
+                        productMapper.copyToEntity(product, stored);
+                        return stored;
+                    })
+                    .orElseGet(() -> productMapper.toEntity(product));
+            boolean assignedInsert = entity.getVersion() == null && entity.getId() != null;
+            ProductEntity savedEntity = jpaProductRepository.save(entity);
+            if (assignedInsert) {
+                entityManager.flush();
+                advanceIdSequence(savedEntity.getId());
+            }
+            return productMapper.toDomain(savedEntity);
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public ProductUpsertResult upsertAll(List<Product> products) {
+        long start = System.nanoTime();
+        try {
+            Map<Long, ProductEntity> stored = new HashMap<>();
+            List<Long> ids = products.stream().map(Product::id).filter(Objects::nonNull).distinct().toList();
+            for (ProductEntity entity : jpaProductRepository.findAllById(ids)) {
+                stored.put(entity.getId(), entity);
+            }
+            
+            int inserted = 0;
+            int updated = 0;
+            long maxAssignedId = 0L;
+            for (Product product : products) {
+                ProductEntity entity = product.id() != null ? stored.get(product.id()) : null;
+                if (entity == null) {
+                    entity = productMapper.toEntity(product);
+                    if (product.id() != null) {
+                        maxAssignedId = Math.max(maxAssignedId, product.id());
+                    }
+                    entityManager.persist(entity);
+                    stored.put(entity.getId(), entity);
+                    inserted++;
+                } else {
+                    productMapper.copyToEntity(product, entity);
+                    updated++;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            if (maxAssignedId > 0L) {
+                advanceIdSequence(maxAssignedId);
+            }
+            return new ProductUpsertResult(inserted, updated);
+        } finally {
+            upsertAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public boolean updateStock(Long id, int stock) {
+        long start = System.nanoTime();
+        try {
+            return update(UPDATE_STOCK_RETURNING_SQL, stock, id).isPresent();
+        } finally {
+            updateStockTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public Optional<Product> updateStockAndRecordChange(Long id, int stock) {
+        long start = System.nanoTime();
+        try {
+            return updateAndRecordChange(UPDATE_STOCK_RETURNING_SQL, stock, id);
+        } finally {
+            updateStockAndRecordChangeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * The allowed range of the current stock is computed up front, so the new stock
+     * can neither become negative nor overflow.
+     */
+    @Override
+    public Optional<Product> adjustStockAndRecordChange(Long id, int delta) {
+        long start = System.nanoTime();
+        try {
+            if (delta == Integer.MIN_VALUE) {
+                return Optional.empty();
+            }
+            int minStock = delta < 0 ? -delta : 0;
+            int maxStock = delta > 0 ? Integer.MAX_VALUE - delta : Integer.MAX_VALUE;
+            return updateAndRecordChange(ADJUST_STOCK_RETURNING_SQL, delta, id, minStock, maxStock);
+        } finally {
+            adjustStockAndRecordChangeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public Optional<Product> decrementStockIfAvailable(Long id, int quantity) {
+        long start = System.nanoTime();
+        try {
+            return update(DECREMENT_STOCK_RETURNING_SQL, quantity, id, quantity);
+        } finally {
+            decrementStockTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public List<Product> decrementStocksIfAvailable(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            List<Map.Entry<Long, Integer>> lines = quantities.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .toList();
+            Long[] ids = lines.stream().map(Map.Entry::getKey).toArray(Long[]::new);
+            Integer[] amounts = lines.stream().map(Map.Entry::getValue).toArray(Integer[]::new);
+            entityManager.flush();
+            List<VersionedProduct> decremented = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(DECREMENT_STOCKS_RETURNING_SQL);
+                statement.setArray(1, connection.createArrayOf("bigint", ids));
+                statement.setArray(2, connection.createArrayOf("integer", amounts));
+                return statement;
+            }, VERSIONED_PRODUCT_MAPPER);
+            List<Product> applied = new ArrayList<>(decremented.size());
+            for (VersionedProduct changed : decremented.stream()
+                    .sorted(Comparator.comparing(changed -> changed.product().id()))
+                    .toList()) {
+                recordChange(changed);
+                applied.add(changed.product());
+            }
+            return applied;
+        } finally {
+            decrementStocksTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     @Override
     public void deleteById(Long id) {
-        jpaProductRepository.deleteById(id);
+        long start = System.nanoTime();
+        try {
+            jpaProductRepository.deleteById(id);
+        } finally {
+            deleteByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            jpaProductRepository.deleteAllByIdInBatch(ids);
+        } finally {
+            deleteAllByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     @Override
     public boolean existsById(Long id) {
-        return jpaProductRepository.existsById(id);
+        long start = System.nanoTime();
+        try {
+            return jpaProductRepository.existsById(id);
+        } finally {
+            existsByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Optional<Product> updateAndRecordChange(String sql, Object... args) {
+        entityManager.flush();
+        List<VersionedProduct> updated = jdbcTemplate.query(sql, VERSIONED_PRODUCT_MAPPER, args);
+        if (updated.isEmpty()) {
+            return Optional.empty();
+        }
+        VersionedProduct changed = updated.get(0);
+        stockChangeOutbox.append(changed.product().id(), changed.product().stock(), changed.version());
+        return Optional.of(changed.product());
+    }
+    
+    /**
+     * Runs a stock update returning the changed product, and appends the change
+     * to the stock outbox when it is enabled
+     */
+    private Optional<Product> update(String sql, Object... args) {
+        entityManager.flush();
+        List<VersionedProduct> updated = jdbcTemplate.query(sql, VERSIONED_PRODUCT_MAPPER, args);
+        if (updated.isEmpty()) {
+            return Optional.empty();
+        }
+        VersionedProduct changed = updated.get(0);
+        recordChange(changed);
+        return Optional.of(changed.product());
+    }
+    
+    private void recordChange(VersionedProduct changed) {
+        if (outboxEnabled) {
+            stockChangeOutbox.append(changed.product().id(), changed.product().stock(), changed.version());
+        }
+    }
+    
+    /**
+     * Moves the ID sequence to at least the given ID. The pooled optimizer hands out the block
+     * ending at each sequence value, so every block fetched afterwards starts above the ID.
+     */
+    private void advanceIdSequence(long assignedId) {
+        jdbcTemplate.queryForObject(ADVANCE_ID_SEQUENCE_SQL, Long.class, assignedId);
+    }
+    
+    private Stream<Product> stream(TypedQuery<ProductEntity> query, Timer timer) {
+        long start = System.nanoTime();
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(this::toDetachedDomain)
+                .onClose(() -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+    
+    private Product toDetachedDomain(ProductEntity entity) {
+        entityManager.detach(entity);
+        return productMapper.toDomain(entity);
+    }
+    
+    private static Long seekFrom(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+    
+    private static Timer operationTimer(MeterRegistry meterRegistry, String method) {
+        return Timer.builder("product.repository.operations")
+                .description("Latency of product repository operations")
+                .tags("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * JPA Entity for the stock outbox.
+ * Each row is a stock change committed locally and not yet delivered to the
+ * external product service; rows are deleted once delivered or superseded.
+ */
+@Entity
+@Table(name = "stock_outbox", indexes = {
+    @Index(name = "idx_stock_outbox_product_version", columnList = "product_id, product_version")
+})
+public class StockChangeEntity {
+    @Id
+    @PooledSequence(name = "stock_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(name = "product_version", nullable = false)
+    private Long productVersion;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 36)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    // Constructors
+    public StockChangeEntity() {}
+
+    public StockChangeEntity(Long productId, Integer stock, Long productVersion, String idempotencyKey, Instant createdAt) {
+        this.productId = productId;
+        this.stock = stock;
+        this.productVersion = productVersion;
+        this.idempotencyKey = idempotencyKey;
+        this.attempts = 0;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getProductId() { return productId; }
+
+    public Integer getStock() { return stock; }
+
+    public Long getProductVersion() { return productVersion; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+
+    public Integer getAttempts() { return attempts; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+}
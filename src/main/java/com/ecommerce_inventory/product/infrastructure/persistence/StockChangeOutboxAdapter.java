@@ -0,0 +1,96 @@
+package com.ecommerce_inventory.product.infrastructure.persistence;
+
+import com.ecommerce_inventory.product.domain.StockChange;
+import com.ecommerce_inventory.product.domain.StockChangeOutbox;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Adapter implementation of StockChangeOutbox backed by the {@code stock_outbox} table.
+ * Claims take a PostgreSQL transaction-level advisory lock, so only one relay transaction
+ * across all nodes claims changes at a time; the lock is released when the claim commits.
+ * Claimed changes are leased by moving their next attempt past the delivery, and products
+ * with a leased change are not claimed again, so changes of a product are never delivered
+ * out of order.
+ */
+@Repository
+public class StockChangeOutboxAdapter implements StockChangeOutbox {
+    
+    private static final String TRY_CLAIM_SQL = "select pg_try_advisory_xact_lock(hashtext('stock_outbox'))";
+    
+    private final JpaStockChangeRepository jpaStockChangeRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    
+    public StockChangeOutboxAdapter(JpaStockChangeRepository jpaStockChangeRepository,
+                                    EntityManager entityManager,
+                                    JdbcTemplate jdbcTemplate) {
+        this.jpaStockChangeRepository = jpaStockChangeRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void append(Long productId, int stock, long productVersion) {
+        entityManager.persist(new StockChangeEntity(productId, stock, productVersion,
+                UUID.randomUUID().toString(), Instant.now()));
+    }
+    
+    @Override
+    public List<StockChange> claimDue(Instant now, Instant leaseUntil, int limit) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_CLAIM_SQL, Boolean.class))) {
+            return List.of();
+        }
+        List<StockChange> claimed = jpaStockChangeRepository.findDueOfIdleProducts(now, Limit.of(limit))
+                .stream()
+                .map(StockChangeOutboxAdapter::toDomain)
+                .toList();
+        if (!claimed.isEmpty()) {
+            jpaStockChangeRepository.lease(claimed.stream().map(StockChange::id).toList(), leaseUntil);
+        }
+        return claimed;
+    }
+    
+    @Override
+    public void removeUpToVersion(Long productId, long productVersion) {
+        jpaStockChangeRepository.deleteUpToVersion(productId, productVersion);
+    }
+    
+    @Override
+    public void retryLater(Long id, int attempts, Instant notBefore) {
+        jpaStockChangeRepository.scheduleRetry(id, attempts, notBefore);
+    }
+    
+    @Override
+    public Set<Long> productsWithPendingChanges(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaStockChangeRepository.findProductIdsWithChanges(productIds));
+    }
+    
+    @Override
+    public long countPending() {
+        return jpaStockChangeRepository.count();
+    }
+    
+    @Override
+    public Optional<Instant> oldestPendingCreatedAt() {
+        return jpaStockChangeRepository.findOldestCreatedAt();
+    }
+    
+    private static StockChange toDomain(StockChangeEntity entity) {
+        return new StockChange(entity.getId(), entity.getProductId(), entity.getStock(), entity.getProductVersion(),
+                entity.getIdempotencyKey(), entity.getAttempts(), entity.getCreatedAt());
+    }
+}
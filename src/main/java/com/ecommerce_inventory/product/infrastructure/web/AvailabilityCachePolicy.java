@@ -0,0 +1,52 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.ProductAvailability;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching rules for availability responses.
+ * The entity tag is built from the product ID, the stock and the stale flag, which is
+ * everything the response body is made of, so equal tags always mean equal bodies and
+ * a matching {@code If-None-Match} can be answered with {@code 304 Not Modified}.
+ * Fresh availability may be stored by shared caches for {@code max-age} and then served
+ * while revalidating for {@code stale-while-revalidate}; a stale fallback is never
+ * reused without revalidation, so caches pick up the real stock as soon as it is back.
+ */
+@Component
+class AvailabilityCachePolicy {
+
+    private final CacheControl freshCacheControl;
+    private final CacheControl staleCacheControl = CacheControl.noCache();
+
+    AvailabilityCachePolicy(@Value("${product.availability.http.max-age:5s}") Duration maxAge,
+                            @Value("${product.availability.http.stale-while-revalidate:10s}") Duration staleWhileRevalidate) {
+        if (maxAge.isNegative() || staleWhileRevalidate.isNegative()) {
+            throw new IllegalArgumentException("Availability max-age and stale-while-revalidate cannot be negative");
+        }
+        this.freshCacheControl = maxAge.isZero() && staleWhileRevalidate.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge).staleWhileRevalidate(staleWhileRevalidate).cachePublic();
+    }
+
+    /**
+     * Returns the strong entity tag of an availability response
+     * @param availability the product availability
+     * @return the quoted entity tag
+     */
+    String etag(ProductAvailability availability) {
+        return "\"" + availability.productId() + "-" + availability.stock() + (availability.stale() ? "-stale" : "") + "\"";
+    }
+
+    /**
+     * Returns the Cache-Control directives for an availability response
+     * @param availability the product availability
+     * @return the Cache-Control directives
+     */
+    CacheControl cacheControl(ProductAvailability availability) {
+        return availability.stale() ? staleCacheControl : freshCacheControl;
+    }
+}
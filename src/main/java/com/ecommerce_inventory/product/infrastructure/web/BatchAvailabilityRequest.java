@@ -0,0 +1,21 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for the batch availability endpoint.
+ * This record represents the JSON structure
+ * expected when checking several products at once.
+ */
+@Schema(description = "Request for checking the availability of several products")
+public record BatchAvailabilityRequest(
+    @Schema(description = "Product IDs to check, duplicates are ignored", example = "[1, 2, 3]")
+    @NotEmpty(message = "Product IDs cannot be empty")
+    @Size(max = 500, message = "At most 500 product IDs can be checked at once")
+    List<Long> productIds
+) {
+}
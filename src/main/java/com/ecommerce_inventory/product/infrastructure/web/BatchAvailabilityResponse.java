@@ -0,0 +1,28 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.ProductStockLookup;
+
+import java.util.List;
+
+/**
+ * Response DTO for the batch availability endpoint.
+ * Contains one result per distinct requested product,
+ * including products that could not be resolved.
+ */
+public record BatchAvailabilityResponse(
+    List<ProductAvailabilityResult> results
+) {
+    
+    /**
+     * Creates a BatchAvailabilityResponse from the stock lookups
+     * @param lookups the stock lookup results
+     * @return the corresponding BatchAvailabilityResponse
+     */
+    public static BatchAvailabilityResponse from(List<ProductStockLookup> lookups) {
+        return new BatchAvailabilityResponse(
+            lookups.stream()
+                .map(ProductAvailabilityResult::from)
+                .toList()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.BulkStockUpdateResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response DTO for the result of one line of a bulk stock update.
+ * The message is only present when the line was not applied.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkStockUpdateLineResponse(
+    long line,
+    Long productId,
+    Integer stock,
+    BulkStockUpdateResult.Status status,
+    String message
+) {
+    
+    /**
+     * Creates a BulkStockUpdateLineResponse from the result of a line
+     * @param result the result of the line
+     * @return the corresponding BulkStockUpdateLineResponse
+     */
+    public static BulkStockUpdateLineResponse from(BulkStockUpdateResult result) {
+        return new BulkStockUpdateLineResponse(
+            result.line(),
+            result.productId(),
+            result.stock(),
+            result.status(),
+            result.message()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Request DTO for one NDJSON line of the bulk stock update endpoint.
+ * The stock is validated with the same rules as {@link UpdateStockRequest}.
+ */
+@Schema(description = "One line of a bulk stock update")
+public record BulkStockUpdateRequest(
+    @Schema(description = "Product ID", example = "1")
+    Long productId,
+    @Schema(description = "New stock quantity", example = "14", minimum = "0")
+    Integer stock
+) {
+}
@@ -0,0 +1,38 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.BulkStockUpdateReport;
+
+/**
+ * Response DTO for the summary closing the report of the bulk stock update endpoint.
+ */
+public record BulkStockUpdateSummaryResponse(
+    long lines,
+    long updated,
+    long notFound,
+    long invalid,
+    long superseded,
+    long failed,
+    int chunks,
+    long durationMillis,
+    double linesPerSecond
+) {
+    
+    /**
+     * Creates a BulkStockUpdateSummaryResponse from the report of the run
+     * @param report the report of the bulk stock update run
+     * @return the corresponding BulkStockUpdateSummaryResponse
+     */
+    public static BulkStockUpdateSummaryResponse from(BulkStockUpdateReport report) {
+        return new BulkStockUpdateSummaryResponse(
+            report.lines(),
+            report.updated(),
+            report.notFound(),
+            report.invalid(),
+            report.superseded(),
+            report.failed(),
+            report.chunks(),
+            report.duration().toMillis(),
+            report.linesPerSecond()
+        );
+    }
+}
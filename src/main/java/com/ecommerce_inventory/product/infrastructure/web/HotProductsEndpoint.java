@@ -0,0 +1,48 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.infrastructure.external.HotProductTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/hotproducts}) exposing the current hot set:
+ * the most requested products with their estimated request rates, and the share
+ * of the sampled traffic they take.
+ */
+@Component
+@Endpoint(id = "hotproducts")
+public class HotProductsEndpoint {
+    
+    private final HotProductTracker hotProductTracker;
+    
+    public HotProductsEndpoint(HotProductTracker hotProductTracker) {
+        this.hotProductTracker = hotProductTracker;
+    }
+    
+    @ReadOperation
+    public HotProductsResponse hotProducts() {
+        HotProductTracker.HotKeyStats stats = hotProductTracker.stats();
+        return new HotProductsResponse(
+            hotProductTracker.isEnabled(),
+            hotProductTracker.isPinningEnabled(),
+            stats.sampledRequests(),
+            stats.hotShare(),
+            hotProductTracker.hotProducts()
+        );
+    }
+    
+    /**
+     * Response of the hot products endpoint, most requested products first.
+     */
+    public record HotProductsResponse(
+        boolean enabled,
+        boolean pinning,
+        long sampledRequests,
+        double hotShare,
+        List<HotProductTracker.HotProduct> products
+    ) {
+    }
+}
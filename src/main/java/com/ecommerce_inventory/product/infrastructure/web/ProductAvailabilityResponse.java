@@ -1,14 +1,19 @@
 package com.ecommerce_inventory.product.infrastructure.web;
 
+import com.ecommerce_inventory.product.application.ProductAvailability;
+
 /**
  * Response DTO for Product Availability API endpoint.
  * This record represents the JSON structure
  * returned by the availability endpoint.
+ * A stale response carries the last known good stock,
+ * served because the external service could not be reached.
  */
 public record ProductAvailabilityResponse(
     Long productId,
     Integer availableStock,
-    boolean inStock
+    boolean inStock,
+    boolean stale
 ) {
     
     /**
@@ -21,7 +26,22 @@ public record ProductAvailabilityResponse(
         return new ProductAvailabilityResponse(
             productId,
             stock,
-            stock != null && stock > 0
+            stock != null && stock > 0,
+            false
+        );
+    }
+    
+    /**
+     * Creates a ProductAvailabilityResponse from a product availability
+     * @param availability the product availability
+     * @return the corresponding ProductAvailabilityResponse
+     */
+    public static ProductAvailabilityResponse from(ProductAvailability availability) {
+        return new ProductAvailabilityResponse(
+            availability.productId(),
+            availability.stock(),
+            availability.stock() != null && availability.stock() > 0,
+            availability.stale()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.ProductStockLookup;
+
+/**
+ * Per-product entry of the batch availability response.
+ * The stock fields are only meaningful when the status is FOUND.
+ */
+public record ProductAvailabilityResult(
+    Long productId,
+    ProductStockLookup.Status status,
+    Integer availableStock,
+    boolean inStock,
+    boolean stale
+) {
+    
+    /**
+     * Creates a ProductAvailabilityResult from a stock lookup
+     * @param lookup the stock lookup result
+     * @return the corresponding ProductAvailabilityResult
+     */
+    public static ProductAvailabilityResult from(ProductStockLookup lookup) {
+        return new ProductAvailabilityResult(
+            lookup.productId(),
+            lookup.status(),
+            lookup.stock(),
+            lookup.stock() != null && lookup.stock() > 0,
+            lookup.stale()
+        );
+    }
+}
@@ -1,8 +1,20 @@
 package com.ecommerce_inventory.product.infrastructure.web;
 
+import com.ecommerce_inventory.product.application.BulkStockUpdateReport;
+import com.ecommerce_inventory.product.application.BulkUpdateStockUseCase;
+import com.ecommerce_inventory.product.application.ExportProductsUseCase;
 import com.ecommerce_inventory.product.application.GetProductAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.GetProductsAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.ImportProductsUseCase;
+import com.ecommerce_inventory.product.application.ListProductsUseCase;
+import com.ecommerce_inventory.product.application.ReserveLocalStockUseCase;
+import com.ecommerce_inventory.product.application.ProductAvailability;
 import com.ecommerce_inventory.product.application.UpdateProductStockUseCase;
 import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,10 +23,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,38 +52,207 @@ import java.util.Optional;
 @Tag(name = "Products", description = "Product management operations")
 public class ProductController {
     
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final GetProductAvailabilityUseCase getProductAvailabilityUseCase;
+    private final GetProductsAvailabilityUseCase getProductsAvailabilityUseCase;
     private final UpdateProductStockUseCase updateProductStockUseCase;
+    private final BulkUpdateStockUseCase bulkUpdateStockUseCase;
+    private final ListProductsUseCase listProductsUseCase;
+    private final ExportProductsUseCase exportProductsUseCase;
+    private final ImportProductsUseCase importProductsUseCase;
+    private final ReserveLocalStockUseCase reserveLocalStockUseCase;
+    private final AvailabilityCachePolicy availabilityCachePolicy;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
     
     public ProductController(
             GetProductAvailabilityUseCase getProductAvailabilityUseCase,
-            UpdateProductStockUseCase updateProductStockUseCase) {
+            GetProductsAvailabilityUseCase getProductsAvailabilityUseCase,
+            UpdateProductStockUseCase updateProductStockUseCase,
+            BulkUpdateStockUseCase bulkUpdateStockUseCase,
+            ListProductsUseCase listProductsUseCase,
+            ExportProductsUseCase exportProductsUseCase,
+            ImportProductsUseCase importProductsUseCase,
+            ReserveLocalStockUseCase reserveLocalStockUseCase,
+            AvailabilityCachePolicy availabilityCachePolicy,
+            Validator validator,
+            ObjectMapper objectMapper) {
         this.getProductAvailabilityUseCase = getProductAvailabilityUseCase;
+        this.getProductsAvailabilityUseCase = getProductsAvailabilityUseCase;
         this.updateProductStockUseCase = updateProductStockUseCase;
+        this.bulkUpdateStockUseCase = bulkUpdateStockUseCase;
+        this.listProductsUseCase = listProductsUseCase;
+        this.exportProductsUseCase = exportProductsUseCase;
+        this.importProductsUseCase = importProductsUseCase;
+        this.reserveLocalStockUseCase = reserveLocalStockUseCase;
+        this.availabilityCachePolicy = availabilityCachePolicy;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Lists products page by page using the product ID as cursor
+     * @param category Optional category to filter by
+     * @param afterId Cursor returned with the previous page
+     * @param size Maximum number of products in the page
+     * @return The page of products and the cursor of the next page
+     */
+    @GetMapping
+    @Operation(
+        summary = "List products",
+        description = "Lists products in ascending ID order using keyset pagination. " +
+                     "Pass the returned nextAfterId as afterId to read the next page; it is null on the last page."
+    )
+    public ResponseEntity<ProductPageResponse> listProducts(
+            @Parameter(description = "Category to filter by, case insensitive", example = "electronics")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Cursor returned with the previous page", example = "0")
+            @RequestParam(required = false) @Min(0) Long afterId,
+            @Parameter(description = "Maximum number of products in the page, up to product.catalog.max-page-size",
+                    example = "100")
+            @RequestParam(defaultValue = "100") int size) {
+        
+        return ResponseEntity.ok(ProductPageResponse.from(listProductsUseCase.execute(category, afterId, size)));
+    }
+    
+    /**
+     * Counts products, optionally in a single category
+     * @param category Optional category to filter by
+     * @return The number of matching products
+     */
+    @GetMapping("/count")
+    @Operation(
+        summary = "Count products",
+        description = "Returns the number of products, optionally restricted to a category, without listing them."
+    )
+    public ResponseEntity<ProductCountResponse> countProducts(
+            @Parameter(description = "Category to filter by, case insensitive", example = "electronics")
+            @RequestParam(required = false) String category) {
+        
+        return ResponseEntity.ok(new ProductCountResponse(category, listProductsUseCase.count(category)));
+    }
+    
+    /**
+     * Exports the product catalog as newline-delimited JSON
+     * @param category Optional category to filter by
+     * @return Streaming body writing one product per line
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(
+        summary = "Export products",
+        description = "Streams every product as newline-delimited JSON in ascending ID order. " +
+                     "Products are read with a database cursor, so the export runs in constant memory."
+    )
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Category to filter by, case insensitive", example = "electronics")
+            @RequestParam(required = false) String category) {
+        
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ProductResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                long exported = exportProductsUseCase.execute(category, product -> {
+                    try {
+                        writer.write(ProductResponse.from(product));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+                if (exported > 0) {
+                    outputStream.write('\n');
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
 
     
     /**
-     * Gets the availability (stock) of a specific product from external microservice
+     * Imports products from newline-delimited JSON, inserting new products and updating existing ones
+     * @param body Request body with one product per line
+     * @return Report of the import run
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(
+        summary = "Import products",
+        description = "Upserts products read as newline-delimited JSON, one product per line. " +
+                     "Lines with an ID update that product (or create it with that ID), lines without ID create a new one. " +
+                     "Products are stored in chunks, each committed in its own transaction; invalid lines are skipped."
+    )
+    public ResponseEntity<ProductImportResponse> importProducts(InputStream body) throws IOException {
+        try (MappingIterator<ProductImportRequest> lines = objectMapper.readerFor(ProductImportRequest.class)
+                .readValues(body)) {
+            ProductImportLines products = new ProductImportLines(lines);
+            return ResponseEntity.ok(ProductImportResponse.from(importProductsUseCase.execute(products),
+                    products.rejected()));
+        }
+    }
+    
+    /**
+     * Gets the availability (stock) of a specific product from external microservice.
+     * Responses carry an ETag and Cache-Control; a request whose If-None-Match
+     * matches the current availability is answered with 304 and no body.
      * @param id the product ID
      * @return The product availability information
      */
     @GetMapping("/{id}/availability")
-    @Operation(summary = "Get product availability", description = "Retrieves the available stock of a product from external microservice")
+    @Operation(
+        summary = "Get product availability",
+        description = "Retrieves the available stock of a product from external microservice. " +
+                     "When the external service is unavailable, the last known stock is returned flagged as stale."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product availability, possibly stale"),
+        @ApiResponse(responseCode = "304", description = "Availability unchanged since the ETag sent in If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Product not found in external service", content = @Content),
+        @ApiResponse(responseCode = "503", description = "External service unavailable and no recent stock known", content = @Content)
+    })
     public ResponseEntity<ProductAvailabilityResponse> getProductAvailability(
             @Parameter(description = "Product ID", example = "2")
             @PathVariable Long id) {
         
-        Optional<Integer> stock = getProductAvailabilityUseCase.execute(id);
+        Optional<ProductAvailability> availability = getProductAvailabilityUseCase.execute(id);
         
-        if (stock.isPresent()) {
-            ProductAvailabilityResponse response = ProductAvailabilityResponse.from(id, stock.get());
-            return ResponseEntity.ok(response);
+        if (availability.isPresent()) {
+            ProductAvailabilityResponse response = ProductAvailabilityResponse.from(availability.get());
+            return ResponseEntity.ok()
+                    .eTag(availabilityCachePolicy.etag(availability.get()))
+                    .cacheControl(availabilityCachePolicy.cacheControl(availability.get()))
+                    .body(response);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    /**
+     * Gets the availability of several products from external microservice in a single request
+     * @param request Request containing the product IDs to check
+     * @return One availability result per distinct product ID
+     */
+    @PostMapping("/availability")
+    @Operation(
+        summary = "Get availability of several products",
+        description = "Retrieves the available stock of several products from external microservice. " +
+                     "Lookups run concurrently and products that cannot be resolved before the batch deadline " +
+                     "are reported with a per-product status instead of failing the whole request."
+    )
+    public ResponseEntity<BatchAvailabilityResponse> getProductsAvailability(
+            @Parameter(
+                description = "Request body containing the product IDs to check",
+                required = true
+            )
+            @Valid @RequestBody BatchAvailabilityRequest request) {
+        
+        return ResponseEntity.ok(BatchAvailabilityResponse.from(
+                getProductsAvailabilityUseCase.execute(request.productIds())));
+    }
+    
     /**
      * Updates the stock of a product in the external microservice
      * @param id Product ID to update
@@ -91,8 +285,8 @@ public class ProductController {
             content = @Content
         ),
         @ApiResponse(
-            responseCode = "500", 
-            description = "Internal server error or external service unavailable",
+            responseCode = "503", 
+            description = "External service unavailable",
             content = @Content
         )
     })
@@ -118,4 +312,148 @@ public class ProductController {
         }
     }
     
-}
\ No newline at end of file
+    /**
+     * Updates the stock of many products from a streamed CSV or NDJSON body
+     * @param contentType Format of the body, {@code text/csv} or {@code application/x-ndjson}
+     * @param body Request body with one stock update per line
+     * @return Streaming body writing the result of each line followed by a summary
+     */
+    @PostMapping(value = "/stock/bulk", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @Operation(
+        summary = "Bulk update product stock",
+        description = "Sets the stock of many products from a CSV (productId,stock, optional header) or NDJSON " +
+                     "({\"productId\":1,\"stock\":14}) body, parsed line by line as it arrives. " +
+                     "Each line is validated like a single stock update and applied in chunks by parallel workers; " +
+                     "when a product appears several times in a chunk only its last line is applied. " +
+                     "The response streams one NDJSON result per line, in line order, and ends with a summary line."
+    )
+    public ResponseEntity<StreamingResponseBody> bulkUpdateStock(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        
+        StockUpdateLines.Format format = contentType.isCompatibleWith(APPLICATION_NDJSON)
+                ? StockUpdateLines.Format.NDJSON
+                : StockUpdateLines.Format.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        StreamingResponseBody responseBody = outputStream -> {
+            StockUpdateLines lines = new StockUpdateLines(new BufferedReader(new InputStreamReader(body, charset)),
+                    format, objectMapper.readerFor(BulkStockUpdateRequest.class), validator);
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                BulkStockUpdateReport report = bulkUpdateStockUseCase.execute(lines, result -> {
+                    try {
+                        writer.write(BulkStockUpdateLineResponse.from(result));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.write(Map.of("summary", BulkStockUpdateSummaryResponse.from(report)));
+                writer.flush();
+                outputStream.write('\n');
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(responseBody);
+    }
+    
+    /**
+     * Reserves stock of a product, decrementing it in the external microservice
+     * @param id Product ID to reserve stock for
+     * @param request Request containing the quantity to reserve
+     * @return Updated product information, 404 if not found or 409 if there is not enough stock
+     */
+    @PostMapping("/{id}/stock/reserve")
+    @Operation(
+        summary = "Reserve product stock",
+        description = "Decrements the stock of a product by the given quantity. " +
+                     "The request is rejected when the product does not have enough stock."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock reserved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Product not found in external service", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Not enough stock to reserve the quantity", content = @Content)
+    })
+    public ResponseEntity<ExternalProductDto> reserveProductStock(
+            @Parameter(description = "Product ID", example = "1", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockQuantityRequest request) {
+        
+        return ResponseEntity.of(updateProductStockUseCase.reserve(id, request.quantity()));
+    }
+    
+    /**
+     * Releases previously reserved stock of a product, incrementing it in the external microservice
+     * @param id Product ID to release stock for
+     * @param request Request containing the quantity to release
+     * @return Updated product information or 404 if not found
+     */
+    @PostMapping("/{id}/stock/release")
+    @Operation(
+        summary = "Release product stock",
+        description = "Increments the stock of a product by the given quantity, typically to undo a reservation."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock released successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Product not found in external service", content = @Content)
+    })
+    public ResponseEntity<ExternalProductDto> releaseProductStock(
+            @Parameter(description = "Product ID", example = "1", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockQuantityRequest request) {
+        
+        return ResponseEntity.of(updateProductStockUseCase.release(id, request.quantity()));
+    }
+    
+    /**
+     * Adjusts the stock of a product by a relative amount in the external microservice
+     * @param id Product ID to adjust
+     * @param request Request containing the stock delta
+     * @return Updated product information, 404 if not found or 409 if the stock would become negative
+     */
+    @PostMapping("/{id}/stock/adjust")
+    @Operation(
+        summary = "Adjust product stock",
+        description = "Adds a positive or negative delta to the stock of a product. " +
+                     "The request is rejected when the resulting stock would be negative."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock adjusted successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Product not found in external service", content = @Content),
+        @ApiResponse(responseCode = "409", description = "The adjustment would make the stock negative", content = @Content)
+    })
+    public ResponseEntity<ExternalProductDto> adjustProductStock(
+            @Parameter(description = "Product ID", example = "1", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        
+        return ResponseEntity.of(updateProductStockUseCase.adjust(id, request.delta()));
+    }
+    
+    /**
+     * Reserves the stock of the lines of an order for products stored in the local database
+     * @param request Request containing the order lines
+     * @return 204 if every line was reserved, 409 if any product lacks stock
+     */
+    @PostMapping("/stock/reservations")
+    @Operation(
+        summary = "Reserve local stock for an order",
+        description = "Atomically decrements the stock of every line in the local database. " +
+                     "Either all lines are reserved or none is; products that do not exist count as having no stock."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "All lines reserved"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
+        @ApiResponse(responseCode = "409", description = "A product does not have enough stock", content = @Content)
+    })
+    public ResponseEntity<Void> reserveLocalStock(@Valid @RequestBody StockReservationRequest request) {
+        reserveLocalStockUseCase.execute(request.quantitiesByProduct());
+        return ResponseEntity.noContent().build();
+    }
+    
+}
@@ -0,0 +1,11 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+/**
+ * Response DTO for the product count endpoint.
+ * The category is null when every product was counted.
+ */
+public record ProductCountResponse(
+    String category,
+    long count
+) {
+}
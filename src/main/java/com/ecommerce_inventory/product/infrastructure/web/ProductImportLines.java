@@ -0,0 +1,47 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.domain.Product;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily converts parsed import lines to domain products,
+ * skipping and counting the lines that fail validation.
+ */
+class ProductImportLines implements Iterator<Product> {
+    
+    private final Iterator<ProductImportRequest> lines;
+    private Product next;
+    private long rejected;
+    
+    ProductImportLines(Iterator<ProductImportRequest> lines) {
+        this.lines = lines;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (next == null && lines.hasNext()) {
+            try {
+                next = lines.next().toDomain();
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        return next != null;
+    }
+    
+    @Override
+    public Product next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Product product = next;
+        next = null;
+        return product;
+    }
+    
+    long rejected() {
+        return rejected;
+    }
+}
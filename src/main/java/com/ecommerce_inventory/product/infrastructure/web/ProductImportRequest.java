@@ -0,0 +1,33 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.domain.Product;
+
+/**
+ * Request DTO for one line of the product import endpoint.
+ * Lines with an ID update that product or create it with the given ID;
+ * lines without ID create a new product.
+ */
+public record ProductImportRequest(
+    Long id,
+    String name,
+    String description,
+    Double price,
+    Integer stock,
+    String category
+) {
+    
+    /**
+     * Converts the request to a domain Product
+     * @return the corresponding domain Product
+     * @throws IllegalArgumentException if the product is not valid
+     */
+    public Product toDomain() {
+        if (id != null && id <= 0) {
+            throw new IllegalArgumentException("Product ID must be a positive number");
+        }
+        if (category == null || category.isBlank()) {
+            throw new IllegalArgumentException("Product category cannot be null or empty");
+        }
+        return new Product(id, name, description, price, stock, category);
+    }
+}
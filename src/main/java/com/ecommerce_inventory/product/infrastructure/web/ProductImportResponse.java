@@ -0,0 +1,36 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.ImportReport;
+
+/**
+ * Response DTO for the product import endpoint.
+ * Rejected lines failed validation and were skipped.
+ */
+public record ProductImportResponse(
+    long imported,
+    long inserted,
+    long updated,
+    long rejected,
+    int chunks,
+    long durationMillis,
+    double productsPerSecond
+) {
+    
+    /**
+     * Creates a ProductImportResponse from the import report
+     * @param report the report of the import run
+     * @param rejected the number of lines skipped because they were invalid
+     * @return the corresponding ProductImportResponse
+     */
+    public static ProductImportResponse from(ImportReport report, long rejected) {
+        return new ProductImportResponse(
+            report.processed(),
+            report.inserted(),
+            report.updated(),
+            rejected,
+            report.chunks(),
+            report.duration().toMillis(),
+            report.productsPerSecond()
+        );
+    }
+}
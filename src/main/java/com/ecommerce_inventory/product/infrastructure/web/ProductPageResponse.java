@@ -0,0 +1,30 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.ProductPage;
+
+import java.util.List;
+
+/**
+ * Response DTO for the paginated product listing endpoint.
+ * The next page is requested by passing {@code nextAfterId} as the
+ * {@code afterId} parameter; it is null on the last page.
+ */
+public record ProductPageResponse(
+    List<ProductResponse> products,
+    Long nextAfterId
+) {
+    
+    /**
+     * Creates a ProductPageResponse from a page of products
+     * @param page the page of products
+     * @return the corresponding ProductPageResponse
+     */
+    public static ProductPageResponse from(ProductPage page) {
+        return new ProductPageResponse(
+            page.products().stream()
+                .map(ProductResponse::from)
+                .toList(),
+            page.nextAfterId()
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.domain.InsufficientStockException;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalServiceUnavailableException;
+import com.ecommerce_inventory.product.infrastructure.external.ProductChangedException;
+import com.ecommerce_inventory.product.infrastructure.external.StockUpdateRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates domain exceptions raised by the use cases
+ * into HTTP error responses.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+    
+    /**
+     * Maps a rejected stock change to 409 Conflict
+     * @param e the exception raised by the use case
+     * @return problem detail describing the conflict
+     */
+    @ExceptionHandler(InsufficientStockException.class)
+    public ProblemDetail handleInsufficientStock(InsufficientStockException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setTitle("Insufficient stock");
+        problem.setProperty("productId", e.getProductId());
+        problem.setProperty("availableStock", e.getAvailableStock());
+        problem.setProperty("requestedChange", e.getRequestedChange());
+        return problem;
+    }
+    
+    /**
+     * Maps a relative stock change that kept conflicting with changes made elsewhere to 409 Conflict
+     * @param e the exception raised by the conditional update
+     * @return problem detail asking the client to retry
+     */
+    @ExceptionHandler(ProductChangedException.class)
+    public ProblemDetail handleProductChanged(ProductChangedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setTitle("Concurrent stock change");
+        return problem;
+    }
+    
+    /**
+     * Maps a request rejected by the use case validation, such as a page size
+     * over {@code product.catalog.max-page-size}, to 400 Bad Request
+     * @param e the exception raised by the use case
+     * @return problem detail describing the invalid input
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleIllegalArgument(IllegalArgumentException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Invalid request");
+        return problem;
+    }
+    
+    /**
+     * Maps a stock update that could not be queued to 503 Service Unavailable
+     * @param e the exception raised while queuing the update
+     * @return problem detail asking the client to retry later
+     */
+    @ExceptionHandler(StockUpdateRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleStockUpdateRejected(StockUpdateRejectedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Stock update rejected");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+    
+    /**
+     * Maps an unreachable or rejected external service call to 503 Service Unavailable
+     * @param e the exception raised by the external service adapter
+     * @return problem detail describing the outage
+     */
+    @ExceptionHandler(ExternalServiceUnavailableException.class)
+    public ProblemDetail handleExternalServiceUnavailable(ExternalServiceUnavailableException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("External product service unavailable");
+        return problem;
+    }
+}
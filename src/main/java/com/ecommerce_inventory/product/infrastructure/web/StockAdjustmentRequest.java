@@ -0,0 +1,17 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for adjusting product stock by a relative amount.
+ * This record represents the JSON structure
+ * expected by the stock adjustment endpoint.
+ */
+@Schema(description = "Request for adjusting product stock by a relative amount")
+public record StockAdjustmentRequest(
+    @Schema(description = "Amount to add to the stock, negative to remove stock", example = "-3")
+    @NotNull(message = "Delta cannot be null")
+    Integer delta
+) {
+}
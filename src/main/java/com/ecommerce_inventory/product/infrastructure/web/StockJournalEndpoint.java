@@ -0,0 +1,69 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.infrastructure.journal.StockChangeJournal;
+import com.ecommerce_inventory.product.infrastructure.journal.StockJournalEntry;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/stockjournal}) for reading the stock change journal
+ * by time range: {@code from} and {@code to} are ISO-8601 instants (the last hour by default),
+ * optionally filtered by {@code productId} and capped by {@code limit}.
+ */
+@Component
+@Endpoint(id = "stockjournal")
+public class StockJournalEndpoint {
+    
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10_000;
+    
+    private final StockChangeJournal stockChangeJournal;
+    
+    public StockJournalEndpoint(StockChangeJournal stockChangeJournal) {
+        this.stockChangeJournal = stockChangeJournal;
+    }
+    
+    @ReadOperation
+    public StockJournalResponse changes(@OptionalParameter String from, @OptionalParameter String to,
+                                        @OptionalParameter Long productId, @OptionalParameter Integer limit) {
+        Instant end = to != null ? parse("to", to) : Instant.now();
+        Instant start = from != null ? parse("from", from) : end.minus(DEFAULT_RANGE);
+        int maxChanges = limit != null ? limit : DEFAULT_LIMIT;
+        if (maxChanges <= 0 || maxChanges > MAX_LIMIT) {
+            throw new InvalidEndpointRequestException("limit must be between 1 and " + MAX_LIMIT, "Invalid limit");
+        }
+        return new StockJournalResponse(
+            stockChangeJournal.isEnabled(),
+            stockChangeJournal.stats(),
+            stockChangeJournal.changes(start, end, productId, maxChanges)
+        );
+    }
+    
+    private static Instant parse(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidEndpointRequestException(name + " must be an ISO-8601 instant, such as 2024-01-31T10:15:30Z",
+                    "Invalid " + name, e);
+        }
+    }
+    
+    /**
+     * Response of the stock journal endpoint, oldest change first.
+     */
+    public record StockJournalResponse(
+        boolean enabled,
+        StockChangeJournal.JournalStats stats,
+        List<StockJournalEntry> changes
+    ) {
+    }
+}
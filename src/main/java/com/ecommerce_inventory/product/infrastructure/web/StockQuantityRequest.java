@@ -0,0 +1,19 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for reserving or releasing product stock.
+ * This record represents the JSON structure
+ * expected by the reserve and release endpoints.
+ */
+@Schema(description = "Request for reserving or releasing product stock")
+public record StockQuantityRequest(
+    @Schema(description = "Quantity to reserve or release", example = "2", minimum = "1")
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 1, message = "Quantity must be positive")
+    Integer quantity
+) {
+}
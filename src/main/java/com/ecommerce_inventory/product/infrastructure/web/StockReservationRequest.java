@@ -0,0 +1,51 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Request DTO for reserving the stock of several locally stored products at once.
+ * This record represents the JSON structure
+ * expected when reserving the lines of an order.
+ */
+@Schema(description = "Request for reserving the stock of the lines of an order")
+public record StockReservationRequest(
+    @Schema(description = "Order lines; lines for the same product are added up")
+    @NotEmpty(message = "Lines cannot be empty")
+    @Size(max = 500, message = "At most 500 lines can be reserved at once")
+    List<@Valid @NotNull Line> lines
+) {
+    
+    /**
+     * One order line.
+     */
+    @Schema(description = "Quantity to reserve for one product")
+    public record Line(
+        @Schema(description = "Product ID", example = "1")
+        @NotNull(message = "Product ID cannot be null")
+        @Min(value = 1, message = "Product ID must be positive")
+        Long productId,
+        
+        @Schema(description = "Quantity to reserve", example = "2", minimum = "1")
+        @NotNull(message = "Quantity cannot be null")
+        @Min(value = 1, message = "Quantity must be positive")
+        Integer quantity
+    ) {
+    }
+    
+    /**
+     * Returns the total quantity to reserve for each product
+     * @return quantities by product ID
+     */
+    public Map<Long, Integer> quantitiesByProduct() {
+        return lines.stream().collect(Collectors.toMap(Line::productId, Line::quantity, Math::addExact));
+    }
+}
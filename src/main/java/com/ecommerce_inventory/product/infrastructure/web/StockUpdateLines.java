@@ -0,0 +1,204 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.StockUpdateLine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Lazily parses the body of a bulk stock update, one line at a time, so the body is never
+ * buffered as a whole. Lines are CSV ({@code productId,stock}, with an optional header naming
+ * the columns) or NDJSON ({@code {"productId":1,"stock":14}}). Blank lines are skipped; lines
+ * that cannot be parsed, are longer than {@value #MAX_LINE_LENGTH} characters or fail the
+ * {@link UpdateStockRequest} validation are returned as invalid, with the reason.
+ */
+class StockUpdateLines implements Iterator<StockUpdateLine> {
+    
+    static final int MAX_LINE_LENGTH = 1024;
+    
+    /**
+     * Format of the request body
+     */
+    enum Format {
+        CSV,
+        NDJSON
+    }
+    
+    private final Reader reader;
+    private final Format format;
+    private final ObjectReader lineReader;
+    private final Validator validator;
+    private final StringBuilder buffer = new StringBuilder();
+    private long lineNumber;
+    private boolean headerChecked;
+    private int productIdColumn = 0;
+    private int stockColumn = 1;
+    private boolean lineTooLong;
+    private boolean endOfInput;
+    private StockUpdateLine next;
+    
+    StockUpdateLines(Reader reader, Format format, ObjectReader lineReader, Validator validator) {
+        this.reader = reader;
+        this.format = format;
+        this.lineReader = lineReader;
+        this.validator = validator;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (next == null && !endOfInput) {
+            String line = readLine();
+            if (line == null) {
+                endOfInput = true;
+                break;
+            }
+            lineNumber++;
+            if (lineTooLong) {
+                next = StockUpdateLine.invalid(lineNumber, null, null,
+                        "Line longer than " + MAX_LINE_LENGTH + " characters");
+            } else if (!line.isBlank()) {
+                next = parse(line.strip());
+            }
+        }
+        return next != null;
+    }
+    
+    @Override
+    public StockUpdateLine next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        StockUpdateLine line = next;
+        next = null;
+        return line;
+    }
+    
+    private StockUpdateLine parse(String line) {
+        if (format == Format.NDJSON) {
+            try {
+                BulkStockUpdateRequest request = lineReader.readValue(line);
+                if (request == null) {
+                    return StockUpdateLine.invalid(lineNumber, null, null, "Malformed JSON line");
+                }
+                return validate(request.productId(), request.stock());
+            } catch (JsonProcessingException e) {
+                return StockUpdateLine.invalid(lineNumber, null, null, "Malformed JSON line");
+            }
+        }
+        
+        String[] fields = line.split(",", -1);
+        if (!headerChecked) {
+            headerChecked = true;
+            if (!isNumber(unquote(fields[0]))) {
+                return readHeader(fields);
+            }
+        }
+        if (fields.length <= Math.max(productIdColumn, stockColumn)) {
+            return StockUpdateLine.invalid(lineNumber, null, null, "Expected the columns productId and stock");
+        }
+        Long productId;
+        Integer stock;
+        try {
+            productId = Long.valueOf(unquote(fields[productIdColumn]));
+        } catch (NumberFormatException e) {
+            return StockUpdateLine.invalid(lineNumber, null, null, "Product ID must be a number");
+        }
+        try {
+            stock = Integer.valueOf(unquote(fields[stockColumn]));
+        } catch (NumberFormatException e) {
+            return StockUpdateLine.invalid(lineNumber, productId, null, "Stock must be an integer number");
+        }
+        return validate(productId, stock);
+    }
+    
+    /**
+     * Takes the column positions from the CSV header
+     * @return null if the header names both columns, the header reported as invalid otherwise
+     */
+    private StockUpdateLine readHeader(String[] fields) {
+        int productId = -1;
+        int stock = -1;
+        for (int i = 0; i < fields.length; i++) {
+            String name = unquote(fields[i]).toLowerCase(Locale.ROOT).replace("_", "");
+            if (name.equals("productid") || name.equals("id")) {
+                productId = i;
+            } else if (name.equals("stock")) {
+                stock = i;
+            }
+        }
+        if (productId < 0 || stock < 0) {
+            return StockUpdateLine.invalid(lineNumber, null, null, "CSV header must name the columns productId and stock");
+        }
+        productIdColumn = productId;
+        stockColumn = stock;
+        return null;
+    }
+    
+    private StockUpdateLine validate(Long productId, Integer stock) {
+        if (productId == null || productId <= 0) {
+            return StockUpdateLine.invalid(lineNumber, productId, stock, "Product ID must be a positive number");
+        }
+        String violations = validator.validate(new UpdateStockRequest(stock)).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return violations.isEmpty()
+                ? StockUpdateLine.valid(lineNumber, productId, stock)
+                : StockUpdateLine.invalid(lineNumber, productId, stock, violations);
+    }
+    
+    /**
+     * Reads the next line without its terminator, truncated to the maximum length
+     * and flagging {@code lineTooLong} when it is longer
+     * @return the line, or null at the end of the input
+     */
+    private String readLine() {
+        buffer.setLength(0);
+        lineTooLong = false;
+        try {
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    return buffer.toString();
+                }
+                if (c == '\r') {
+                    continue;
+                }
+                if (buffer.length() < MAX_LINE_LENGTH) {
+                    buffer.append((char) c);
+                } else {
+                    lineTooLong = true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.isEmpty() && !lineTooLong ? null : buffer.toString();
+    }
+    
+    private static String unquote(String field) {
+        String value = field.strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).strip();
+        }
+        return value;
+    }
+    
+    private static boolean isNumber(String value) {
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor starting one virtual thread per task, with a cap on how many tasks run at once.
+ * Tasks over the cap wait for a permit on their own virtual thread, which costs a few
+ * hundred bytes of heap instead of a queued slot in a platform thread pool, so the cap
+ * only limits concurrency towards the downstream resource, not memory.
+ * The number of tasks waiting for a permit is capped as well: tasks over both caps are
+ * rejected with a {@link RejectedExecutionException}, like a thread pool with a bounded queue.
+ */
+public class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+    
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final Semaphore admissions;
+    
+    /**
+     * Creates the executor
+     * @param namePrefix prefix of the virtual thread names
+     * @param maxConcurrency maximum number of tasks running at the same time
+     * @param maxWaiting maximum number of tasks waiting for one of the running tasks to finish
+     */
+    public BoundedVirtualThreadExecutor(String namePrefix, int maxConcurrency, int maxWaiting) {
+        if (maxConcurrency <= 0 || maxWaiting < 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive and max waiting not negative");
+        }
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.admissions = new Semaphore(maxConcurrency + maxWaiting);
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        if (!admissions.tryAcquire()) {
+            throw new RejectedExecutionException("Too many tasks running or waiting to run");
+        }
+        try {
+            threads.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    admissions.release();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                    admissions.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admissions.release();
+            throw e;
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+    
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Hash map from primitive {@code long} keys to primitive {@code int} values,
+ * built for read-mostly workloads over millions of keys.
+ * Entries live in two parallel arrays with linear probing (open addressing), so the
+ * map costs 12 bytes per slot, with no per-entry objects and no boxing. A full table
+ * grows by a sixteenth of its entries, which keeps the load factor between 0.75 and
+ * its maximum of 0.8, or 15 to 16 bytes per entry; growing in small steps copies the
+ * table more often, so maps expected to hold millions of keys should be pre-sized.
+ * Reads are optimistic: they run without locking and are validated against the
+ * {@link StampedLock} stamp afterwards (seqlock style), retrying under the read lock
+ * only if a write happened meanwhile. Writes are serialized by the write lock.
+ * Key {@code 0} is reserved to mark free slots and cannot be stored.
+ */
+public class ConcurrentLongIntMap {
+
+    private static final long FREE = 0L;
+    private static final double MAX_LOAD_FACTOR = 0.8;
+    private static final int GROWTH_DIVISOR = 16;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private Table table;
+    private int size;
+
+    /**
+     * Creates the map
+     * @param expectedSize number of entries the map should hold without resizing
+     */
+    public ConcurrentLongIntMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value stored for a key, without allocating
+     * @param key the key
+     * @param absent the value to return if the key is not present
+     * @return the stored value, or {@code absent} if the key is not present
+     */
+    public int get(long key, int absent) {
+        if (key == FREE) {
+            return absent;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            int value = table.find(key, absent);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.find(key, absent);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value
+     * @param key the key, must not be 0
+     * @param value the value
+     */
+    public void put(long key, int value) {
+        put(key, value, true);
+    }
+
+    /**
+     * Stores a value for a key only if the key is not present yet
+     * @param key the key, must not be 0
+     * @param value the value
+     * @return true if the value was stored, false if the key was already present
+     */
+    public boolean putIfAbsent(long key, int value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Removes a key
+     * @param key the key
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        if (key == FREE) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (table.remove(key)) {
+                size--;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(table.capacity);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the approximate heap used by the entry arrays, in bytes
+     */
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) table.capacity * (Long.BYTES + Integer.BYTES);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean put(long key, int value, boolean replace) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotFor(key);
+            if (table.keys[slot] == key) {
+                if (replace) {
+                    table.values[slot] = value;
+                }
+                return replace;
+            }
+            table.keys[slot] = key;
+            table.values[slot] = value;
+            if (++size > table.capacity * MAX_LOAD_FACTOR) {
+                table = table.resize(capacityFor(size + size / GROWTH_DIVISOR));
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static int capacityFor(int entries) {
+        long capacity = (long) Math.ceil(entries / MAX_LOAD_FACTOR) + 1;
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Map cannot hold " + entries + " entries");
+        }
+        return (int) Math.max(MIN_CAPACITY, capacity);
+    }
+
+    /**
+     * Entry arrays of one capacity. Readers take a reference once, so a concurrent
+     * resize can only make them read a consistent but outdated table, which the
+     * stamp validation rejects.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final int[] values;
+        private final int capacity;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.capacity = capacity;
+        }
+
+        /**
+         * Probes for a key. The probe is bounded by the capacity so that a read
+         * racing with a write always terminates, whatever it observes.
+         */
+        private int find(long key, int absent) {
+            int index = home(key);
+            for (int probes = 0; probes < capacity; probes++) {
+                long candidate = keys[index];
+                if (candidate == key) {
+                    return values[index];
+                }
+                if (candidate == FREE) {
+                    return absent;
+                }
+                index = next(index);
+            }
+            return absent;
+        }
+
+        /**
+         * Returns the slot holding the key, or the free slot where it would be inserted
+         */
+        private int slotFor(long key) {
+            int index = home(key);
+            while (keys[index] != key && keys[index] != FREE) {
+                index = next(index);
+            }
+            return index;
+        }
+
+        /**
+         * Removes a key using backward-shift deletion, so no tombstones are left behind
+         */
+        private boolean remove(long key) {
+            int gap = slotFor(key);
+            if (keys[gap] != key) {
+                return false;
+            }
+            int index = gap;
+            while (true) {
+                index = next(index);
+                long candidate = keys[index];
+                if (candidate == FREE) {
+                    break;
+                }
+                int home = home(candidate);
+                boolean homeInRange = gap <= index ? gap < home && home <= index : gap < home || home <= index;
+                if (!homeInRange) {
+                    keys[gap] = candidate;
+                    values[gap] = values[index];
+                    gap = index;
+                }
+            }
+            keys[gap] = FREE;
+            values[gap] = 0;
+            return true;
+        }
+
+        private Table resize(int newCapacity) {
+            Table resized = new Table(newCapacity);
+            for (int i = 0; i < capacity; i++) {
+                if (keys[i] != FREE) {
+                    int slot = resized.slotFor(keys[i]);
+                    resized.keys[slot] = keys[i];
+                    resized.values[slot] = values[i];
+                }
+            }
+            return resized;
+        }
+
+        /**
+         * Maps the mixed key onto [0, capacity) with a multiply-shift range reduction,
+         * which works for capacities that are not powers of two
+         */
+        private int home(long key) {
+            long hash = key;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return (int) (((hash >>> 32) * capacity) >>> 32);
+        }
+
+        private int next(int index) {
+            return index + 1 == capacity ? 0 : index + 1;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the most frequent {@code long} keys of a stream in fixed memory.
+ * Frequencies are estimated with a count-min sketch: {@value #DEPTH} rows of {@code width}
+ * counters, each row indexed by its own hash of the key; the estimate is the smallest of the
+ * key's counters, which can only overestimate, by about {@code total / width} at most with high
+ * probability. The keys with the highest estimates, up to {@code capacity}, are kept in a
+ * bounded top-K set; a key enters it when its estimate exceeds the smallest estimate in the set
+ * (or the set is not full) and is at least {@code minCount}.
+ * Counters, top-K estimates and the total are halved by {@link #decay()}, so old traffic fades
+ * out and keys whose estimate falls below {@code minCount} leave the set.
+ * Updates are lock-free except when the top-K set changes; concurrent updates may occasionally
+ * be lost, which only makes the estimates slightly lower.
+ */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int width;
+    private final int mask;
+    private final int capacity;
+    private final long minCount;
+    private final AtomicIntegerArray counters;
+    private final ConcurrentHashMap<Long, Long> top;
+    private final ReentrantLock topLock = new ReentrantLock();
+    private final AtomicLong total = new AtomicLong();
+    private volatile long smallestTopEstimate;
+
+    /**
+     * Creates the tracker
+     * @param width counters per sketch row, rounded up to a power of two
+     * @param capacity maximum number of keys in the top-K set
+     * @param minCount smallest estimate for a key to be in the top-K set
+     */
+    public HeavyHitters(int width, int capacity, long minCount) {
+        if (width <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Sketch width and top-K capacity must be positive");
+        }
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.capacity = capacity;
+        this.minCount = Math.max(1, minCount);
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+        this.top = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of a key
+     * @param key the key
+     * @return the estimated number of occurrences of the key, including this one
+     */
+    public long add(long key) {
+        total.incrementAndGet();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + index(key, row);
+            int count = counters.get(index);
+            if (count < Integer.MAX_VALUE) {
+                count = counters.incrementAndGet(index);
+            }
+            estimate = Math.min(estimate, count);
+        }
+        offer(key, estimate);
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of a key since the last decays
+     * @param key the key
+     * @return the estimate, never lower than the real count
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + index(key, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns whether a key is in the top-K set
+     * @param key the key
+     */
+    public boolean isTop(long key) {
+        return top.containsKey(key);
+    }
+
+    /**
+     * Returns the top-K set, most frequent first
+     * @return the keys with their estimated number of occurrences
+     */
+    public List<Entry> top() {
+        List<Entry> entries = new ArrayList<>(top.size());
+        top.forEach((key, estimate) -> entries.add(new Entry(key, estimate)));
+        entries.sort(Comparator.comparingLong(Entry::estimate).reversed());
+        return entries;
+    }
+
+    /**
+     * Returns the number of keys in the top-K set
+     */
+    public int topSize() {
+        return top.size();
+    }
+
+    /**
+     * Returns the number of occurrences counted since the last decays
+     */
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * Halves every counter, top-K estimate and the total, and drops the keys that fall below {@code minCount}
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        topLock.lock();
+        try {
+            top.replaceAll((key, estimate) -> estimate >>> 1);
+            top.values().removeIf(estimate -> estimate < minCount);
+            smallestTopEstimate = smallestEstimate();
+        } finally {
+            topLock.unlock();
+        }
+        total.updateAndGet(value -> value >>> 1);
+    }
+
+    private void offer(long key, long estimate) {
+        if (top.computeIfPresent(key, (k, current) -> Math.max(current, estimate)) != null) {
+            return;
+        }
+        if (estimate < minCount || (top.size() >= capacity && estimate <= smallestTopEstimate)) {
+            return;
+        }
+        topLock.lock();
+        try {
+            if (top.containsKey(key)) {
+                return;
+            }
+            if (top.size() >= capacity) {
+                Map.Entry<Long, Long> smallest = null;
+                for (Map.Entry<Long, Long> entry : top.entrySet()) {
+                    if (smallest == null || entry.getValue() < smallest.getValue()) {
+                        smallest = entry;
+                    }
+                }
+                if (smallest == null || estimate <= smallest.getValue()) {
+                    smallestTopEstimate = smallest == null ? 0 : smallest.getValue();
+                    return;
+                }
+                top.remove(smallest.getKey());
+            }
+            top.put(key, estimate);
+            smallestTopEstimate = top.size() >= capacity ? smallestEstimate() : 0;
+        } finally {
+            topLock.unlock();
+        }
+    }
+
+    private long smallestEstimate() {
+        long smallest = Long.MAX_VALUE;
+        for (long estimate : top.values()) {
+            smallest = Math.min(smallest, estimate);
+        }
+        return smallest == Long.MAX_VALUE ? 0 : smallest;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 31;
+        hash *= 0x94D049BB133111EBL;
+        hash ^= hash >>> 29;
+        return (int) hash & mask;
+    }
+
+    /**
+     * A key of the top-K set with its estimated number of occurrences.
+     */
+    public record Entry(long key, long estimate) {
+    }
+}
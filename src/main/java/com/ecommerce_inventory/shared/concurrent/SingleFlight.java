@@ -0,0 +1,84 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ * The first caller for a key runs the loader; callers arriving while it is
+ * in flight wait for and share its result or failure. The key is removed
+ * as soon as the call completes, whatever the outcome, so nothing is
+ * cached beyond the lifetime of a single call.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    /**
+     * Runs the loader for the key, or joins a call already in flight for it
+     * @param key the key identifying the call
+     * @param loader the call to run when none is in flight
+     * @return the result of the shared call
+     * @throws RuntimeException the exception thrown by the shared call
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+        
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+    
+    /**
+     * Detaches the call in flight for the key, if any, so that later callers
+     * start a new call instead of joining one that may observe outdated data.
+     * Callers already waiting on the detached call still receive its result.
+     * @param key the key identifying the call
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+    
+    /**
+     * Returns the number of keys with a call currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for in-flight call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by a large key space.
+ * Each key always maps to the same lock, so operations on one key are
+ * serialized while operations on keys of different stripes run in parallel,
+ * without allocating or retaining a lock per key.
+ */
+public class StripedLocks {
+    
+    private final ReentrantLock[] locks;
+    private final int mask;
+    
+    /**
+     * Creates the striped locks
+     * @param stripes minimum number of stripes, rounded up to a power of two
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be a positive number");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Returns the lock guarding the given key
+     * @param key the key
+     * @return the lock for the key's stripe
+     */
+    public ReentrantLock lockFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return locks[(int) (hash >>> 32) & mask];
+    }
+    
+    public int stripes() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of concurrent calls to a dependency.
+ * Callers that cannot get a slot within {@code maxWait} are rejected,
+ * so a slow dependency cannot tie up every request thread.
+ */
+public class Bulkhead {
+    
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final LongAdder rejectedCalls = new LongAdder();
+    
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("Bulkhead max concurrent calls must be a positive number");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+    
+    /**
+     * Tries to take a slot for a call
+     * @return true if a slot was taken and must be released with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        boolean acquired;
+        if (maxWaitNanos <= 0) {
+            acquired = permits.tryAcquire();
+        } else {
+            try {
+                acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        }
+        if (!acquired) {
+            rejectedCalls.increment();
+        }
+        return acquired;
+    }
+    
+    /**
+     * Releases a slot taken with {@link #tryAcquire()}
+     */
+    public void release() {
+        permits.release();
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * Returns the number of calls currently holding a slot
+     */
+    public int activeCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+    
+    /**
+     * Returns the number of calls rejected because no slot was available
+     */
+    public long rejectedCalls() {
+        return rejectedCalls.sum();
+    }
+}
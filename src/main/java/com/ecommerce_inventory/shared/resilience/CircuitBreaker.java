@@ -0,0 +1,208 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker.
+ * The outcome of the last {@code slidingWindowSize} calls is recorded in a ring buffer.
+ * Once at least {@code minimumCalls} calls were recorded, the circuit opens when the
+ * failure rate or the rate of calls slower than {@code slowCallDuration} reaches its
+ * threshold. While open, calls are rejected immediately; after {@code waitInOpen} a
+ * limited number of trial calls is let through (half-open) and their outcome decides
+ * whether the circuit closes again or reopens.
+ * Every state change starts a new generation, and each permit carries the generation it
+ * was granted in; the outcome of a call is ignored when the circuit has changed state since
+ * its permit was granted, so a slow call started while closed never counts as a half-open trial.
+ */
+public class CircuitBreaker {
+    
+    /**
+     * Returned by {@link #tryAcquirePermission} when the call must be rejected
+     */
+    public static final long NO_PERMIT = -1L;
+    
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final String name;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final int minimumCalls;
+    private final long waitInOpenNanos;
+    private final int halfOpenCalls;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final byte[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private int halfOpenPermits;
+    private int halfOpenCompleted;
+    private long openedAtNanos;
+    private volatile long generation;
+    private volatile State state = State.CLOSED;
+    
+    private final LongAdder rejectedCalls = new LongAdder();
+    
+    public CircuitBreaker(String name, int failureRateThreshold, int slowCallRateThreshold, Duration slowCallDuration,
+                          int slidingWindowSize, int minimumCalls, Duration waitInOpen, int halfOpenCalls) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100 || slowCallRateThreshold <= 0 || slowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit breaker thresholds must be between 1 and 100");
+        }
+        if (slidingWindowSize <= 0 || minimumCalls <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("Circuit breaker window, minimum calls and half-open calls must be positive");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationNanos = slowCallDuration.toNanos();
+        this.outcomes = new byte[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.waitInOpenNanos = waitInOpen.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+    
+    /**
+     * Asks for permission to make a call.
+     * Closed circuits always grant it without taking a lock.
+     * @return the permit to pass to {@link #onSuccess}, {@link #onError} or {@link #releasePermission},
+     *         or {@link #NO_PERMIT} if the call must be rejected
+     */
+    public long tryAcquirePermission() {
+        // The generation is written before the state, so reading it first can at worst pair the
+        // closed state with an older generation, whose outcome is then ignored
+        long currentGeneration = generation;
+        if (state == State.CLOSED) {
+            return currentGeneration;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= waitInOpenNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+                halfOpenPermits++;
+                return generation;
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejectedCalls.increment();
+        return NO_PERMIT;
+    }
+    
+    /**
+     * Gives back a permission that was acquired but not used for a call
+     * @param permit the permit returned by {@link #tryAcquirePermission}
+     */
+    public void releasePermission(long permit) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (permit == generation && state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Records a call that completed successfully
+     * @param permit the permit returned by {@link #tryAcquirePermission}
+     * @param durationNanos how long the call took
+     */
+    public void onSuccess(long permit, long durationNanos) {
+        record(permit, durationNanos >= slowCallDurationNanos ? SLOW : SUCCESS);
+    }
+    
+    /**
+     * Records a call that failed
+     * @param permit the permit returned by {@link #tryAcquirePermission}
+     * @param durationNanos how long the call took
+     */
+    public void onError(long permit, long durationNanos) {
+        record(permit, durationNanos >= slowCallDurationNanos ? SLOW_FAILURE : FAILURE);
+    }
+    
+    public State state() {
+        return state;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * Returns the number of calls rejected because the circuit was not closed
+     */
+    public long rejectedCalls() {
+        return rejectedCalls.sum();
+    }
+    
+    private void record(long permit, byte outcome) {
+        lock.lock();
+        try {
+            if (state == State.OPEN || permit != generation) {
+                return;
+            }
+            if (recorded == outcomes.length) {
+                byte evicted = outcomes[position];
+                failures -= evicted & FAILURE;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                recorded++;
+            }
+            outcomes[position] = outcome;
+            failures += outcome & FAILURE;
+            slowCalls += (outcome & SLOW) >> 1;
+            position = (position + 1) % outcomes.length;
+            
+            if (state == State.HALF_OPEN) {
+                halfOpenCompleted++;
+                if ((outcome & FAILURE) != 0) {
+                    transitionTo(State.OPEN);
+                } else if (halfOpenCompleted >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (recorded >= minimumCalls
+                    && (failures * 100 >= failureRateThreshold * recorded
+                        || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void transitionTo(State newState) {
+        generation++;
+        state = newState;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        halfOpenPermits = 0;
+        halfOpenCompleted = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent calls against tail latency.
+ * Each attempt runs on its own virtual thread. When the first attempt has not completed after
+ * the hedge delay, the {@code hedgePercentile} of the recent successful attempts (never less
+ * than {@code minHedgeDelay}), a second identical attempt is started; the first attempt to
+ * succeed wins and the other one is cancelled by interrupting it. A failed attempt only fails
+ * the call when no other attempt is still running.
+ * Hedges are paid from a budget that every call tops up by {@code budgetPercent} of a hedge,
+ * so at most that share of the calls is hedged, even when the dependency slows down as a whole.
+ * The caller waits at most an adaptive timeout, {@code timeoutMultiplier} times the
+ * {@code timeoutPercentile} latency, clamped between {@code minTimeout} and {@code maxTimeout}.
+ * Until {@code minSamples} latencies were observed in the window no call is hedged and the
+ * timeout is {@code maxTimeout}. Attempts that are cancelled or time out count in the latency
+ * window with the time they ran, so a slowdown raises the timeout rather than hiding behind it.
+ */
+public class Hedger implements AutoCloseable {
+    
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private final String name;
+    private final double hedgePercentile;
+    private final long minHedgeDelayNanos;
+    private final long budgetDeposit;
+    private final double timeoutPercentile;
+    private final double timeoutMultiplier;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final long minSamples;
+    private final LatencyWindow latencies;
+    private final ExecutorService executor;
+    
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong nextRefreshAt = new AtomicLong(System.nanoTime());
+    private volatile long hedgeDelayNanos = -1;
+    private volatile long timeoutNanos;
+    
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    
+    public Hedger(String name, double hedgePercentile, Duration minHedgeDelay, double budgetPercent,
+                  double timeoutPercentile, double timeoutMultiplier, Duration minTimeout, Duration maxTimeout,
+                  Duration window, long minSamples) {
+        if (hedgePercentile <= 0 || hedgePercentile >= 100 || timeoutPercentile <= 0 || timeoutPercentile > 100) {
+            throw new IllegalArgumentException("Hedge and timeout percentiles must be between 0 and 100");
+        }
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("Hedge budget must be between 0 and 100 percent");
+        }
+        if (timeoutMultiplier < 1 || minTimeout.isNegative() || minTimeout.isZero() || maxTimeout.compareTo(minTimeout) < 0) {
+            throw new IllegalArgumentException("Timeout multiplier must be at least 1 and timeouts must be positive, "
+                    + "with the maximum not below the minimum");
+        }
+        this.name = name;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelayNanos = Math.max(0, minHedgeDelay.toNanos());
+        this.budgetDeposit = Math.round(budgetPercent * HEDGE_COST / 100);
+        this.timeoutPercentile = timeoutPercentile;
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.minTimeoutNanos = minTimeout.toNanos();
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.minSamples = Math.max(1, minSamples);
+        this.latencies = new LatencyWindow(window);
+        this.timeoutNanos = maxTimeoutNanos;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-attempt-", 0).factory());
+    }
+    
+    /**
+     * Runs an idempotent call, hedging it when it is slow
+     * @param attempt the call; it may run on other threads, twice at the same time
+     * @return the result of the first attempt that succeeded
+     * @throws TimeoutException if no attempt completed within the adaptive timeout
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    public <T> T call(Supplier<T> attempt) throws TimeoutException, InterruptedException {
+        long start = System.nanoTime();
+        calls.increment();
+        depositBudget();
+        refreshIfDue(start);
+        long hedgeDelay = hedgeDelayNanos;
+        long deadline = start + timeoutNanos;
+        
+        CompletionService<T> completions = new ExecutorCompletionService<>(executor);
+        Future<T> primary = completions.submit(timed(attempt));
+        Future<T> hedge = null;
+        long hedgeStart = 0;
+        boolean hedgePending = hedgeDelay >= 0;
+        int running = 1;
+        ExecutionException failure = null;
+        try {
+            while (running > 0) {
+                long now = System.nanoTime();
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    break;
+                }
+                long wait = hedgePending ? Math.min(remaining, start + hedgeDelay - now) : remaining;
+                Future<T> done = completions.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    running--;
+                    try {
+                        T result = done.get();
+                        if (done == hedge) {
+                            hedgeWins.increment();
+                        }
+                        return result;
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    }
+                } else if (hedgePending && System.nanoTime() - (start + hedgeDelay) >= 0) {
+                    hedgePending = false;
+                    if (tryWithdrawBudget()) {
+                        hedges.increment();
+                        hedgeStart = System.nanoTime();
+                        hedge = completions.submit(timed(attempt));
+                        running++;
+                    } else {
+                        budgetExhausted.increment();
+                    }
+                }
+            }
+            if (running == 0 && failure != null) {
+                throw unwrap(failure);
+            }
+            timeouts.increment();
+            throw new TimeoutException("Call to " + name + " timed out after "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } finally {
+            cancel(primary, start);
+            if (hedge != null) {
+                cancel(hedge, hedgeStart);
+            }
+        }
+    }
+    
+    /**
+     * Returns the current hedge delay
+     * @return the delay, empty while too few latencies are known to hedge
+     */
+    public Optional<Duration> hedgeDelay() {
+        refreshIfDue(System.nanoTime());
+        long delay = hedgeDelayNanos;
+        return delay >= 0 ? Optional.of(Duration.ofNanos(delay)) : Optional.empty();
+    }
+    
+    /**
+     * Returns the current adaptive timeout
+     */
+    public Duration timeout() {
+        refreshIfDue(System.nanoTime());
+        return Duration.ofNanos(timeoutNanos);
+    }
+    
+    /**
+     * Returns a snapshot of the hedging counters
+     */
+    public HedgeStats stats() {
+        return new HedgeStats(calls.sum(), hedges.sum(), hedgeWins.sum(), budgetExhausted.sum(), timeouts.sum());
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Snapshot of hedging counters: calls, hedges started, hedges that answered first,
+     * hedges skipped because the budget was spent and calls that timed out.
+     */
+    public record HedgeStats(long calls, long hedges, long hedgeWins, long budgetExhausted, long timeouts) {
+    }
+    
+    private <T> Callable<T> timed(Supplier<T> attempt) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = attempt.get();
+            latencies.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+    
+    /**
+     * Cancels an attempt that is still running. Its time so far is recorded as a latency,
+     * a lower bound of the real one, so cancelled and timed out attempts keep the latency
+     * tail visible instead of leaving only the fast attempts in the window
+     */
+    private void cancel(Future<?> attempt, long attemptStart) {
+        if (!attempt.isDone()) {
+            latencies.record(System.nanoTime() - attemptStart);
+            attempt.cancel(true);
+        }
+    }
+    
+    private void depositBudget() {
+        if (budget.get() < MAX_BUDGET) {
+            budget.getAndUpdate(current -> Math.min(MAX_BUDGET, current + budgetDeposit));
+        }
+    }
+    
+    private boolean tryWithdrawBudget() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+    
+    /**
+     * Recomputes the hedge delay and the timeout from the latency window, at most every 100 ms
+     */
+    private void refreshIfDue(long now) {
+        long due = nextRefreshAt.get();
+        if (now - due < 0 || !nextRefreshAt.compareAndSet(due, now + REFRESH_INTERVAL_NANOS)) {
+            return;
+        }
+        if (latencies.count() < minSamples) {
+            hedgeDelayNanos = -1;
+            timeoutNanos = maxTimeoutNanos;
+            return;
+        }
+        long timeoutLatency = (long) Math.min(Long.MAX_VALUE, latencies.percentile(timeoutPercentile) * timeoutMultiplier);
+        hedgeDelayNanos = Math.max(minHedgeDelayNanos, latencies.percentile(hedgePercentile));
+        timeoutNanos = Math.min(maxTimeoutNanos, Math.max(minTimeoutNanos, timeoutLatency));
+    }
+    
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
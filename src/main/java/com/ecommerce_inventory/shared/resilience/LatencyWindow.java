@@ -0,0 +1,115 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling histogram of call latencies, used to derive percentiles of the recent traffic.
+ * Latencies are counted in log-linear buckets, {@value #SUB_BUCKETS} per power of two, so
+ * recording is a single atomic increment and a percentile is read with a relative error below
+ * 1/{@value #SUB_BUCKETS}, rounded up. Counts are kept in two generations that rotate every
+ * {@code window}: percentiles cover the current generation and the previous one, that is
+ * between one and two windows of traffic, so the histogram follows changes in latency.
+ */
+public class LatencyWindow {
+    
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final long windowNanos;
+    private final AtomicLong nextRotationAt;
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    
+    public LatencyWindow(Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Latency window must be positive");
+        }
+        this.windowNanos = window.toNanos();
+        this.nextRotationAt = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+    
+    /**
+     * Records the latency of a call
+     * @param latencyNanos how long the call took
+     */
+    public void record(long latencyNanos) {
+        rotateIfDue(System.nanoTime());
+        current.incrementAndGet(bucket(Math.max(0, latencyNanos)));
+    }
+    
+    /**
+     * Returns the number of latencies in the window
+     */
+    public long count() {
+        rotateIfDue(System.nanoTime());
+        AtomicLongArray currentCounts = current;
+        AtomicLongArray previousCounts = previous;
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += currentCounts.get(i) + previousCounts.get(i);
+        }
+        return count;
+    }
+    
+    /**
+     * Returns a percentile of the latencies in the window
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in nanoseconds, or -1 if no latency was recorded in the window
+     */
+    public long percentile(double percentile) {
+        rotateIfDue(System.nanoTime());
+        AtomicLongArray currentCounts = current;
+        AtomicLongArray previousCounts = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = currentCounts.get(i) + previousCounts.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+    
+    private void rotateIfDue(long now) {
+        long due = nextRotationAt.get();
+        if (now - due >= 0 && nextRotationAt.compareAndSet(due, now + windowNanos)) {
+            previous = now - due >= windowNanos ? new AtomicLongArray(BUCKETS) : current;
+            current = new AtomicLongArray(BUCKETS);
+        }
+    }
+    
+    /**
+     * Values below {@value #SUB_BUCKETS} get a bucket each; above, every power of two
+     * is split in {@value #SUB_BUCKETS} buckets of equal width
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
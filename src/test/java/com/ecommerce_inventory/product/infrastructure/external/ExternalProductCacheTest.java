@@ -0,0 +1,148 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExternalProductCacheTest {
+
+    private static final Duration TTL = Duration.ofMillis(500);
+
+    @Test
+    void servesCachedProductsUntilTheyExpire() throws InterruptedException {
+        ExternalProductCache cache = new ExternalProductCache(true, TTL, 100);
+        cache.putIfUnchanged(1L, product(1L, 5), "\"1-5\"", cache.stamp(1L));
+
+        assertEquals(product(1L, 5), cache.get(1L));
+        assertEquals(new VersionedProduct(product(1L, 5), "\"1-5\""), cache.getVersioned(1L));
+
+        expire();
+
+        assertNull(cache.get(1L));
+        assertNull(cache.getVersioned(1L));
+        assertEquals(2, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void servesExpiredProductsAsStaleWithinTheMaximumAge() throws InterruptedException {
+        ExternalProductCache cache = new ExternalProductCache(true, TTL, 100);
+        cache.putIfUnchanged(1L, product(1L, 5), null, cache.stamp(1L));
+
+        expire();
+
+        assertEquals(product(1L, 5), cache.getStale(1L, Duration.ofMinutes(1)));
+        assertNull(cache.getStale(1L, Duration.ofMillis(1)));
+    }
+
+    @Test
+    void doesNotCacheAReadThatRacedWithAWrite() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 100);
+        long stamp = cache.stamp(1L);
+
+        cache.refresh(1L, product(1L, 7), "\"1-7\"");
+        cache.putIfUnchanged(1L, product(1L, 5), "\"1-5\"", stamp);
+
+        assertEquals(product(1L, 7), cache.get(1L));
+    }
+
+    @Test
+    void doesNotCacheAReadThatRacedWithAnInvalidation() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 100);
+        long stamp = cache.stamp(1L);
+
+        cache.invalidate(1L);
+        cache.putIfUnchanged(1L, product(1L, 5), null, stamp);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void revalidationRenewsAnExpiredProductWithTheSameEntityTag() throws InterruptedException {
+        ExternalProductCache cache = new ExternalProductCache(true, TTL, 100);
+        cache.putIfUnchanged(1L, product(1L, 5), "\"1-5\"", cache.stamp(1L));
+        expire();
+        assertEquals("\"1-5\"", cache.etag(1L));
+
+        ExternalProductDto revalidated = cache.revalidate(1L, "\"1-5\"", cache.stamp(1L));
+
+        assertEquals(product(1L, 5), revalidated);
+        assertEquals(product(1L, 5), cache.get(1L));
+    }
+
+    @Test
+    void revalidationFailsWhenTheCachedCopyChanged() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 100);
+        cache.putIfUnchanged(1L, product(1L, 5), "\"1-5\"", cache.stamp(1L));
+        long stamp = cache.stamp(1L);
+
+        assertNull(cache.revalidate(1L, "\"1-4\"", stamp));
+
+        cache.refresh(1L, product(1L, 6), "\"1-6\"");
+        assertNull(cache.revalidate(1L, "\"1-6\"", stamp));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedProductOfASegment() {
+        // 32 entries over 16 segments leave 2 per segment; IDs 1, 17 and 33 share a segment
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 32);
+        put(cache, 1L);
+        put(cache, 17L);
+        put(cache, 33L);
+
+        assertNull(cache.get(1L));
+        assertEquals(product(17L, 1), cache.get(17L));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void pinnedProductsAreNeverEvicted() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 32);
+        cache.pinWhile(productId -> productId == 1L);
+        put(cache, 1L);
+        put(cache, 17L);
+        put(cache, 33L);
+
+        assertEquals(product(1L, 1), cache.get(1L));
+        assertNull(cache.get(17L));
+        assertEquals(product(33L, 1), cache.get(33L));
+    }
+
+    @Test
+    void segmentWithOnlyPinnedProductsGrowsBeyondItsShare() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ofMinutes(1), 32);
+        cache.pinWhile(productId -> true);
+        put(cache, 1L);
+        put(cache, 17L);
+        put(cache, 33L);
+
+        assertEquals(3, cache.stats().size());
+        assertEquals(0, cache.stats().evictions());
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        ExternalProductCache cache = new ExternalProductCache(true, Duration.ZERO, 100);
+        put(cache, 1L);
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(1L));
+        assertNull(cache.etag(1L));
+    }
+
+    private static void put(ExternalProductCache cache, Long productId) {
+        cache.putIfUnchanged(productId, product(productId, 1), null, cache.stamp(productId));
+    }
+
+    private static ExternalProductDto product(Long id, int stock) {
+        return new ExternalProductDto(id, "Product " + id, "Description", 10.0, stock, "Electronics", stock > 0);
+    }
+
+    private static void expire() throws InterruptedException {
+        Thread.sleep(TTL.toMillis() + 50);
+    }
+}
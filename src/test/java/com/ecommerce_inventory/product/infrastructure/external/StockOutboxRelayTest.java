@@ -0,0 +1,245 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import com.ecommerce_inventory.product.domain.StockChange;
+import com.ecommerce_inventory.product.domain.StockChangeOutbox;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationBroadcaster;
+import com.ecommerce_inventory.product.infrastructure.cluster.ProductInvalidationListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockOutboxRelayTest {
+
+    private final InMemoryStockChangeOutbox outbox = new InMemoryStockChangeOutbox();
+    private final RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+    private final ExternalProductService externalProductService = mock(ExternalProductService.class);
+    private StockOutboxRelay relay;
+
+    @AfterEach
+    void stopRelay() {
+        if (relay != null) {
+            relay.stop();
+        }
+    }
+
+    @Test
+    void deliversOnlyTheNewestChangeOfEachProduct() throws InterruptedException {
+        outbox.append(1L, 5, 1);
+        outbox.append(1L, 7, 2);
+        outbox.append(2L, 3, 1);
+        when(externalProductService.deliverStockChange(anyLong(), anyInt(), anyString())).thenReturn(true);
+
+        startRelay();
+        await(() -> relay.stats().delivered() == 2);
+
+        verify(externalProductService).deliverStockChange(1L, 7, "key-1-2");
+        verify(externalProductService).deliverStockChange(2L, 3, "key-2-1");
+        verify(externalProductService, never()).deliverStockChange(1L, 5, "key-1-1");
+        assertEquals(1, relay.stats().superseded());
+        assertTrue(outbox.changes().isEmpty());
+        assertEquals(Set.of(1L, 2L), broadcaster.published());
+    }
+
+    @Test
+    void rejectedChangesAreRemovedWithoutBeingAnnounced() throws InterruptedException {
+        outbox.append(1L, 5, 1);
+        when(externalProductService.deliverStockChange(anyLong(), anyInt(), anyString())).thenReturn(false);
+
+        startRelay();
+        await(() -> relay.stats().rejected() == 1);
+
+        assertTrue(outbox.changes().isEmpty());
+        assertTrue(broadcaster.published().isEmpty());
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithTheSameIdempotencyKey() throws InterruptedException {
+        outbox.append(1L, 5, 1);
+        when(externalProductService.deliverStockChange(anyLong(), anyInt(), anyString()))
+                .thenThrow(new ExternalServiceUnavailableException("External service asked to retry the stock change later"))
+                .thenReturn(true);
+
+        startRelay();
+        await(() -> relay.stats().delivered() == 1);
+
+        verify(externalProductService, times(2)).deliverStockChange(1L, 5, "key-1-1");
+        assertEquals(1, relay.stats().retried());
+        assertTrue(outbox.changes().isEmpty());
+    }
+
+    @Test
+    void failedDeliveryKeepsOnlyTheNewestChangeForTheRetry() throws InterruptedException {
+        outbox.append(1L, 5, 1);
+        outbox.append(1L, 7, 2);
+        when(externalProductService.deliverStockChange(anyLong(), anyInt(), anyString()))
+                .thenThrow(new ExternalServiceUnavailableException("Circuit breaker for external product service is open"));
+
+        startRelay();
+        await(() -> relay.stats().retried() >= 1);
+
+        List<StockChange> remaining = outbox.changes();
+        assertEquals(1, remaining.size());
+        assertEquals(2, remaining.getFirst().productVersion());
+        assertTrue(remaining.getFirst().attempts() >= 1);
+        assertTrue(broadcaster.published().isEmpty());
+    }
+
+    private void startRelay() {
+        relay = new StockOutboxRelay(outbox, externalProductService, broadcaster,
+                new TransactionTemplate(new NoOpTransactionManager()), true, Duration.ofMillis(10), 100, 2,
+                Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofSeconds(30), new SimpleMeterRegistry());
+        relay.start();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Outbox kept in memory, with the claim, lease and retry rules of the database outbox
+     */
+    private static final class InMemoryStockChangeOutbox implements StockChangeOutbox {
+
+        private final List<StockChange> changes = new ArrayList<>();
+        private final List<Instant> notBefore = new ArrayList<>();
+        private long nextId = 1;
+
+        @Override
+        public synchronized void append(Long productId, int stock, long productVersion) {
+            changes.add(new StockChange(nextId++, productId, stock, productVersion,
+                    "key-" + productId + "-" + productVersion, 0, Instant.now()));
+            notBefore.add(Instant.MIN);
+        }
+
+        @Override
+        public synchronized List<StockChange> claimDue(Instant now, Instant leaseUntil, int limit) {
+            Set<Long> blocked = new HashSet<>();
+            List<StockChange> claimed = new ArrayList<>();
+            for (int index = 0; index < changes.size(); index++) {
+                StockChange change = changes.get(index);
+                if (notBefore.get(index).isAfter(now)) {
+                    blocked.add(change.productId());
+                } else if (!blocked.contains(change.productId()) && claimed.size() < limit) {
+                    claimed.add(change);
+                    notBefore.set(index, leaseUntil);
+                }
+            }
+            return claimed;
+        }
+
+        @Override
+        public synchronized void removeUpToVersion(Long productId, long productVersion) {
+            for (int index = changes.size() - 1; index >= 0; index--) {
+                StockChange change = changes.get(index);
+                if (change.productId().equals(productId) && change.productVersion() <= productVersion) {
+                    changes.remove(index);
+                    notBefore.remove(index);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void retryLater(Long id, int attempts, Instant retryAt) {
+            for (int index = 0; index < changes.size(); index++) {
+                StockChange change = changes.get(index);
+                if (change.id().equals(id)) {
+                    changes.set(index, new StockChange(change.id(), change.productId(), change.stock(),
+                            change.productVersion(), change.idempotencyKey(), attempts, change.createdAt()));
+                    notBefore.set(index, retryAt);
+                }
+            }
+        }
+
+        @Override
+        public synchronized Set<Long> productsWithPendingChanges(Collection<Long> productIds) {
+            Set<Long> pending = new HashSet<>();
+            for (StockChange change : changes) {
+                if (productIds.contains(change.productId())) {
+                    pending.add(change.productId());
+                }
+            }
+            return pending;
+        }
+
+        @Override
+        public synchronized long countPending() {
+            return changes.size();
+        }
+
+        @Override
+        public synchronized Optional<Instant> oldestPendingCreatedAt() {
+            return changes.stream().map(StockChange::createdAt).min(Comparator.naturalOrder());
+        }
+
+        synchronized List<StockChange> changes() {
+            return List.copyOf(changes);
+        }
+    }
+
+    private static final class RecordingBroadcaster implements ProductInvalidationBroadcaster {
+
+        private final List<Long> published = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(Collection<Long> productIds) {
+            published.addAll(productIds);
+        }
+
+        @Override
+        public void subscribe(ProductInvalidationListener listener) {
+        }
+
+        Set<Long> published() {
+            return Set.copyOf(published);
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce_inventory.product.infrastructure.external;
+
+import com.ecommerce_inventory.product.domain.PendingStockUpdate;
+import com.ecommerce_inventory.product.domain.PendingStockUpdateStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockWriteBehindQueueTest {
+
+    private static final String NODE_ID = "node-a";
+
+    private final InMemoryPendingStockUpdateStore store = new InMemoryPendingStockUpdateStore();
+    private final List<String> flushes = new CopyOnWriteArrayList<>();
+    private StockWriteBehindQueue queue;
+
+    @AfterEach
+    void stopQueue() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void rejectsUpdatesWhileNotRunning() {
+        queue = queue(Duration.ofHours(1), 10);
+
+        assertThrows(StockUpdateRejectedException.class, () -> queue.submit(1L, 5));
+        assertEquals(1, queue.stats().rejected());
+    }
+
+    @Test
+    void coalescesUpdatesOfTheSameProductAndFlushesTheLastValueOnStop() {
+        queue = queue(Duration.ofHours(1), 10);
+        queue.setFlushHandler(recordingHandler());
+        queue.start();
+
+        queue.submit(1L, 5);
+        queue.submit(1L, 7);
+        assertEquals(7, queue.pendingStock(1L));
+        assertEquals(1, queue.pendingCount());
+        assertEquals(7, store.rows.get(1L).stock());
+
+        queue.stop();
+
+        assertEquals(List.of("1=7"), flushes);
+        assertEquals(0, queue.pendingCount());
+        assertEquals(1, queue.stats().coalesced());
+        assertEquals(1, queue.stats().flushed());
+        assertTrue(store.rows.isEmpty());
+    }
+
+    @Test
+    void flushesInTheBackground() throws InterruptedException {
+        queue = queue(Duration.ofMillis(20), 10);
+        queue.setFlushHandler(recordingHandler());
+        queue.start();
+
+        queue.submit(1L, 5);
+        queue.submit(2L, 6);
+        awaitEmpty();
+
+        assertEquals(2, flushes.size());
+        assertNull(queue.pendingStock(1L));
+        assertTrue(store.rows.isEmpty());
+    }
+
+    @Test
+    void rejectsNewProductsOnceFullButStillReplacesPendingOnes() {
+        queue = queue(Duration.ofHours(1), 1);
+        queue.setFlushHandler(recordingHandler());
+        queue.start();
+        queue.submit(1L, 5);
+
+        assertThrows(StockUpdateRejectedException.class, () -> queue.submit(2L, 6));
+        queue.submit(1L, 8);
+
+        assertEquals(8, queue.pendingStock(1L));
+        assertNull(queue.pendingStock(2L));
+    }
+
+    @Test
+    void updateThatCannotBeSavedIsNotQueued() {
+        queue = queue(Duration.ofHours(1), 10);
+        queue.start();
+        store.failSaves = true;
+
+        assertThrows(StockUpdateRejectedException.class, () -> queue.submit(1L, 5));
+
+        assertNull(queue.pendingStock(1L));
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test
+    void rejectedUpdatesAreDropped() {
+        queue = queue(Duration.ofHours(1), 10);
+        queue.setFlushHandler((productId, stock) -> false);
+        queue.start();
+        queue.submit(1L, 5);
+
+        queue.stop();
+
+        assertEquals(1, queue.stats().dropped());
+        assertEquals(0, queue.pendingCount());
+        assertTrue(store.rows.isEmpty());
+    }
+
+    @Test
+    void stopGivesUpAtOnceWhenNothingCanBeDelivered() {
+        AtomicInteger attempts = new AtomicInteger();
+        queue = queue(Duration.ofHours(1), 10);
+        queue.setFlushHandler((productId, stock) -> {
+            attempts.incrementAndGet();
+            throw new ExternalServiceUnavailableException("Circuit breaker for external product service is open");
+        });
+        queue.start();
+        queue.submit(1L, 5);
+
+        long start = System.nanoTime();
+        queue.stop();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "stop must not retry until the timeout");
+        assertEquals(1, attempts.get());
+        assertEquals(1, queue.stats().retried());
+        assertEquals(5, store.rows.get(1L).stock(), "the update stays stored for the next start");
+    }
+
+    @Test
+    void reloadsTheUpdatesLeftByThePreviousRunOnStart() {
+        store.save(1L, 5, "token-1", NODE_ID);
+        store.save(2L, 6, "token-2", "node-b");
+        queue = queue(Duration.ofHours(1), 10);
+        queue.setFlushHandler(recordingHandler());
+
+        queue.start();
+
+        assertEquals(5, queue.pendingStock(1L));
+        assertNull(queue.pendingStock(2L), "updates of another node are only adopted once orphaned");
+
+        queue.stop();
+        assertEquals(List.of("1=5"), flushes);
+    }
+
+    private StockWriteBehindQueue queue(Duration flushInterval, int maxPending) {
+        return new StockWriteBehindQueue(store, true, flushInterval, 100, 2, maxPending,
+                Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(30), NODE_ID,
+                flushInterval.plus(Duration.ofMinutes(5)));
+    }
+
+    private StockWriteBehindQueue.FlushHandler recordingHandler() {
+        return (productId, stock) -> {
+            flushes.add(productId + "=" + stock);
+            return true;
+        };
+    }
+
+    private void awaitEmpty() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.pendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "queue was not flushed");
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class InMemoryPendingStockUpdateStore implements PendingStockUpdateStore {
+
+        private record Row(int stock, String token, String nodeId, Instant touchedAt) {
+        }
+
+        private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+        private volatile boolean failSaves;
+
+        @Override
+        public void save(Long productId, int stock, String token, String nodeId) {
+            if (failSaves) {
+                throw new IllegalStateException("database unavailable");
+            }
+            rows.put(productId, new Row(stock, token, nodeId, Instant.now()));
+        }
+
+        @Override
+        public void remove(Long productId, String token) {
+            rows.computeIfPresent(productId, (id, row) -> row.token().equals(token) ? null : row);
+        }
+
+        @Override
+        public void touch(Long productId, String token) {
+            rows.computeIfPresent(productId, (id, row) -> row.token().equals(token)
+                    ? new Row(row.stock(), row.token(), row.nodeId(), Instant.now())
+                    : row);
+        }
+
+        @Override
+        public List<PendingStockUpdate> adopt(String nodeId, boolean includeOwned, Instant untouchedSince, int limit) {
+            List<PendingStockUpdate> adopted = new ArrayList<>();
+            rows.forEach((productId, row) -> {
+                boolean owned = row.nodeId().equals(nodeId);
+                if (adopted.size() < limit
+                        && ((owned && includeOwned) || (!owned && row.touchedAt().isBefore(untouchedSince)))) {
+                    rows.put(productId, new Row(row.stock(), row.token(), nodeId, Instant.now()));
+                    adopted.add(new PendingStockUpdate(productId, row.stock(), row.token()));
+                }
+            });
+            return adopted;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ecommerce_inventory.product.infrastructure.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockJournalSegmentTest {
+
+    private static final long SEGMENT_SIZE = StockJournalSegment.HEADER_SIZE + 8L * StockJournalSegment.RECORD_SIZE;
+    private static final int NEW_STOCK_OFFSET = 28;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedRecordsAreReadBackAfterReopening() throws IOException {
+        Path path = directory.resolve("segment");
+        StockJournalSegment segment = StockJournalSegment.create(path, 100, SEGMENT_SIZE);
+        segment.append(100, 1_000, 1, 10, 7, StockJournalEntry.Origin.RESERVE.ordinal());
+        segment.append(101, 1_001, 2, -1, 5, StockJournalEntry.Origin.SET.ordinal());
+        assertEquals(2, segment.force());
+
+        StockJournalSegment reopened = StockJournalSegment.open(path, false);
+
+        assertEquals(100, reopened.firstSequence());
+        assertEquals(2, reopened.size());
+        assertEquals(List.of("100/1000/1/10/7/RESERVE", "101/1001/2/-1/5/SET"), records(reopened));
+    }
+
+    @Test
+    void recoveryStopsAtARecordWithAWrongChecksum() throws IOException {
+        Path path = directory.resolve("segment");
+        StockJournalSegment segment = StockJournalSegment.create(path, 0, SEGMENT_SIZE);
+        for (int i = 0; i < 3; i++) {
+            segment.append(i, 1_000 + i, i, 10, 9, StockJournalEntry.Origin.ADJUST.ordinal());
+        }
+        segment.force();
+
+        writeInt(path, recordPosition(1) + NEW_STOCK_OFFSET, 42);
+
+        StockJournalSegment reopened = StockJournalSegment.open(path, false);
+        assertEquals(1, reopened.size());
+        assertEquals(List.of("0/1000/0/10/9/ADJUST"), records(reopened));
+    }
+
+    @Test
+    void recoveryIgnoresAPartiallyWrittenRecord() throws IOException {
+        Path path = directory.resolve("segment");
+        StockJournalSegment segment = StockJournalSegment.create(path, 0, SEGMENT_SIZE);
+        segment.append(0, 1_000, 1, 10, 9, StockJournalEntry.Origin.RESERVE.ordinal());
+        segment.append(1, 1_001, 1, 9, 8, StockJournalEntry.Origin.RESERVE.ordinal());
+        segment.force();
+
+        writeLong(path, recordPosition(2), 2);
+
+        assertEquals(2, StockJournalSegment.open(path, false).size());
+    }
+
+    @Test
+    void reopenedSegmentAppendsOverATornRecord() throws IOException {
+        Path path = directory.resolve("segment");
+        StockJournalSegment segment = StockJournalSegment.create(path, 0, SEGMENT_SIZE);
+        segment.append(0, 1_000, 1, 10, 9, StockJournalEntry.Origin.RESERVE.ordinal());
+        segment.force();
+        writeLong(path, recordPosition(1), 1);
+
+        StockJournalSegment reopened = StockJournalSegment.open(path, true);
+        assertTrue(reopened.append(1, 1_001, 2, 4, 3, StockJournalEntry.Origin.RELEASE.ordinal()));
+        reopened.force();
+
+        assertEquals(List.of("0/1000/1/10/9/RESERVE", "1/1001/2/4/3/RELEASE"),
+                records(StockJournalSegment.open(path, false)));
+    }
+
+    @Test
+    void appendReturnsFalseWhenTheSegmentIsFull() throws IOException {
+        StockJournalSegment segment = StockJournalSegment.create(directory.resolve("segment"), 0,
+                StockJournalSegment.HEADER_SIZE + 2L * StockJournalSegment.RECORD_SIZE);
+
+        assertTrue(segment.append(0, 1_000, 1, 1, 2, StockJournalEntry.Origin.SET.ordinal()));
+        assertTrue(segment.append(1, 1_000, 1, 2, 3, StockJournalEntry.Origin.SET.ordinal()));
+        assertFalse(segment.append(2, 1_000, 1, 3, 4, StockJournalEntry.Origin.SET.ordinal()));
+        assertEquals(2, segment.size());
+    }
+
+    @Test
+    void indexOfFindsTheFirstRecordAtOrAfterATimestamp() throws IOException {
+        StockJournalSegment segment = StockJournalSegment.create(directory.resolve("segment"), 0, SEGMENT_SIZE);
+        long[] timestamps = {1_000, 1_000, 1_005, 1_010, 1_010};
+        for (int i = 0; i < timestamps.length; i++) {
+            segment.append(i, timestamps[i], 1, i, i + 1, StockJournalEntry.Origin.SET.ordinal());
+        }
+        int size = segment.size();
+
+        assertEquals(0, segment.indexOf(999, size));
+        assertEquals(0, segment.indexOf(1_000, size));
+        assertEquals(2, segment.indexOf(1_001, size));
+        assertEquals(3, segment.indexOf(1_010, size));
+        assertEquals(size, segment.indexOf(1_011, size));
+    }
+
+    @Test
+    void openRejectsAFileThatIsNotASegment() throws IOException {
+        Path path = directory.resolve("not-a-segment");
+        Files.write(path, new byte[(int) SEGMENT_SIZE]);
+
+        assertThrows(IOException.class, () -> StockJournalSegment.open(path, false));
+    }
+
+    private static List<String> records(StockJournalSegment segment) {
+        List<String> records = new ArrayList<>();
+        segment.visit(0, segment.size(), (sequence, timestampMillis, productId, oldStock, newStock, origin) ->
+                records.add(sequence + "/" + timestampMillis + "/" + productId + "/" + oldStock + "/" + newStock + "/" + origin));
+        return records;
+    }
+
+    private static long recordPosition(int index) {
+        return StockJournalSegment.HEADER_SIZE + (long) index * StockJournalSegment.RECORD_SIZE;
+    }
+
+    private static void writeInt(Path path, long position, int value) throws IOException {
+        write(path, position, ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value));
+    }
+
+    private static void writeLong(Path path, long position, long value) throws IOException {
+        write(path, position, ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, value));
+    }
+
+    private static void write(Path path, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.ecommerce_inventory.product.infrastructure.web;
+
+import com.ecommerce_inventory.product.application.BulkStockUpdateReport;
+import com.ecommerce_inventory.product.application.BulkStockUpdateResult;
+import com.ecommerce_inventory.product.application.BulkUpdateStockUseCase;
+import com.ecommerce_inventory.product.application.ExportProductsUseCase;
+import com.ecommerce_inventory.product.application.GetProductAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.GetProductsAvailabilityUseCase;
+import com.ecommerce_inventory.product.application.ImportProductsUseCase;
+import com.ecommerce_inventory.product.application.ListProductsUseCase;
+import com.ecommerce_inventory.product.application.ProductAvailability;
+import com.ecommerce_inventory.product.application.ProductPage;
+import com.ecommerce_inventory.product.application.ProductStockLookup;
+import com.ecommerce_inventory.product.application.ReserveLocalStockUseCase;
+import com.ecommerce_inventory.product.application.StockUpdateLine;
+import com.ecommerce_inventory.product.application.UpdateProductStockUseCase;
+import com.ecommerce_inventory.product.domain.InsufficientStockException;
+import com.ecommerce_inventory.product.domain.Product;
+import com.ecommerce_inventory.product.infrastructure.external.ExternalProductDto;
+import com.ecommerce_inventory.product.infrastructure.external.ProductChangedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductController.class)
+@Import(AvailabilityCachePolicy.class)
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GetProductAvailabilityUseCase getProductAvailabilityUseCase;
+    @MockitoBean
+    private GetProductsAvailabilityUseCase getProductsAvailabilityUseCase;
+    @MockitoBean
+    private UpdateProductStockUseCase updateProductStockUseCase;
+    @MockitoBean
+    private BulkUpdateStockUseCase bulkUpdateStockUseCase;
+    @MockitoBean
+    private ListProductsUseCase listProductsUseCase;
+    @MockitoBean
+    private ExportProductsUseCase exportProductsUseCase;
+    @MockitoBean
+    private ImportProductsUseCase importProductsUseCase;
+    @MockitoBean
+    private ReserveLocalStockUseCase reserveLocalStockUseCase;
+
+    @Test
+    void listProductsReturnsThePageAndTheNextCursor() throws Exception {
+        when(listProductsUseCase.execute("electronics", 10L, 2)).thenReturn(new ProductPage(
+                List.of(product(11L, 3), product(12L, 0)), 12L));
+
+        mockMvc.perform(get("/api/products").param("category", "electronics").param("afterId", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.products[0].id").value(11))
+                .andExpect(jsonPath("$.products[1].available").value(false))
+                .andExpect(jsonPath("$.nextAfterId").value(12));
+    }
+
+    @Test
+    void listProductsReturnsANullCursorOnTheLastPage() throws Exception {
+        when(listProductsUseCase.execute(null, null, 100)).thenReturn(new ProductPage(List.of(product(1L, 5)), null));
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(1))
+                .andExpect(jsonPath("$.nextAfterId").isEmpty());
+    }
+
+    @Test
+    void availabilityCarriesAnEtagAndCacheControl() throws Exception {
+        when(getProductAvailabilityUseCase.execute(2L)).thenReturn(Optional.of(new ProductAvailability(2L, 7, false)));
+
+        mockMvc.perform(get("/api/products/2/availability"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-7\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, public, stale-while-revalidate=10"))
+                .andExpect(jsonPath("$.availableStock").value(7))
+                .andExpect(jsonPath("$.inStock").value(true))
+                .andExpect(jsonPath("$.stale").value(false));
+    }
+
+    @Test
+    void availabilityMatchingIfNoneMatchIsNotModified() throws Exception {
+        when(getProductAvailabilityUseCase.execute(2L)).thenReturn(Optional.of(new ProductAvailability(2L, 7, false)));
+
+        mockMvc.perform(get("/api/products/2/availability").header(HttpHeaders.IF_NONE_MATCH, "\"2-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void staleAvailabilityMustBeRevalidated() throws Exception {
+        when(getProductAvailabilityUseCase.execute(2L)).thenReturn(Optional.of(new ProductAvailability(2L, 7, true)));
+
+        mockMvc.perform(get("/api/products/2/availability").header(HttpHeaders.IF_NONE_MATCH, "\"2-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-7-stale\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.stale").value(true));
+    }
+
+    @Test
+    void availabilityOfAnUnknownProductIsNotFound() throws Exception {
+        when(getProductAvailabilityUseCase.execute(9L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/products/9/availability"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batchAvailabilityReturnsOneResultPerProduct() throws Exception {
+        when(getProductsAvailabilityUseCase.execute(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                ProductStockLookup.found(1L, 4, false),
+                ProductStockLookup.found(2L, 0, true),
+                ProductStockLookup.of(3L, ProductStockLookup.Status.TIMEOUT)));
+
+        mockMvc.perform(post("/api/products/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\": [1, 2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[0].status").value("FOUND"))
+                .andExpect(jsonPath("$.results[0].inStock").value(true))
+                .andExpect(jsonPath("$.results[1].inStock").value(false))
+                .andExpect(jsonPath("$.results[1].stale").value(true))
+                .andExpect(jsonPath("$.results[2].status").value("TIMEOUT"))
+                .andExpect(jsonPath("$.results[2].availableStock").isEmpty());
+    }
+
+    @Test
+    void batchAvailabilityRejectsAnEmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/products/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(getProductsAvailabilityUseCase, never()).execute(anyList());
+    }
+
+    @Test
+    void reserveReturnsTheUpdatedProduct() throws Exception {
+        when(updateProductStockUseCase.reserve(1L, 2)).thenReturn(Optional.of(externalProduct(1L, 3)));
+
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(3));
+    }
+
+    @Test
+    void reserveWithoutEnoughStockIsAConflict() throws Exception {
+        when(updateProductStockUseCase.reserve(1L, 5)).thenThrow(new InsufficientStockException(1L, 3, -5));
+
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 5}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void reserveRejectsANonPositiveQuantity() throws Exception {
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void releaseOfAnUnknownProductIsNotFound() throws Exception {
+        when(updateProductStockUseCase.release(9L, 1)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/products/9/stock/release")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 1}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void adjustLosingToConcurrentChangesIsAConflict() throws Exception {
+        when(updateProductStockUseCase.adjust(1L, -3)).thenThrow(new ProductChangedException(1L, null));
+
+        mockMvc.perform(post("/api/products/1/stock/adjust")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Concurrent stock change"));
+    }
+
+    @Test
+    void bulkUpdateStreamsOneResultPerCsvLineAndASummary() throws Exception {
+        List<StockUpdateLine> received = new ArrayList<>();
+        when(bulkUpdateStockUseCase.execute(any(), any())).thenAnswer(invocation -> {
+            Iterator<StockUpdateLine> lines = invocation.getArgument(0);
+            Consumer<BulkStockUpdateResult> results = invocation.getArgument(1);
+            return apply(lines, results, received);
+        });
+
+        MvcResult started = mockMvc.perform(post("/api/products/stock/bulk")
+                        .contentType("text/csv")
+                        .content("productId,stock\n1,5\n2,-1\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, received.size());
+        assertTrue(received.get(0).isValid());
+        assertEquals(2L, received.get(0).line());
+        assertEquals("Stock must be non-negative", received.get(1).error());
+        List<String> responseLines = body.lines().toList();
+        assertEquals(3, responseLines.size());
+        assertEquals("{\"line\":2,\"productId\":1,\"stock\":5,\"status\":\"UPDATED\"}", responseLines.get(0));
+        assertEquals("{\"line\":3,\"productId\":2,\"stock\":-1,\"status\":\"INVALID\",\"message\":\"Stock must be non-negative\"}",
+                responseLines.get(1));
+        assertTrue(responseLines.get(2).startsWith("{\"summary\":{\"lines\":2,\"updated\":1,\"notFound\":0,\"invalid\":1,"),
+                responseLines.get(2));
+    }
+
+    @Test
+    void bulkUpdateParsesNdjsonLines() throws Exception {
+        List<StockUpdateLine> received = new ArrayList<>();
+        when(bulkUpdateStockUseCase.execute(any(), any())).thenAnswer(invocation -> {
+            Iterator<StockUpdateLine> lines = invocation.getArgument(0);
+            Consumer<BulkStockUpdateResult> results = invocation.getArgument(1);
+            return apply(lines, results, received);
+        });
+
+        MvcResult started = mockMvc.perform(post("/api/products/stock/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"productId\":7,\"stock\":14}\n\nnot json\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        assertEquals(2, received.size());
+        assertEquals(7L, received.get(0).productId());
+        assertEquals(14, received.get(0).stock());
+        assertEquals(3L, received.get(1).line());
+        assertEquals("Malformed JSON line", received.get(1).error());
+    }
+
+    /**
+     * Stands in for the bulk use case: reports valid lines as updated and invalid ones with their error
+     */
+    private static BulkStockUpdateReport apply(Iterator<StockUpdateLine> lines, Consumer<BulkStockUpdateResult> results,
+                                               List<StockUpdateLine> received) {
+        long updated = 0;
+        long invalid = 0;
+        while (lines.hasNext()) {
+            StockUpdateLine line = lines.next();
+            received.add(line);
+            if (line.isValid()) {
+                updated++;
+                results.accept(BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.UPDATED, null));
+            } else {
+                invalid++;
+                results.accept(BulkStockUpdateResult.of(line, BulkStockUpdateResult.Status.INVALID, line.error()));
+            }
+        }
+        return new BulkStockUpdateReport(updated + invalid, updated, 0, invalid, 0, 0, 1, Duration.ofMillis(5));
+    }
+
+    private static Product product(Long id, int stock) {
+        return new Product(id, "Product " + id, "Description", 10.0, stock, "electronics");
+    }
+
+    private static ExternalProductDto externalProduct(Long id, int stock) {
+        return new ExternalProductDto(id, "Product " + id, "Description", 10.0, stock, "electronics", stock > 0);
+    }
+}
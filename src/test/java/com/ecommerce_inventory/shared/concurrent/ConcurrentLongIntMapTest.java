@@ -0,0 +1,141 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongIntMapTest {
+
+    private static final int ABSENT = -1;
+
+    @Test
+    void storesReplacesAndRemovesValues() {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(16);
+
+        map.put(1L, 10);
+        map.put(1L, 11);
+        assertFalse(map.putIfAbsent(1L, 12));
+        assertTrue(map.putIfAbsent(2L, 20));
+
+        assertEquals(11, map.get(1L, ABSENT));
+        assertEquals(20, map.get(2L, ABSENT));
+        assertEquals(ABSENT, map.get(3L, ABSENT));
+        assertEquals(2, map.size());
+
+        assertTrue(map.remove(1L));
+        assertFalse(map.remove(1L));
+        assertEquals(ABSENT, map.get(1L, ABSENT));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void rejectsTheReservedKey() {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(16);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1));
+        assertFalse(map.remove(0L));
+        assertEquals(ABSENT, map.get(0L, ABSENT));
+    }
+
+    /**
+     * A small table with a few dozen keys forces long probe chains that wrap around the end
+     * of the arrays, so removals must shift displaced entries back for lookups to keep working
+     */
+    @Test
+    void keepsEveryKeyReachableThroughCollisionsAndBackwardShiftDeletes() {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int operation = 0; operation < 200_000; operation++) {
+            long key = 1 + random.nextInt(40);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                int value = random.nextInt(1000);
+                map.put(key, value);
+                expected.put(key, value);
+            }
+            if (operation % 97 == 0) {
+                for (long candidate = 1; candidate <= 40; candidate++) {
+                    int expectedValue = expected.getOrDefault(candidate, ABSENT);
+                    assertEquals(expectedValue, map.get(candidate, ABSENT),
+                            "key " + candidate + " after operation " + operation);
+                }
+            }
+        }
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    void growsWithoutLosingEntriesAndKeepsTheLoadHigh() {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(0);
+
+        for (int key = 1; key <= 200_000; key++) {
+            map.put(key, key * 2);
+            if (key >= 1_000 && key % 1_000 == 0) {
+                double bytesPerEntry = (double) map.footprintBytes() / map.size();
+                assertTrue(bytesPerEntry <= 16.0, "bytes per entry " + bytesPerEntry + " at " + key + " entries");
+            }
+        }
+
+        assertEquals(200_000, map.size());
+        for (int key = 1; key <= 200_000; key++) {
+            assertEquals(key * 2, map.get(key, ABSENT));
+        }
+    }
+
+    @Test
+    void clearKeepsTheCapacity() {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(1_000);
+        long footprint = map.footprintBytes();
+        for (int key = 1; key <= 500; key++) {
+            map.put(key, key);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(ABSENT, map.get(1L, ABSENT));
+        assertEquals(footprint, map.footprintBytes());
+    }
+
+    @Test
+    void optimisticReadsSeeStableKeysWhileTheTableIsRewritten() throws InterruptedException {
+        ConcurrentLongIntMap map = new ConcurrentLongIntMap(16);
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, (int) key);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger wrongReads = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (writing.get()) {
+                for (long key = 1; key <= 100; key++) {
+                    if (map.get(key, ABSENT) != key) {
+                        wrongReads.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        for (long key = 1_000; key < 50_000; key++) {
+            map.put(key, 0);
+            if (key % 3 == 0) {
+                map.remove(key - 1);
+            }
+        }
+        writing.set(false);
+        reader.join(5000);
+
+        assertEquals(0, wrongReads.get());
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void estimatesNeverUndercount() {
+        HeavyHitters hitters = new HeavyHitters(256, 10, 1);
+        Map<Long, Integer> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            hitters.add(key);
+            counts.merge(key, 1, Integer::sum);
+        }
+
+        counts.forEach((key, count) -> assertTrue(hitters.estimate(key) >= count, "estimate of " + key));
+        assertEquals(20_000, hitters.total());
+    }
+
+    @Test
+    void keepsTheMostFrequentKeysMostFrequentFirst() {
+        HeavyHitters hitters = new HeavyHitters(4096, 3, 1);
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 30_000; i++) {
+            hitters.add(1_000 + random.nextInt(5_000));
+            if (i % 3 == 0) {
+                hitters.add(1L);
+            }
+            if (i % 5 == 0) {
+                hitters.add(2L);
+            }
+            if (i % 10 == 0) {
+                hitters.add(3L);
+            }
+        }
+
+        List<HeavyHitters.Entry> top = hitters.top();
+        assertEquals(3, hitters.topSize());
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(HeavyHitters.Entry::key).toList());
+        assertTrue(hitters.isTop(1L));
+        assertFalse(hitters.isTop(1_000L));
+    }
+
+    @Test
+    void keysBelowTheMinimumCountStayOutOfTheTop() {
+        HeavyHitters hitters = new HeavyHitters(1024, 10, 5);
+
+        for (int i = 0; i < 4; i++) {
+            hitters.add(9L);
+        }
+        assertFalse(hitters.isTop(9L));
+
+        hitters.add(9L);
+        assertTrue(hitters.isTop(9L));
+    }
+
+    @Test
+    void decayHalvesTheCountsAndDropsKeysFallingBelowTheMinimum() {
+        HeavyHitters hitters = new HeavyHitters(1024, 10, 4);
+        for (int i = 0; i < 16; i++) {
+            hitters.add(1L);
+        }
+        for (int i = 0; i < 6; i++) {
+            hitters.add(2L);
+        }
+
+        hitters.decay();
+
+        assertEquals(8, hitters.estimate(1L));
+        assertEquals(11, hitters.total());
+        assertTrue(hitters.isTop(1L));
+        assertFalse(hitters.isTop(2L));
+        assertEquals(List.of(new HeavyHitters.Entry(1L, 8)), hitters.top());
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(1024, 0, 1));
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersForTheSameKeyShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "product-1";
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> singleFlight.execute(1L, loader));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Thread> waiters = new ArrayList<>();
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                waiters.add(Thread.ofPlatform().start(() -> {
+                    String result = singleFlight.execute(1L, loader);
+                    synchronized (results) {
+                        results.add(result);
+                    }
+                }));
+            }
+            for (Thread waiter : waiters) {
+                awaitWaiting(waiter);
+            }
+            release.countDown();
+            for (Thread waiter : waiters) {
+                waiter.join(5000);
+            }
+
+            assertEquals("product-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("product-1", "product-1", "product-1", "product-1"), results);
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void waitersReceiveTheFailureOfTheSharedCall() throws Exception {
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        };
+
+        Thread first = Thread.ofPlatform().start(() -> assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute(1L, loader)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        RuntimeException[] received = new RuntimeException[1];
+        Thread waiter = Thread.ofPlatform().start(() -> received[0] = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute(1L, () -> "not called")));
+        awaitWaiting(waiter);
+        release.countDown();
+        first.join(5000);
+        waiter.join(5000);
+
+        assertSame(failure, received[0]);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void completedCallsAreNotCached() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "v" + executions.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "v" + executions.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void forgottenCallIsNotJoinedByLaterCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String[] firstResult = new String[1];
+        Thread first = Thread.ofPlatform().start(() -> firstResult[0] = singleFlight.execute(1L, () -> {
+            started.countDown();
+            await(release);
+            return "outdated";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        singleFlight.forget(1L);
+        String later = singleFlight.execute(1L, () -> "current");
+        release.countDown();
+        first.join(5000);
+
+        assertEquals("current", later);
+        assertEquals("outdated", firstResult[0]);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void callsForDifferentKeysRunIndependently() {
+        String outer = singleFlight.execute(1L, () -> singleFlight.execute(2L, () -> "inner") + "-outer");
+
+        assertEquals("inner-outer", outer);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Thread did not start waiting");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce_inventory.shared.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedLocksTest {
+
+    @Test
+    void roundsStripesUpToAPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).stripes());
+        assertEquals(2, new StripedLocks(2).stripes());
+        assertEquals(1024, new StripedLocks(1000).stripes());
+        assertEquals(1024, new StripedLocks(1024).stripes());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+    @Test
+    void sameKeyAlwaysMapsToTheSameLock() {
+        StripedLocks locks = new StripedLocks(64);
+
+        assertSame(locks.lockFor(42L), locks.lockFor(42L));
+    }
+
+    @Test
+    void sequentialKeysSpreadOverEveryStripe() {
+        StripedLocks locks = new StripedLocks(64);
+        Set<ReentrantLock> used = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (long key = 1; key <= 64 * 100; key++) {
+            used.add(locks.lockFor(key));
+        }
+
+        assertEquals(64, used.size());
+    }
+
+    @Test
+    void serializesUpdatesOfTheSameKey() {
+        StripedLocks locks = new StripedLocks(16);
+        int[] counter = new int[1];
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int task = 0; task < 8; task++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ReentrantLock lock = locks.lockFor(7L);
+                        lock.lock();
+                        try {
+                            counter[0]++;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                });
+            }
+        }
+
+        assertEquals(80_000, counter[0]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsCallsOverTheLimitWithoutWaiting() {
+        Bulkhead bulkhead = new Bulkhead("test", 2, Duration.ZERO);
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+
+        assertEquals(2, bulkhead.activeCalls());
+        assertEquals(1, bulkhead.rejectedCalls());
+    }
+
+    @Test
+    void releasedSlotsCanBeTakenAgain() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO);
+        assertTrue(bulkhead.tryAcquire());
+
+        bulkhead.release();
+
+        assertEquals(0, bulkhead.activeCalls());
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void waitsUpToTheMaximumWaitForASlot() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire());
+        Thread releaser = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bulkhead.release();
+        });
+
+        assertTrue(bulkhead.tryAcquire());
+        releaser.join(5000);
+        assertEquals(0, bulkhead.rejectedCalls());
+    }
+
+    @Test
+    void givesUpAfterTheMaximumWait() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofMillis(20));
+        assertTrue(bulkhead.tryAcquire());
+
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        assertEquals(1, bulkhead.rejectedCalls());
+    }
+
+    @Test
+    void rejectsANonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 0, Duration.ZERO));
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final Duration WAIT_IN_OPEN = Duration.ofMillis(30);
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 50, Duration.ofMillis(100),
+            4, 4, WAIT_IN_OPEN, 2);
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        fail(3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        succeed(2);
+        fail(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, circuitBreaker.tryAcquirePermission());
+        assertEquals(1, circuitBreaker.rejectedCalls());
+    }
+
+    @Test
+    void opensWhenTheSlowCallRateReachesTheThreshold() {
+        for (int i = 0; i < 2; i++) {
+            circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission(), FAST);
+            circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission(), SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void onlyTheLastCallsOfTheWindowCount() {
+        fail(1);
+        succeed(4);
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void closesAfterSuccessfulHalfOpenTrials() throws InterruptedException {
+        open();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() + 10);
+
+        long first = circuitBreaker.tryAcquirePermission();
+        long second = circuitBreaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onSuccess(first, FAST);
+        circuitBreaker.onSuccess(second, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void reopensWhenAHalfOpenTrialFails() throws InterruptedException {
+        open();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() + 10);
+
+        circuitBreaker.onError(circuitBreaker.tryAcquirePermission(), FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void ignoresOutcomesOfPermitsGrantedBeforeTheLastStateChange() throws InterruptedException {
+        long grantedWhileClosed = circuitBreaker.tryAcquirePermission();
+        open();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() + 10);
+        long trial = circuitBreaker.tryAcquirePermission();
+        assertNotEquals(grantedWhileClosed, trial);
+
+        circuitBreaker.onSuccess(grantedWhileClosed, FAST);
+        circuitBreaker.onSuccess(trial, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state(),
+                "a call started while closed must not count as a half-open trial");
+
+        circuitBreaker.onError(grantedWhileClosed, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void releasedHalfOpenPermitsCanBeTakenAgain() throws InterruptedException {
+        long grantedWhileClosed = circuitBreaker.tryAcquirePermission();
+        open();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() + 10);
+        long first = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.releasePermission(grantedWhileClosed);
+        assertEquals(CircuitBreaker.NO_PERMIT, circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.releasePermission(first);
+        assertNotEquals(CircuitBreaker.NO_PERMIT, circuitBreaker.tryAcquirePermission());
+    }
+
+    private void open() {
+        fail(4);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission(), FAST);
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onError(circuitBreaker.tryAcquirePermission(), FAST);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce_inventory.shared.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgerTest {
+
+    private static final Duration MIN_HEDGE_DELAY = Duration.ofMillis(20);
+
+    private Hedger hedger;
+
+    @AfterEach
+    void closeHedger() {
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
+
+    @Test
+    void secondAttemptWinsWhenTheFirstIsSlow() throws Exception {
+        hedger = warmedUpHedger(100);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        String result = hedger.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleepUntilInterrupted(primaryCancelled);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, hedger.stats().hedges());
+        assertEquals(1, hedger.stats().hedgeWins());
+        assertTrue(primaryCancelled.await(5, TimeUnit.SECONDS), "the losing attempt is interrupted");
+    }
+
+    @Test
+    void fastCallsAreNotHedged() throws Exception {
+        hedger = warmedUpHedger(100);
+        long hedgesBefore = hedger.stats().hedges();
+
+        assertEquals("fast", hedger.call(() -> "fast"));
+
+        assertEquals(hedgesBefore, hedger.stats().hedges());
+    }
+
+    @Test
+    void failureIsThrownWhenNoOtherAttemptIsRunning() {
+        hedger = new Hedger("test", 95, MIN_HEDGE_DELAY, 100, 99, 3, Duration.ofMillis(100), Duration.ofSeconds(1),
+                Duration.ofSeconds(10), Long.MAX_VALUE);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> hedger.call(() -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void failedAttemptDoesNotFailTheCallWhileTheHedgeIsRunning() throws Exception {
+        hedger = warmedUpHedger(100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(MIN_HEDGE_DELAY.toMillis() * 2);
+                throw new IllegalStateException("primary failed");
+            }
+            sleep(MIN_HEDGE_DELAY.toMillis() * 3);
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    void slowCallsAreNotHedgedWithoutBudget() throws Exception {
+        hedger = warmedUpHedger(0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.call(() -> {
+            attempts.incrementAndGet();
+            sleep(MIN_HEDGE_DELAY.toMillis() * 2);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        assertEquals(1, hedger.stats().budgetExhausted());
+    }
+
+    @Test
+    void callTimesOutAndCancelsItsAttempt() throws Exception {
+        hedger = new Hedger("test", 95, MIN_HEDGE_DELAY, 100, 99, 3, Duration.ofMillis(10), Duration.ofMillis(50),
+                Duration.ofSeconds(10), Long.MAX_VALUE);
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        assertThrows(TimeoutException.class, () -> hedger.call(() -> {
+            sleepUntilInterrupted(cancelled);
+            return "too late";
+        }));
+
+        assertEquals(1, hedger.stats().timeouts());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(Duration.ofMillis(50), hedger.timeout());
+    }
+
+    /**
+     * Returns a hedger that has seen enough fast calls to hedge, with its hedge delay at the minimum
+     */
+    private static Hedger warmedUpHedger(double budgetPercent) throws Exception {
+        Hedger warmed = new Hedger("test", 95, MIN_HEDGE_DELAY, budgetPercent, 99, 3, Duration.ofSeconds(1),
+                Duration.ofSeconds(2), Duration.ofSeconds(10), 5);
+        for (int i = 0; i < 10; i++) {
+            warmed.call(() -> "warm-up");
+        }
+        Thread.sleep(150);
+        assertEquals(MIN_HEDGE_DELAY, warmed.hedgeDelay().orElseThrow());
+        return warmed;
+    }
+
+    private static void sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
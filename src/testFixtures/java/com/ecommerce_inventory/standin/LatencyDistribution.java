@@ -0,0 +1,43 @@
+package com.ecommerce_inventory.standin;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Response latency of the stand-in product service.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws one latency
+     * @param random the random source of the calling thread
+     * @return the latency in nanoseconds
+     */
+    long sampleNanos(RandomGenerator random);
+
+    /**
+     * Creates a distribution with the given mean
+     * @param kind {@code fixed}, {@code uniform} (between zero and twice the mean),
+     *             {@code exponential} or {@code lognormal}
+     * @param mean the mean latency
+     * @param sigma the shape of the lognormal distribution; larger values give a longer tail
+     * @return the latency distribution
+     */
+    static LatencyDistribution of(String kind, Duration mean, double sigma) {
+        long meanNanos = mean.toNanos();
+        if (meanNanos <= 0) {
+            return random -> 0L;
+        }
+        return switch (kind) {
+            case "fixed" -> random -> meanNanos;
+            case "uniform" -> random -> random.nextLong(2 * meanNanos + 1);
+            case "exponential" -> random -> (long) (-meanNanos * Math.log(1.0 - random.nextDouble()));
+            case "lognormal" -> {
+                double mu = Math.log(meanNanos) - sigma * sigma / 2;
+                yield random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution " + kind);
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package com.ecommerce_inventory.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded stand-in for the external product service, shared by the load test and the
+ * JMH benchmarks, so client and caching strategies can be measured without the real microservice.
+ * Serves {@code GET} and {@code PUT /api/products/{id}} and the paged
+ * {@code GET /api/products?afterId=&size=} for IDs in {@code [1, catalogSize]}, keeping
+ * stock in memory. Every response waits for a latency drawn from the configured
+ * distribution, and the configured fraction of requests fails with {@code 503}.
+ * Products carry an ETag, and a matching {@code If-None-Match} is answered with {@code 304};
+ * a {@code PUT} whose {@code If-Match} does not match the current ETag is answered with {@code 412}.
+ */
+public final class StandInProductService implements AutoCloseable {
+
+    private static final Pattern STOCK_FIELD = Pattern.compile("\"stock\"\\s*:\\s*(\\d+)");
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final int catalogSize;
+    private final AtomicIntegerArray stock;
+
+    /**
+     * Starts a stand-in that answers every request after a fixed latency and never fails
+     * @param latency the latency of every response
+     * @param catalogSize the number of products served
+     */
+    public StandInProductService(Duration latency, int catalogSize) throws IOException {
+        this(LatencyDistribution.of("fixed", latency, 0), 0, catalogSize);
+    }
+
+    /**
+     * Starts a stand-in
+     * @param latency the distribution of response latencies
+     * @param errorRate the fraction of requests answered with {@code 503}
+     * @param catalogSize the number of products served
+     */
+    public StandInProductService(LatencyDistribution latency, double errorRate, int catalogSize) throws IOException {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.catalogSize = catalogSize;
+        this.stock = new AtomicIntegerArray(catalogSize + 1);
+        for (int id = 1; id <= catalogSize; id++) {
+            stock.set(id, initialStock(id));
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stand-in-product-service").factory());
+        server.setExecutor(executor);
+        server.createContext("/api/products", this::handle);
+        server.start();
+    }
+
+    /**
+     * Returns the base URL to configure as {@code external.product.service.url}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delayNanos = latency.sampleNanos(random);
+            if (delayNanos > 0) {
+                LockSupport.parkNanos(delayNanos);
+            }
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/api/products") || path.equals("/api/products/")) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                sendJson(exchange, 200, page(exchange.getRequestURI().getQuery()));
+                return;
+            }
+
+            int id = parseId(path);
+            if (id < 1 || id > catalogSize) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> {
+                    String etag = "\"" + id + "-" + stock.get(id) + "\"";
+                    exchange.getResponseHeaders().add("ETag", etag);
+                    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                    sendJson(exchange, 200, productJson(id, stock.get(id)));
+                }
+                case "PUT" -> {
+                    Matcher matcher = STOCK_FIELD.matcher(new String(requestBody, StandardCharsets.UTF_8));
+                    String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+                    if (matcher.find()) {
+                        int newStock = Integer.parseInt(matcher.group(1));
+                        if (ifMatch == null) {
+                            stock.set(id, newStock);
+                        } else if (!stock.compareAndSet(id, stockOf(ifMatch, id), newStock)) {
+                            exchange.sendResponseHeaders(412, -1);
+                            return;
+                        }
+                    }
+                    int current = stock.get(id);
+                    exchange.getResponseHeaders().add("ETag", "\"" + id + "-" + current + "\"");
+                    sendJson(exchange, 200, productJson(id, current));
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private String page(String query) {
+        long afterId = 0;
+        int size = 100;
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                if (pair.length == 2 && pair[0].equals("afterId")) {
+                    afterId = Long.parseLong(pair[1]);
+                } else if (pair.length == 2 && pair[0].equals("size")) {
+                    size = Math.min(Integer.parseInt(pair[1]), MAX_PAGE_SIZE);
+                }
+            }
+        }
+        StringBuilder json = new StringBuilder("{\"products\":[");
+        long last = Math.min(catalogSize, afterId + size);
+        for (long id = afterId + 1; id <= last; id++) {
+            if (id > afterId + 1) {
+                json.append(',');
+            }
+            json.append(productJson((int) id, stock.get((int) id)));
+        }
+        json.append("],\"nextAfterId\":").append(last < catalogSize ? String.valueOf(last) : "null").append('}');
+        return json.toString();
+    }
+
+    /**
+     * Returns the stock an entity tag was issued for, or -1 if it is not a tag of the product
+     */
+    private static int stockOf(String etag, int id) {
+        String prefix = "\"" + id + "-";
+        if (!etag.startsWith(prefix) || !etag.endsWith("\"") || etag.length() <= prefix.length() + 1) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(etag.substring(prefix.length(), etag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseId(String path) {
+        try {
+            return Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the JSON served for a product that still has its initial stock
+     * @param id the product ID
+     */
+    public static String productJson(long id) {
+        return productJson(id, initialStock(id));
+    }
+
+    private static int initialStock(long id) {
+        return (int) (id % 50);
+    }
+
+    private static String productJson(long id, int stock) {
+        return "{\"id\":" + id
+                + ",\"name\":\"Product " + id + "\""
+                + ",\"description\":\"Stand-in product " + id + "\""
+                + ",\"price\":19.99"
+                + ",\"stock\":" + stock
+                + ",\"category\":\"Electronics\""
+                + ",\"available\":" + (stock > 0) + "}";
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}